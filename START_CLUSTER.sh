@@ -0,0 +1,110 @@
+#!/bin/bash
+# Run several backend nodes on this machine in cluster mode (for local testing)
+#
+#   ./START_CLUSTER.sh start 3      start nodes on ports 8081..8083
+#   ./START_CLUSTER.sh add          start one more node and rebalance rooms onto it
+#   ./START_CLUSTER.sh stop         stop all nodes started from here
+#
+# Build first with ./gradlew bootJar. WebSocket events reach players on every node
+# only with an external STOMP broker: set WEBSOCKET_BROKER_MODE=relay (and
+# WEBSOCKET_BROKER_HOST/PORT) before starting, e.g. with a local Artemis on 61613.
+# Nodes share CLUSTER_SECRET; if it isn't set one is generated into the state directory.
+
+set -e
+
+BASE_PORT=${BASE_PORT:-8081}
+STATE_DIR=${STATE_DIR:-.cluster}
+JAR=${JAR:-$(ls build/libs/*.jar 2>/dev/null | head -n 1)}
+
+mkdir -p "$STATE_DIR"
+
+if [ -z "$CLUSTER_SECRET" ]; then
+    [ -f "$STATE_DIR/secret" ] || od -An -tx1 -N16 /dev/urandom | tr -d ' \n' > "$STATE_DIR/secret"
+    CLUSTER_SECRET=$(cat "$STATE_DIR/secret")
+fi
+export CLUSTER_SECRET
+
+node_url() {
+    echo "http://localhost:$((BASE_PORT + $1))"
+}
+
+node_list() {
+    local count=$1 list="" i
+    for ((i = 0; i < count; i++)); do
+        list="$list${list:+,}$(node_url $i)"
+    done
+    echo "$list"
+}
+
+node_count() {
+    ls "$STATE_DIR"/node-*.pid 2>/dev/null | wc -l
+}
+
+start_node() {
+    local index=$1 nodes=$2
+    local port=$((BASE_PORT + index))
+    echo "Starting node $index on port $port..."
+    java -jar "$JAR" \
+        --server.port="$port" \
+        --cluster.enabled=true \
+        --cluster.self="$(node_url "$index")" \
+        --cluster.nodes="$nodes" \
+        > "$STATE_DIR/node-$index.log" 2>&1 &
+    echo $! > "$STATE_DIR/node-$index.pid"
+}
+
+wait_until_up() {
+    local url=$1
+    for _ in $(seq 1 60); do
+        if curl -sf "$url/api/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Node $url did not come up, see $STATE_DIR/" >&2
+    exit 1
+}
+
+case "$1" in
+    start)
+        count=${2:-3}
+        if [ -z "$JAR" ]; then
+            echo "No JAR found, run ./gradlew bootJar first" >&2
+            exit 1
+        fi
+        nodes=$(node_list "$count")
+        for ((i = 0; i < count; i++)); do
+            start_node "$i" "$nodes"
+        done
+        for ((i = 0; i < count; i++)); do
+            wait_until_up "$(node_url $i)"
+        done
+        echo "Cluster up: $nodes"
+        ;;
+    add)
+        index=$(node_count)
+        nodes=$(node_list $((index + 1)))
+        start_node "$index" "$nodes"
+        wait_until_up "$(node_url "$index")"
+        # Every existing node gets the new member list and hands over the rooms that moved
+        for ((i = 0; i < index; i++)); do
+            curl -sf -X PUT "$(node_url $i)/internal/cluster/nodes" \
+                -H "Content-Type: application/json" \
+                -H "X-Cluster-Secret: $CLUSTER_SECRET" \
+                -d "[\"${nodes//,/\",\"}\"]" > /dev/null
+        done
+        echo "Cluster now: $nodes"
+        ;;
+    stop)
+        for pid_file in "$STATE_DIR"/node-*.pid; do
+            [ -f "$pid_file" ] || continue
+            kill "$(cat "$pid_file")" 2>/dev/null || true
+            rm -f "$pid_file"
+        done
+        echo "Cluster stopped"
+        ;;
+    *)
+        echo "Usage: $0 start [nodes] | add | stop" >&2
+        exit 1
+        ;;
+esac
@@ -1,6 +1,7 @@
-import { useState, useEffect } from 'react'
+import { useState, useEffect, useRef } from 'react'
 import { api } from '../services/api'
 import websocket from '../services/websocket'
+import { applyRoomPatch } from '../services/roomPatch'
 import AdminPanel from './AdminPanel'
 import '../styles/GameRoom.css'
 
@@ -9,12 +10,24 @@ function GameRoom({ roomData, onLeave }) {
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState(null)
   const [isAdmin, setIsAdmin] = useState(false)
+  // Latest state, readable from the WebSocket callback without a stale closure
+  const roomStateRef = useRef(null)
+
+  const updateRoomState = (state) => {
+    roomStateRef.current = state
+    setRoomState(state)
+    if (state) {
+      setIsAdmin(state.players?.some(p => p.playerId === roomData.playerId && p.role === 'ADMIN'))
+    }
+  }
 
   const refreshRoomState = async () => {
     try {
       const state = await api.getRoomState(roomData.roomCode)
-      setRoomState(state)
-      setIsAdmin(state.players?.some(p => p.playerId === roomData.playerId && p.role === 'ADMIN'))
+      const current = roomStateRef.current
+      if (!current || state.seq >= current.seq) {
+        updateRoomState(state)
+      }
     } catch (err) {
       console.error('Failed to refresh room state:', err)
     }
@@ -23,17 +36,25 @@ function GameRoom({ roomData, onLeave }) {
   const handleWebSocketMessage = (event) => {
     console.log('WebSocket event received:', event)
     
-    if (event.eventType === 'ROOM_STATE') {
-      setRoomState(event.data)
-    } else if (event.eventType === 'PLAYER_JOINED') {
-      // Refresh room state
-      refreshRoomState()
-    } else if (event.eventType === 'GAME_STARTED') {
-      refreshRoomState()
-    } else if (event.eventType === 'QUESTION_SENT' || event.eventType === 'ADMIN_OVERRIDE') {
-      refreshRoomState()
-    } else if (event.eventType === 'NEXT_TURN') {
-      refreshRoomState()
+    if (event.eventType === 'BATCH') {
+      // Several events (and the latest state update) sent as one frame, in order
+      event.data.forEach(handleWebSocketMessage)
+    } else if (event.eventType === 'ROOM_STATE') {
+      const current = roomStateRef.current
+      if (!current || event.data.seq >= current.seq) {
+        updateRoomState(event.data)
+      }
+    } else if (event.eventType === 'ROOM_PATCH') {
+      const patched = applyRoomPatch(roomStateRef.current, event.data)
+      if (patched === null) {
+        // Not based on our state (missed update, state fetched mid-batch, or none yet); fetch the full state
+        refreshRoomState()
+      } else if (patched !== roomStateRef.current) {
+        updateRoomState(patched)
+      }
+    } else if (event.eventType === 'ROOM_CLOSED') {
+      updateRoomState(null)
+      setError('This room was closed due to inactivity')
     }
   }
 
@@ -42,8 +63,7 @@ function GameRoom({ roomData, onLeave }) {
     const fetchRoomState = async () => {
       try {
         const state = await api.getRoomState(roomData.roomCode)
-        setRoomState(state)
-        setIsAdmin(state.players?.some(p => p.playerId === roomData.playerId && p.role === 'ADMIN'))
+        updateRoomState(state)
         setLoading(false)
       } catch (err) {
         setError(err.message || 'Failed to load room')
@@ -0,0 +1,59 @@
+/**
+ * Apply a ROOM_PATCH event to a room state
+ * Only a state at exactly baseSeq is patched: player ops are changes against that
+ * state, so one fetched between baseSeq and seq may hold a player who has since
+ * joined and left (and whom no op would remove).
+ * @returns the patched state, the same state if the patch is already included,
+ *          or null if the state isn't the patch's base and a full state is needed
+ */
+export function applyRoomPatch(state, patch) {
+  if (!state) {
+    return null
+  }
+  if (patch.seq <= state.seq) {
+    return state
+  }
+  if (patch.baseSeq !== state.seq) {
+    return null
+  }
+
+  let { players, currentTurnIndex, currentQuestion, status, gameMode } = state
+  for (const { op, value } of patch.ops) {
+    switch (op) {
+      case 'PLAYER_REMOVED':
+        players = players.filter(p => p.playerId !== value)
+        break
+      case 'PLAYER_ADDED':
+        if (!players.some(p => p.playerId === value.playerId)) {
+          players = [...players, value]
+        }
+        break
+      case 'TURN':
+        currentTurnIndex = value
+        break
+      case 'QUESTION':
+        currentQuestion = value
+        break
+      case 'STATUS':
+        status = value
+        break
+      case 'GAME_MODE':
+        gameMode = value
+        break
+      default:
+        // Unknown op, resync from a full state
+        return null
+    }
+  }
+
+  return {
+    ...state,
+    seq: patch.seq,
+    players,
+    currentTurnIndex,
+    currentPlayer: players[currentTurnIndex] ?? null,
+    currentQuestion,
+    status,
+    gameMode,
+  }
+}
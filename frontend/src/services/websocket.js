@@ -98,6 +98,23 @@ class WebSocketService {
         )
         
         this.subscriptions.set(`/topic/room/${roomCode}/admin`, adminSubscription)
+        
+        // One-off full state (sent once on subscribe); later changes arrive as ROOM_PATCH events
+        const stateSubscription = this.client.subscribe(
+          `/app/room/${roomCode}/state`,
+          (message) => {
+            try {
+              const event = JSON.parse(message.body)
+              if (onMessage) {
+                onMessage(event)
+              }
+            } catch (error) {
+              console.error('Error parsing room state message:', error)
+            }
+          }
+        )
+        
+        this.subscriptions.set(`/app/room/${roomCode}/state`, stateSubscription)
       },
       onStompError: (frame) => {
         console.error('STOMP error:', frame)
@@ -0,0 +1,87 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.client.TruthDareApiClient;
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.QuestionType;
+import com.truthdare.backend.model.Role;
+import com.truthdare.backend.model.RoomStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Services wired by hand as in the default configuration, without a Spring context
+ * (single node, no journal, no prefetching)
+ */
+public final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {
+	}
+
+	public static RoomService roomService() {
+		return roomService(new RoomJournal(false, "build/jmh-journal", 64, true));
+	}
+
+	public static RoomService roomService(RoomJournal journal) {
+		return new RoomService(event -> { },
+				new ClusterService(false, "", "", 160, "forward", ""),
+				journal,
+				Duration.ofMinutes(10),
+				20);
+	}
+
+	/**
+	 * Exported state of a waiting room with the given number of players
+	 */
+	public static RoomTransferDto roomState(String code, int players) {
+		LocalDateTime now = LocalDateTime.now();
+		List<Player> list = new ArrayList<>(players);
+		for (int i = 0; i < players; i++) {
+			list.add(new Player("player-" + i, "Player " + i, i == 0 ? Role.ADMIN : Role.PLAYER, now));
+		}
+		return new RoomTransferDto(code + "-1", code, "token", GameMode.TRUTH_AND_DARE, RoomStatus.WAITING,
+				list, 0, null, List.of(), now, now, players);
+	}
+
+	public static void deleteRecursively(Path directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	public static GameService gameService(RoomService roomService) {
+		return new GameService(roomService, questionService(unavailableApi()));
+	}
+
+	public static QuestionService questionService(TruthDareApiClient apiClient) {
+		return new QuestionService(apiClient,
+				new QuestionPrefetchBuffer(apiClient, false, 4, 16, 4, 5000),
+				new LocalQuestionCorpus(""),
+				new SimpleMeterRegistry());
+	}
+
+	/**
+	 * API client whose upstream always fails, so every question takes the local fallback
+	 */
+	public static TruthDareApiClient unavailableApi() {
+		return new TruthDareApiClient("http://localhost", 20, 5, 0.5, 10_000, 2, 300, 5_000, 2.0, new SimpleMeterRegistry()) {
+			@Override
+			public Mono<String> getQuestionForGameMode(GameMode gameMode, QuestionType questionType) {
+				return Mono.error(new IllegalStateException("upstream unavailable"));
+			}
+		};
+	}
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Question;
+import com.truthdare.backend.model.QuestionType;
+import com.truthdare.backend.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Question selection when the external API is down (local corpus fallback), and the
+ * text-based type inference applied to API questions
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class QuestionServiceBenchmark {
+
+	private static final String[] API_TEXTS = {
+			"Tell us about the last time you lied to a friend.",
+			"I dare you to sing the chorus of your favourite song.",
+			"What is the most embarrassing thing in your search history?",
+			"Perform your best impression of someone in this room."
+	};
+
+	@Param({"TRUTH_AND_DARE", "TRUTH_ONLY"})
+	GameMode gameMode;
+
+	QuestionService questionService;
+	Room room;
+	int next;
+
+	@Setup
+	public void setUp() {
+		questionService = BenchmarkFixtures.questionService(BenchmarkFixtures.unavailableApi());
+		RoomService roomService = BenchmarkFixtures.roomService();
+		room = roomService.createRoom(gameMode, "Admin");
+	}
+
+	/**
+	 * Failed upstream call, then a draw from the local corpus (deck reshuffles when exhausted)
+	 */
+	@Benchmark
+	public Question fallbackQuestion() {
+		return questionService.getNextQuestion(room, null).block();
+	}
+
+	@Benchmark
+	public QuestionType determineQuestionType() {
+		String text = API_TEXTS[next++ & (API_TEXTS.length - 1)];
+		return QuestionService.determineQuestionType(gameMode, null, text);
+	}
+}
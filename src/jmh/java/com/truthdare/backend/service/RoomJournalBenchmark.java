@@ -0,0 +1,86 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal write latency for 6-player rooms: append a room's state and wait until it is
+ * durable, alone and with 16 writers sharing syncs (group commit), and the same through
+ * RoomService.submit including the hop off the flush thread. Sample mode reports the
+ * p50/p99; records per sync are printed after each iteration.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RoomJournalBenchmark {
+
+	@Param({"true", "false"})
+	boolean fsync;
+
+	Path directory;
+	RoomJournal journal;
+	RoomService roomService;
+	RoomTransferDto state;
+	Room room;
+
+	// A fresh journal per iteration so segments don't pile up on disk
+	@Setup(Level.Iteration)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("jmh-journal");
+		journal = new RoomJournal(true, directory.toString(), 64, fsync);
+		journal.open(1);
+		roomService = BenchmarkFixtures.roomService(journal);
+		state = BenchmarkFixtures.roomState("ABC123", 6);
+		room = roomService.createRoom(GameMode.TRUTH_AND_DARE, "Admin");
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() throws IOException {
+		Map<String, Object> stats = journal.getStats();
+		long records = (Long) stats.get("records");
+		long syncs = (Long) stats.get("syncs");
+		if (syncs > 0) {
+			System.out.printf("%n%d records in %d syncs (%.1f per sync)%n", records, syncs, (double) records / syncs);
+		}
+		journal.close();
+		BenchmarkFixtures.deleteRecursively(directory);
+	}
+
+	@Benchmark
+	public void appendDurable() {
+		journal.whenDurable(journal.append(RoomEvent.JOINED, state)).join();
+	}
+
+	@Benchmark
+	@Threads(16)
+	public void appendDurableContended() {
+		journal.whenDurable(journal.append(RoomEvent.JOINED, state)).join();
+	}
+
+	/**
+	 * A journaled no-op mutation of one room: mailbox, encode, append, sync and completion
+	 */
+	@Benchmark
+	public Object submitDurable() {
+		return roomService.submit(room, RoomEvent.JOINED, r -> null).join();
+	}
+}
\ No newline at end of file
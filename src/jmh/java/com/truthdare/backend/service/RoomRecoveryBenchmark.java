@@ -0,0 +1,95 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.model.RoomEvent;
+import com.truthdare.backend.util.RoomCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup recovery of 6-player rooms into an empty RoomService, either from a snapshot
+ * or by replaying the journal alone (a CREATED and a JOINED record per room)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class RoomRecoveryBenchmark {
+
+	@Param({"100000"})
+	int rooms;
+
+	@Param({"snapshot", "journal"})
+	String source;
+
+	Path directory;
+	RoomJournal journal;
+	RoomService roomService;
+
+	@Setup(Level.Trial)
+	public void writeRooms() throws IOException {
+		directory = Files.createTempDirectory("jmh-recovery");
+		RoomJournal writer = new RoomJournal(true, directory.toString(), 64, false);
+		writer.open(1);
+		if (source.equals("snapshot")) {
+			List<RoomTransferDto> states = new ArrayList<>(rooms);
+			for (int i = 0; i < rooms; i++) {
+				states.add(BenchmarkFixtures.roomState(code(i), 6));
+			}
+			writer.writeSnapshot(writer.roll(), states);
+		} else {
+			for (int i = 0; i < rooms; i++) {
+				writer.append(RoomEvent.CREATED, BenchmarkFixtures.roomState(code(i), 1));
+				writer.append(RoomEvent.JOINED, BenchmarkFixtures.roomState(code(i), 6));
+			}
+		}
+		writer.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRooms() throws IOException {
+		BenchmarkFixtures.deleteRecursively(directory);
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		journal = new RoomJournal(true, directory.toString(), 64, false);
+		roomService = BenchmarkFixtures.roomService();
+	}
+
+	@TearDown(Level.Invocation)
+	public void tearDown() {
+		journal.close();
+	}
+
+	/**
+	 * Read, replay and store every room, then reopen the journal for appends
+	 */
+	@Benchmark
+	public RoomService recover() {
+		new RoomPersistenceService(roomService, journal).start();
+		return roomService;
+	}
+
+	private static String code(int i) {
+		return RoomCodeGenerator.fromKey(i * 7_919L);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.util.RoomCodeGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RoomRegistry against the previous design (two ConcurrentHashMaps keyed by the code
+ * and by a UUID room ID) at 1M rooms: lookup and create/remove throughput, and the
+ * heap the index itself takes (rooms are shared instances, so only keys, nodes and
+ * tables are counted).
+ */
+@State(Scope.Benchmark)
+public class RoomRegistryBenchmark {
+
+	private static final int ROOMS = 1_000_000;
+	private static final int SHARED_ROOMS = 1024;
+	private static final long CODE_SPACE = 2_176_782_336L; // 36^6
+
+	@Param({"registry", "dualMap"})
+	String index;
+
+	RoomIndex rooms;
+	long[] keys;
+	String[] codes;
+	String[] ids;
+	Room[] shared;
+
+	@Setup
+	public void setUp() {
+		shared = new Room[SHARED_ROOMS];
+		for (int i = 0; i < SHARED_ROOMS; i++) {
+			shared[i] = new Room("ROOM" + i, "token", GameMode.TRUTH_AND_DARE);
+		}
+		keys = new long[ROOMS];
+		codes = new String[ROOMS];
+		ids = new String[ROOMS];
+		rooms = newIndex();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < ROOMS; i++) {
+			do {
+				keys[i] = random.nextLong(CODE_SPACE);
+				codes[i] = RoomCodeGenerator.fromKey(keys[i]);
+				// Current IDs embed the code; the previous ones were random UUIDs
+				ids[i] = "registry".equals(index) ? codes[i] + "-" + Long.toString(i, 36) : UUID.randomUUID().toString();
+			} while (!rooms.put(keys[i], codes[i], ids[i], shared[i & (SHARED_ROOMS - 1)]));
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	@Threads(4)
+	public Room getByCode() {
+		return rooms.getByCode(codes[ThreadLocalRandom.current().nextInt(ROOMS)]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	@Threads(4)
+	public Room getById() {
+		return rooms.getById(ids[ThreadLocalRandom.current().nextInt(ROOMS)]);
+	}
+
+	/**
+	 * Remove a random room and put it back (the index stays at 1M)
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	@Threads(4)
+	public boolean removeAndPut() {
+		int i = ThreadLocalRandom.current().nextInt(ROOMS);
+		Room room = shared[i & (SHARED_ROOMS - 1)];
+		if (!rooms.remove(keys[i], codes[i], ids[i], room)) {
+			return false; // Another thread has it out right now
+		}
+		return rooms.put(keys[i], codes[i], ids[i], room);
+	}
+
+	/**
+	 * Heap retained by an index holding 1M rooms, reported as the bytesPerRoom counter
+	 * (the time is that of building it). Key strings are not counted: rooms hold their
+	 * code and ID either way.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 3)
+	@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+	public RoomIndex footprint(Footprint footprint) {
+		long before = usedHeap();
+		RoomIndex built = newIndex();
+		for (int i = 0; i < ROOMS; i++) {
+			built.put(keys[i], codes[i], ids[i], shared[i & (SHARED_ROOMS - 1)]);
+		}
+		footprint.bytesPerRoom = (usedHeap() - before) / ROOMS;
+		return built;
+	}
+
+	private RoomIndex newIndex() {
+		return "registry".equals(index) ? new Registry() : new DualMap();
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+		public long bytesPerRoom;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			bytesPerRoom = 0;
+		}
+	}
+
+	interface RoomIndex {
+		boolean put(long key, String code, String id, Room room);
+
+		boolean remove(long key, String code, String id, Room room);
+
+		Room getByCode(String code);
+
+		Room getById(String id);
+	}
+
+	/**
+	 * Current design: one table keyed by the packed code; IDs embed the code
+	 */
+	static final class Registry implements RoomIndex {
+		private final RoomRegistry registry = new RoomRegistry();
+
+		@Override
+		public boolean put(long key, String code, String id, Room room) {
+			return registry.putIfAbsent(key, room) == null;
+		}
+
+		@Override
+		public boolean remove(long key, String code, String id, Room room) {
+			return registry.remove(key, room);
+		}
+
+		@Override
+		public Room getByCode(String code) {
+			return registry.get(RoomCodeGenerator.toKey(code));
+		}
+
+		@Override
+		public Room getById(String id) {
+			// RoomService.getRoomById minus the full-ID check (rooms here are shared)
+			return registry.get(RoomCodeGenerator.toKey(id.substring(0, RoomCodeGenerator.ROOM_CODE_LENGTH)));
+		}
+	}
+
+	/**
+	 * Previous design: roomsByCode and roomsById, written one after the other
+	 */
+	static final class DualMap implements RoomIndex {
+		private final Map<String, Room> roomsByCode = new ConcurrentHashMap<>();
+		private final Map<String, Room> roomsById = new ConcurrentHashMap<>();
+
+		@Override
+		public boolean put(long key, String code, String id, Room room) {
+			if (roomsByCode.putIfAbsent(code, room) != null) {
+				return false;
+			}
+			roomsById.put(id, room);
+			return true;
+		}
+
+		@Override
+		public boolean remove(long key, String code, String id, Room room) {
+			if (!roomsByCode.remove(code, room)) {
+				return false;
+			}
+			roomsById.remove(id);
+			return true;
+		}
+
+		@Override
+		public Room getByCode(String code) {
+			return roomsByCode.get(code);
+		}
+
+		@Override
+		public Room getById(String id) {
+			return roomsById.get(id);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room lifecycle through RoomService: create/close, join/leave and lookups, with a
+ * given number of other rooms already live
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RoomServiceBenchmark {
+
+	@Param({"1000", "100000"})
+	int liveRooms;
+
+	RoomService roomService;
+	String[] codes;
+
+	@Setup
+	public void setUp() {
+		roomService = BenchmarkFixtures.roomService();
+		codes = new String[liveRooms];
+		for (int i = 0; i < liveRooms; i++) {
+			codes[i] = roomService.createRoom(GameMode.TRUTH_AND_DARE, "Admin").getRoomCode();
+		}
+	}
+
+	@Benchmark
+	public boolean createAndRemoveRoom() {
+		Room room = roomService.createRoom(GameMode.TRUTH_AND_DARE, "Admin");
+		return roomService.removeRoom(room);
+	}
+
+	/**
+	 * Join then leave a random live room; threads mostly hit different rooms
+	 */
+	@Benchmark
+	@Threads(4)
+	public boolean joinAndLeave() {
+		String code = codes[ThreadLocalRandom.current().nextInt(codes.length)];
+		Player player = roomService.addPlayerToRoom(code, "Player " + Thread.currentThread().getId());
+		return roomService.removePlayerFromRoom(code, player.getPlayerId());
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Room getRoomByCode() {
+		return roomService.getRoomByCode(codes[ThreadLocalRandom.current().nextInt(codes.length)]);
+	}
+}
@@ -0,0 +1,69 @@
+package com.truthdare.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truthdare.backend.dto.RoomStateDto;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Question;
+import com.truthdare.backend.model.QuestionType;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomStatus;
+import com.truthdare.backend.model.SerializedRoomState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameService.toRoomStateDto and the per-version state cache at different room sizes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RoomStateDtoBenchmark {
+
+	@Param({"2", "8", "32"})
+	int players;
+
+	GameService gameService;
+	RoomStateCache stateCache;
+	Room room;
+
+	@Setup
+	public void setUp() {
+		RoomService roomService = BenchmarkFixtures.roomService();
+		gameService = BenchmarkFixtures.gameService(roomService);
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		stateCache = new RoomStateCache(gameService, objectMapper);
+
+		room = roomService.createRoom(GameMode.TRUTH_AND_DARE, "Admin");
+		for (int i = 1; i < players; i++) {
+			roomService.addPlayerToRoom(room.getRoomCode(), "Player " + i);
+		}
+		roomService.mutate(room, r -> {
+			r.setStatus(RoomStatus.ACTIVE);
+			r.setCurrentQuestion(new Question("What is your biggest fear?", QuestionType.TRUTH,
+					r.getCurrentPlayer().getPlayerId(), false));
+			return null;
+		});
+	}
+
+	@Benchmark
+	public RoomStateDto toRoomStateDto() {
+		return gameService.toRoomStateDto(room);
+	}
+
+	/**
+	 * Unchanged room: served from the cached encoding
+	 */
+	@Benchmark
+	public SerializedRoomState cachedStateJson() {
+		return stateCache.get(room);
+	}
+}
@@ -0,0 +1,108 @@
+package com.truthdare.backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room code allocation rate across threads: RoomCodeAllocator against the previous
+ * scheme (random code from the shared SecureRandom, retried while taken), plus the
+ * other RoomCodeGenerator helpers
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RoomCodeBenchmark {
+
+	private static final int MAX_ATTEMPTS = 100;
+
+	RoomCodeAllocator allocator;
+	Map<String, Boolean> taken; // Codes in use for the retrying scheme (100k rooms)
+	String code;
+	long key;
+
+	@Setup
+	public void setUp() {
+		allocator = new RoomCodeAllocator(Duration.ofMinutes(10));
+		taken = new ConcurrentHashMap<>();
+		while (taken.size() < 100_000) {
+			taken.put(RoomCodeGenerator.generateRoomCode(), Boolean.TRUE);
+		}
+		code = RoomCodeGenerator.generateRoomCode();
+		key = RoomCodeGenerator.toKey(code);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public long allocate1Thread() {
+		return allocator.next();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public long allocate4Threads() {
+		return allocator.next();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long allocateMaxThreads() {
+		return allocator.next();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public String retryingRandom1Thread() {
+		return retryingRandomCode();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String retryingRandom4Threads() {
+		return retryingRandomCode();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public String retryingRandomMaxThreads() {
+		return retryingRandomCode();
+	}
+
+	@Benchmark
+	public String generateAdminToken() {
+		return RoomCodeGenerator.generateAdminToken();
+	}
+
+	@Benchmark
+	public long toKey() {
+		return RoomCodeGenerator.toKey(code);
+	}
+
+	@Benchmark
+	public String fromKey() {
+		return RoomCodeGenerator.fromKey(key);
+	}
+
+	/**
+	 * The previous RoomService.generateUniqueRoomCode (lookup only; nothing is stored)
+	 */
+	private String retryingRandomCode() {
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			String candidate = RoomCodeGenerator.generateRoomCode();
+			if (!taken.containsKey(candidate)) {
+				return candidate;
+			}
+		}
+		throw new IllegalStateException("No free code");
+	}
+}
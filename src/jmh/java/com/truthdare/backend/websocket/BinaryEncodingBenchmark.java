@@ -0,0 +1,83 @@
+package com.truthdare.backend.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.truthdare.backend.dto.RoomPatchDto;
+import com.truthdare.backend.dto.RoomStateDto;
+import com.truthdare.backend.dto.WebSocketEvent;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.service.BenchmarkFixtures;
+import com.truthdare.backend.service.GameService;
+import com.truthdare.backend.service.RoomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON to CBOR transcoding of room topic frames (6-player room) as done for CBOR
+ * subscriptions, against a Jackson parse of the same JSON. The JSON and CBOR sizes of
+ * the frame are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class BinaryEncodingBenchmark {
+
+	@Param({"ROOM_STATE", "ROOM_PATCH", "BATCH"})
+	String frame;
+
+	ObjectMapper objectMapper;
+	BinaryEncodingInterceptor interceptor;
+	byte[] json;
+
+	@Setup
+	public void setUp() throws Exception {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		ObjectWriter eventWriter = objectMapper.writerFor(WebSocketEvent.class);
+		interceptor = new BinaryEncodingInterceptor();
+
+		RoomService roomService = BenchmarkFixtures.roomService();
+		GameService gameService = BenchmarkFixtures.gameService(roomService);
+		Room room = roomService.createRoom(GameMode.TRUTH_AND_DARE, "Admin");
+		for (int i = 1; i < 6; i++) {
+			roomService.addPlayerToRoom(room.getRoomCode(), "Player " + i);
+		}
+		RoomStateDto state = gameService.toRoomStateDto(room);
+		WebSocketEvent patch = new WebSocketEvent(WebSocketService.EVENT_ROOM_PATCH,
+				new RoomPatchDto(state.getSeq() + 1, state.getSeq(), List.of(new RoomPatchDto.Op(RoomPatchDto.TURN, 1))));
+		WebSocketEvent event = switch (frame) {
+			case "ROOM_STATE" -> new WebSocketEvent(WebSocketService.EVENT_ROOM_STATE, state);
+			case "ROOM_PATCH" -> patch;
+			default -> new WebSocketEvent(RoomBroadcastBatcher.EVENT_BATCH,
+					List.of(new WebSocketEvent(WebSocketService.EVENT_NEXT_TURN, null), patch));
+		};
+		json = eventWriter.writeValueAsBytes(event);
+
+		int cbor = interceptor.toCbor(json).length;
+		System.out.printf("%n%s: JSON %,d B, CBOR %,d B (%.0f%%)%n", frame, json.length, cbor, 100.0 * cbor / json.length);
+	}
+
+	@Benchmark
+	public byte[] transcode() {
+		return interceptor.toCbor(json);
+	}
+
+	/**
+	 * Baseline: what reading the frame as JSON costs
+	 */
+	@Benchmark
+	public JsonNode parseJson() throws Exception {
+		return objectMapper.readTree(json);
+	}
+}
\ No newline at end of file
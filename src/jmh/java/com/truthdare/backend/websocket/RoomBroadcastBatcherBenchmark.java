@@ -0,0 +1,127 @@
+package com.truthdare.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Question;
+import com.truthdare.backend.model.QuestionType;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.service.BenchmarkFixtures;
+import com.truthdare.backend.service.GameService;
+import com.truthdare.backend.service.RoomService;
+import com.truthdare.backend.service.RoomStateCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Frames per second sent to one 6-player room's topic for Poisson-arriving actions, 10%
+ * of them admin injections, through the real batcher with the given window. The primary
+ * result is the actions per second achieved; "frames" is what the batcher sent and
+ * "unbatched" what one frame per event plus one per state update would have been
+ * (2 per action, 3 per injection with its extra state broadcast).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class RoomBroadcastBatcherBenchmark {
+
+	private static final double INJECTION_SHARE = 0.1;
+
+	@Param({"10", "50", "200"})
+	double actionsPerSecond;
+
+	@Param({"10", "15", "25"})
+	long windowMillis;
+
+	final AtomicLong framesSent = new AtomicLong();
+	GameService gameService;
+	RoomService roomService;
+	WebSocketService webSocketService;
+	Room room;
+	Question question;
+
+	@Setup
+	public void setUp() {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		// Counts frames instead of handing them to a broker
+		SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> {
+			framesSent.incrementAndGet();
+			return true;
+		});
+		MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+		converter.setObjectMapper(objectMapper);
+		template.setMessageConverter(converter);
+
+		roomService = BenchmarkFixtures.roomService();
+		gameService = BenchmarkFixtures.gameService(roomService);
+		RoomBroadcastBatcher batcher = new RoomBroadcastBatcher(template, roomService,
+				new RoomStateCache(gameService, objectMapper),
+				new WebSocketSessionTracker("relay"), // Every room counts as subscribed
+				new SimpleMeterRegistry(), windowMillis);
+		webSocketService = new WebSocketService(template, roomService, batcher);
+
+		room = roomService.createRoom(GameMode.TRUTH_AND_DARE, "Admin");
+		for (int i = 1; i < 6; i++) {
+			roomService.addPlayerToRoom(room.getRoomCode(), "Player " + i);
+		}
+		gameService.startGame(room.getRoomId(), room.getAdminToken());
+		question = new Question("Sing the chorus of your favourite song", QuestionType.DARE, null, true);
+	}
+
+	/**
+	 * Wait an exponentially distributed gap, then act
+	 */
+	@Benchmark
+	public void action(Frames frames) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		LockSupport.parkNanos((long) (-Math.log(1 - random.nextDouble()) * TimeUnit.SECONDS.toNanos(1) / actionsPerSecond));
+		if (random.nextDouble() < INJECTION_SHARE) {
+			roomService.mutate(room, r -> {
+				r.setCurrentQuestion(question);
+				return null;
+			});
+			webSocketService.notifyAdminOverride(room.getRoomCode(), null);
+			frames.unbatched += 3;
+		} else {
+			gameService.nextTurn(room.getRoomId());
+			webSocketService.notifyNextTurn(room.getRoomCode());
+			frames.unbatched += 2;
+		}
+		frames.sent = framesSent.get() - frames.sentBefore;
+	}
+
+	/**
+	 * Frames sent during the iteration, reported per second next to the action rate
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Frames {
+
+		public long sent;
+		public long unbatched;
+		long sentBefore;
+
+		@Setup(Level.Iteration)
+		public void reset(RoomBroadcastBatcherBenchmark benchmark) {
+			sent = 0;
+			unbatched = 0;
+			sentBefore = benchmark.framesSent.get();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.truthdare.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.truthdare.backend.dto.RoomPatchDto;
+import com.truthdare.backend.dto.WebSocketEvent;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.Question;
+import com.truthdare.backend.model.QuestionType;
+import com.truthdare.backend.model.Role;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomSnapshot;
+import com.truthdare.backend.service.BenchmarkFixtures;
+import com.truthdare.backend.service.GameService;
+import com.truthdare.backend.service.RoomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full ROOM_STATE versus ROOM_PATCH for an active room: the cost of building and encoding
+ * each, and (printed once per trial) their sizes and the bytes a question-plus-next-turn
+ * round fans out to every player subscribed to the room
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RoomPatchBenchmark {
+
+	@Param({"6", "200"})
+	int players;
+
+	ObjectWriter eventWriter;
+	GameService gameService;
+	Room room;
+	RoomSnapshot started;
+	RoomSnapshot turned;
+
+	@Setup
+	public void setUp() throws Exception {
+		eventWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(WebSocketEvent.class);
+		RoomService roomService = BenchmarkFixtures.roomService();
+		gameService = BenchmarkFixtures.gameService(roomService);
+		room = roomService.createRoom(GameMode.TRUTH_AND_DARE, "Admin");
+		// Added on the mailbox directly: rooms.max-players would stop joins at 20
+		roomService.mutate(room, r -> {
+			for (int i = 1; i < players; i++) {
+				r.addPlayer(new Player(UUID.randomUUID().toString(), "Player " + i, Role.PLAYER));
+			}
+			return null;
+		});
+		gameService.startGame(room.getRoomId(), room.getAdminToken());
+
+		started = room.getSnapshot();
+		roomService.mutate(room, r -> {
+			r.setCurrentQuestion(new Question("What is the most embarrassing song on your playlist?",
+					QuestionType.TRUTH, r.getCurrentPlayer().getPlayerId(), false));
+			return null;
+		});
+		RoomSnapshot asked = room.getSnapshot();
+		gameService.nextTurn(room.getRoomId());
+		turned = room.getSnapshot();
+		roomService.mutate(room, r -> {
+			r.addPlayer(new Player(UUID.randomUUID().toString(), "Late Player", Role.PLAYER));
+			return null;
+		});
+		RoomSnapshot joined = room.getSnapshot();
+
+		int full = fullState(turned).length;
+		int question = patch(started, asked).length;
+		int turn = patch(asked, turned).length;
+		int playerAdded = patch(turned, joined).length;
+		long roundFull = 2L * full * players;
+		long roundPatches = (long) (question + turn) * players;
+		System.out.printf("%n%d players: full ROOM_STATE %,d B, QUESTION patch %,d B, TURN patch %,d B, PLAYER_ADDED patch %,d B%n",
+				players, full, question, turn, playerAdded);
+		System.out.printf("Question + next turn fan-out: %,d B as full states, %,d B as patches (%.0fx less)%n",
+				roundFull, roundPatches, (double) roundFull / roundPatches);
+	}
+
+	@Benchmark
+	public byte[] fullState() throws Exception {
+		return fullState(turned);
+	}
+
+	/**
+	 * The question and turn ops of a round, diffed and encoded as one patch
+	 */
+	@Benchmark
+	public byte[] roundPatch() throws Exception {
+		return patch(started, turned);
+	}
+
+	private byte[] fullState(RoomSnapshot snapshot) throws Exception {
+		return eventWriter.writeValueAsBytes(new WebSocketEvent(WebSocketService.EVENT_ROOM_STATE,
+				gameService.toRoomStateDto(room, snapshot)));
+	}
+
+	private byte[] patch(RoomSnapshot from, RoomSnapshot to) throws Exception {
+		return eventWriter.writeValueAsBytes(new WebSocketEvent(WebSocketService.EVENT_ROOM_PATCH,
+				new RoomPatchDto(to.version(), from.version(), RoomPatchBuilder.diff(from, to))));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.truthdare.backend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.truthdare.backend.dto.RoomPatchDto;
+import com.truthdare.backend.dto.RoomStateDto;
+import com.truthdare.backend.dto.WebSocketEvent;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.service.BenchmarkFixtures;
+import com.truthdare.backend.service.GameService;
+import com.truthdare.backend.service.RoomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding of the frames sent on room topics, with the ObjectMapper set up the
+ * way Spring Boot configures it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class WebSocketEventBenchmark {
+
+	@Param({"2", "8", "32"})
+	int players;
+
+	ObjectMapper objectMapper;
+	ObjectWriter eventWriter;
+	WebSocketEvent stateEvent;
+	WebSocketEvent patchEvent;
+	WebSocketEvent batchEvent;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		eventWriter = objectMapper.writerFor(WebSocketEvent.class);
+
+		RoomService roomService = BenchmarkFixtures.roomService();
+		GameService gameService = BenchmarkFixtures.gameService(roomService);
+		Room room = roomService.createRoom(GameMode.TRUTH_AND_DARE, "Admin");
+		for (int i = 1; i < players; i++) {
+			roomService.addPlayerToRoom(room.getRoomCode(), "Player " + i);
+		}
+		RoomStateDto state = gameService.toRoomStateDto(room);
+		stateEvent = new WebSocketEvent(WebSocketService.EVENT_ROOM_STATE, state);
+		patchEvent = new WebSocketEvent(WebSocketService.EVENT_ROOM_PATCH,
+				new RoomPatchDto(state.getSeq() + 1, state.getSeq(), List.of(new RoomPatchDto.Op(RoomPatchDto.TURN, 1))));
+		batchEvent = new WebSocketEvent(RoomBroadcastBatcher.EVENT_BATCH,
+				List.of(new WebSocketEvent(WebSocketService.EVENT_NEXT_TURN, null), patchEvent));
+	}
+
+	@Benchmark
+	public byte[] roomState() throws Exception {
+		return eventWriter.writeValueAsBytes(stateEvent);
+	}
+
+	@Benchmark
+	public byte[] roomPatch() throws Exception {
+		return eventWriter.writeValueAsBytes(patchEvent);
+	}
+
+	@Benchmark
+	public byte[] batch() throws Exception {
+		return eventWriter.writeValueAsBytes(batchEvent);
+	}
+
+	/**
+	 * Untyped path taken by SimpMessagingTemplate.convertAndSend
+	 */
+	@Benchmark
+	public byte[] roomStateUntyped() throws Exception {
+		return objectMapper.writeValueAsBytes(stateEvent);
+	}
+}
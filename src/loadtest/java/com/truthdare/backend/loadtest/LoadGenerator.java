@@ -0,0 +1,276 @@
+package com.truthdare.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load generator: simulates rooms of players against a running server and
+ * measures how long each REST action takes to reach every subscriber of the room topic.
+ *
+ * Run with ./gradlew loadTest -Prooms=200 -Pplayers=6 (see README). Prints throughput,
+ * delivery latency percentiles and the server's heap every report interval, and writes a
+ * JSON summary at the end.
+ *
+ * Options (--name=value): url, rooms, players, rounds, concurrency, think-ms,
+ * delivery-timeout-ms, transport (websocket or sockjs), report-interval-s, out.
+ * With --mode=questions runs QuestionLoad instead.
+ */
+public final class LoadGenerator {
+
+    private final Options options;
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadMetrics metrics = new LoadMetrics();
+    private final List<Map<String, Object>> intervals = new ArrayList<>();
+
+    private long startedAt;
+    private long lastReportAt;
+    private long lastActions;
+    private long lastDeliveries;
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = parseArgs(args);
+        if ("questions".equals(values.get("mode"))) {
+            QuestionLoad.run(values);
+            return;
+        }
+        Options options = Options.parse(values);
+        log("Load test against " + options.baseUrl() + " over " + options.transport() + ": "
+                + options.rooms() + " rooms x " + options.players() + " players, " + options.rounds() + " rounds");
+        new LoadGenerator(options).run();
+    }
+
+    private void run() throws Exception {
+        ThreadPoolTaskScheduler heartbeats = new ThreadPoolTaskScheduler();
+        heartbeats.setPoolSize(2);
+        heartbeats.setThreadNamePrefix("stomp-heartbeat-");
+        heartbeats.initialize();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(webSocketClient());
+        stompClient.setMessageConverter(new ByteArrayMessageConverter());
+        stompClient.setTaskScheduler(heartbeats);
+        stompClient.setInboundMessageSizeLimit(1024 * 1024);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        startedAt = System.nanoTime();
+        lastReportAt = startedAt;
+        reporter.scheduleAtFixedRate(this::report, options.reportIntervalSeconds(), options.reportIntervalSeconds(), TimeUnit.SECONDS);
+
+        // Bounded number of rooms in flight, so a large run ramps up instead of opening
+        // every connection at once
+        Semaphore inFlight = new Semaphore(options.concurrency());
+        List<CompletableFuture<Void>> rooms = new ArrayList<>(options.rooms());
+        for (int i = 0; i < options.rooms(); i++) {
+            inFlight.acquire();
+            rooms.add(new RoomScenario(i, options, http, stompClient, objectMapper, metrics).run()
+                    .whenComplete((ignored, error) -> inFlight.release()));
+        }
+        CompletableFuture.allOf(rooms.toArray(CompletableFuture[]::new)).join();
+
+        reporter.shutdown();
+        report();
+        writeSummary();
+        stompClient.stop();
+        heartbeats.shutdown();
+    }
+
+    private WebSocketClient webSocketClient() {
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        if ("sockjs".equals(options.transport())) {
+            return new SockJsClient(List.of(new WebSocketTransport(webSocketClient)));
+        }
+        return webSocketClient;
+    }
+
+    /**
+     * Print and keep one interval's numbers
+     */
+    private synchronized void report() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - lastReportAt) / 1e9);
+        long actions = metrics.actions.get();
+        long deliveries = metrics.deliveries.get();
+        LatencyHistogram interval = metrics.takeInterval();
+        JsonNode jvm = serverJvm();
+
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("elapsedSeconds", Math.round((now - startedAt) / 1e8) / 10.0);
+        sample.put("actionsPerSecond", Math.round((actions - lastActions) / seconds));
+        sample.put("deliveriesPerSecond", Math.round((deliveries - lastDeliveries) / seconds));
+        sample.put("p50Micros", interval.percentile(50));
+        sample.put("p99Micros", interval.percentile(99));
+        sample.put("p999Micros", interval.percentile(99.9));
+        sample.put("openSessions", metrics.openSessions.get());
+        if (jvm != null) {
+            sample.put("heapUsedMb", jvm.path("heapUsed").asLong() / (1024 * 1024));
+            sample.put("gcCount", jvm.path("gcCount").asLong());
+            sample.put("threads", jvm.path("threads").asInt());
+        }
+        intervals.add(sample);
+        lastReportAt = now;
+        lastActions = actions;
+        lastDeliveries = deliveries;
+
+        log(String.format("%6.1fs  actions/s %6d  deliveries/s %7d  p50 %6.2f ms  p99 %7.2f ms  p999 %7.2f ms  sessions %5d  heap %s MB",
+                (now - startedAt) / 1e9, sample.get("actionsPerSecond"), sample.get("deliveriesPerSecond"),
+                interval.percentile(50) / 1000.0, interval.percentile(99) / 1000.0, interval.percentile(99.9) / 1000.0,
+                metrics.openSessions.get(), sample.getOrDefault("heapUsedMb", "?")));
+    }
+
+    /**
+     * Server heap, GC and thread counts from /api/health/jvm; null if unavailable
+     */
+    private JsonNode serverJvm() {
+        try {
+            HttpResponse<byte[]> response = http.send(
+                    HttpRequest.newBuilder(URI.create(options.baseUrl() + "/api/health/jvm")).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void writeSummary() throws IOException {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("finishedAt", Instant.now().toString());
+        summary.put("config", options);
+        summary.put("durationSeconds", Math.round(seconds * 10) / 10.0);
+        summary.put("roomsCompleted", metrics.roomsCompleted.get());
+        summary.put("roomsFailed", metrics.roomsFailed.get());
+        summary.put("actions", metrics.actions.get());
+        summary.put("actionErrors", metrics.actionErrors.get());
+        summary.put("actionsPerSecond", Math.round(metrics.actions.get() / seconds));
+        summary.put("deliveries", metrics.deliveries.get());
+        summary.put("missedDeliveries", metrics.missedDeliveries.get());
+        summary.put("deliveriesPerSecond", Math.round(metrics.deliveries.get() / seconds));
+        summary.put("frames", metrics.frames.get());
+        summary.put("avgFrameBytes", metrics.frames.get() > 0 ? metrics.frameBytes.get() / metrics.frames.get() : 0);
+        summary.put("latencyMicros", latencySummary(metrics.overall()));
+        Map<String, Object> byEvent = new TreeMap<>();
+        metrics.byEvent().forEach((event, histogram) -> byEvent.put(event, latencySummary(histogram)));
+        summary.put("latencyMicrosByEvent", byEvent);
+        summary.put("intervals", intervals);
+
+        Path out = Path.of(options.out());
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), summary);
+
+        LatencyHistogram overall = metrics.overall();
+        log(String.format("Done in %.1fs: %d/%d rooms completed, %d actions (%d errors), %d deliveries (%d missed)",
+                seconds, metrics.roomsCompleted.get(), options.rooms(), metrics.actions.get(), metrics.actionErrors.get(),
+                metrics.deliveries.get(), metrics.missedDeliveries.get()));
+        log(String.format("Action to delivery: p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms",
+                overall.percentile(50) / 1000.0, overall.percentile(99) / 1000.0,
+                overall.percentile(99.9) / 1000.0, overall.max() / 1000.0));
+        log("Summary written to " + out.toAbsolutePath());
+    }
+
+    private static Map<String, Object> latencySummary(LatencyHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.count());
+        summary.put("p50", histogram.percentile(50));
+        summary.put("p99", histogram.percentile(99));
+        summary.put("p999", histogram.percentile(99.9));
+        summary.put("max", histogram.max());
+        return summary;
+    }
+
+    static void log(String message) {
+        System.out.println(message);
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return values;
+    }
+
+    /**
+     * Command-line options
+     */
+    record Options(String baseUrl, int rooms, int players, int rounds, int concurrency, long thinkMillis,
+                   long deliveryTimeoutMillis, String transport, int reportIntervalSeconds, String out) {
+
+        static Options parse(Map<String, String> values) {
+            String transport = values.getOrDefault("transport", "websocket");
+            if (!transport.equals("websocket") && !transport.equals("sockjs")) {
+                throw new IllegalArgumentException("transport must be websocket or sockjs");
+            }
+            String url = values.getOrDefault("url", "http://localhost:8080");
+            Options options = new Options(
+                    url.endsWith("/") ? url.substring(0, url.length() - 1) : url,
+                    Integer.parseInt(values.getOrDefault("rooms", "100")),
+                    Integer.parseInt(values.getOrDefault("players", "5")),
+                    Integer.parseInt(values.getOrDefault("rounds", "10")),
+                    Integer.parseInt(values.getOrDefault("concurrency", "100")),
+                    Long.parseLong(values.getOrDefault("think-ms", "100")),
+                    Long.parseLong(values.getOrDefault("delivery-timeout-ms", "5000")),
+                    transport,
+                    Integer.parseInt(values.getOrDefault("report-interval-s", "5")),
+                    values.getOrDefault("out", "build/reports/loadtest/result.json"));
+            if (options.players() < 2) {
+                throw new IllegalArgumentException("players must be at least 2 (a game needs two)");
+            }
+            return options;
+        }
+
+        /**
+         * STOMP endpoint: raw WebSocket (/ws-native) or SockJS (/ws)
+         */
+        String webSocketUrl() {
+            String ws = baseUrl.replaceFirst("^http", "ws");
+            return "sockjs".equals(transport) ? baseUrl + "/ws" : ws + "/ws-native";
+        }
+    }
+}
\ No newline at end of file
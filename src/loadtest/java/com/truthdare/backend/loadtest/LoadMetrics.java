@@ -0,0 +1,55 @@
+package com.truthdare.backend.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counters and latency histograms shared by all simulated rooms.
+ * Each delivery latency goes into the run-wide histogram of its event type and into
+ * the current reporting interval's histogram, which the reporter swaps out.
+ */
+final class LoadMetrics {
+
+    final AtomicLong actions = new AtomicLong();
+    final AtomicLong actionErrors = new AtomicLong();
+    final AtomicLong deliveries = new AtomicLong();
+    final AtomicLong missedDeliveries = new AtomicLong();
+    final AtomicLong frames = new AtomicLong();
+    final AtomicLong frameBytes = new AtomicLong();
+    final AtomicLong roomsCompleted = new AtomicLong();
+    final AtomicLong roomsFailed = new AtomicLong();
+    final AtomicLong openSessions = new AtomicLong();
+
+    private final Map<String, LatencyHistogram> byEvent = new ConcurrentHashMap<>();
+    private final AtomicReference<LatencyHistogram> interval = new AtomicReference<>(new LatencyHistogram());
+
+    void recordDelivery(String eventType, long latencyNanos) {
+        deliveries.incrementAndGet();
+        byEvent.computeIfAbsent(eventType, type -> new LatencyHistogram()).recordNanos(latencyNanos);
+        interval.get().recordNanos(latencyNanos);
+    }
+
+    void recordFrame(int bytes) {
+        frames.incrementAndGet();
+        frameBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Histogram of the interval since the last call
+     */
+    LatencyHistogram takeInterval() {
+        return interval.getAndSet(new LatencyHistogram());
+    }
+
+    Map<String, LatencyHistogram> byEvent() {
+        return byEvent;
+    }
+
+    LatencyHistogram overall() {
+        LatencyHistogram all = new LatencyHistogram();
+        byEvent.values().forEach(all::add);
+        return all;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,312 @@
+package com.truthdare.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saturation test of the question endpoint, for comparing the server on platform and
+ * on virtual threads (VIRTUAL_THREADS_ENABLED).
+ *
+ * Sets up rooms of two players with a started game, then for each concurrency level
+ * keeps that many GET /api/game/{roomId}/question requests in flight for step-s seconds
+ * (each client sends its next request as soon as the previous one is answered) and
+ * records throughput, latency percentiles, errors, the peak number of requests in
+ * flight and the server's thread count. The highest level whose p99 stays within
+ * p99-target-ms with under 1% errors is reported as the maximum in-flight requests.
+ *
+ * Questions wait on the external API, so unless upstream-delay-ms is 0 a stub upstream
+ * answering after that delay is started on upstream-port; run the server with
+ * EXTERNAL_API_BASE_URL pointing at it and with the prefetch buffer off (see README).
+ *
+ * Options (--name=value): url, rooms, levels, step-s, p99-target-ms, upstream-port,
+ * upstream-delay-ms, out.
+ */
+final class QuestionLoad {
+
+    private final Options options;
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> roomIds = new ArrayList<>();
+
+    private QuestionLoad(Options options) {
+        this.options = options;
+    }
+
+    static void run(Map<String, String> values) throws Exception {
+        Options options = Options.parse(values);
+        LoadGenerator.log("Question load against " + options.baseUrl() + ": " + options.rooms() + " rooms, levels "
+                + options.levels() + ", " + options.stepSeconds() + " s each");
+        new QuestionLoad(options).run();
+    }
+
+    private void run() throws Exception {
+        HttpServer upstream = options.upstreamDelayMillis() > 0 ? startUpstream() : null;
+        try {
+            for (int i = 0; i < options.rooms(); i++) {
+                roomIds.add(setUpRoom(i));
+            }
+            LoadGenerator.log(String.format("%8s %10s %10s %10s %10s %8s %10s %8s",
+                    "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "in-flight", "threads"));
+            List<Map<String, Object>> steps = new ArrayList<>();
+            int maxInFlight = 0;
+            for (int level : options.levels()) {
+                Step step = runStep(level);
+                steps.add(step.toMap());
+                if (step.withinTarget()) {
+                    maxInFlight = Math.max(maxInFlight, step.peakInFlight.get());
+                }
+            }
+            LoadGenerator.log("Max in-flight question requests with p99 <= " + options.p99TargetMillis()
+                    + " ms and < 1% errors: " + maxInFlight);
+            writeSummary(steps, maxInFlight);
+        } finally {
+            if (upstream != null) {
+                upstream.stop(0);
+            }
+        }
+    }
+
+    /**
+     * Create a room, join a second player and start the game
+     * @return the room ID
+     */
+    private String setUpRoom(int index) throws Exception {
+        JsonNode room = send(post("/api/rooms", "{\"gameMode\":\"TRUTH_AND_DARE\",\"playerName\":\"Admin " + index + "\"}", null));
+        String roomId = room.get("roomId").asText();
+        send(post("/api/rooms/join", "{\"roomCode\":\"" + room.get("roomCode").asText() + "\",\"playerName\":\"Player\"}", null));
+        send(post("/api/game/" + roomId + "/start", null, room.get("adminToken").asText()));
+        return roomId;
+    }
+
+    /**
+     * Keep level requests in flight until the step is over, sampling the server's threads
+     */
+    private Step runStep(int level) throws InterruptedException {
+        Step step = new Step(level, System.nanoTime() + TimeUnit.SECONDS.toNanos(options.stepSeconds()));
+        List<CompletableFuture<Void>> clients = new ArrayList<>(level);
+        for (int i = 0; i < level; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            ask(step, roomIds.get(i % roomIds.size()), done);
+            clients.add(done);
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(clients.toArray(CompletableFuture[]::new));
+        while (true) {
+            step.serverThreads = Math.max(step.serverThreads, serverThreads());
+            try {
+                all.get(1, TimeUnit.SECONDS);
+                break;
+            } catch (TimeoutException e) {
+                // Still running: sample again
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        step.elapsedNanos = System.nanoTime() - step.startedAt;
+        LatencyHistogram latency = step.latency;
+        LoadGenerator.log(String.format("%8d %10d %10.1f %10.1f %10.1f %8d %10d %8d",
+                level, Math.round(step.completed.get() / (step.elapsedNanos / 1e9)),
+                latency.percentile(50) / 1000.0, latency.percentile(99) / 1000.0, latency.max() / 1000.0,
+                step.errors.get(), step.peakInFlight.get(), step.serverThreads));
+        return step;
+    }
+
+    /**
+     * One client's request; the next one is sent from its completion until the step ends
+     */
+    private void ask(Step step, String roomId, CompletableFuture<Void> done) {
+        if (System.nanoTime() >= step.endsAt) {
+            done.complete(null);
+            return;
+        }
+        step.peakInFlight.accumulateAndGet(step.inFlight.incrementAndGet(), Math::max);
+        long start = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl() + "/api/game/" + roomId + "/question"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            step.inFlight.decrementAndGet();
+            step.latency.recordNanos(System.nanoTime() - start);
+            step.completed.incrementAndGet();
+            if (error != null || response.statusCode() != 200) {
+                step.errors.incrementAndGet();
+            }
+            ask(step, roomId, done);
+        });
+    }
+
+    /**
+     * Stand-in for the external question API that answers every call after a fixed delay
+     */
+    private HttpServer startUpstream() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(options.upstreamPort()), 0);
+        AtomicLong ids = new AtomicLong();
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(options.upstreamDelayMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long id = ids.incrementAndGet();
+            String type = exchange.getRequestURI().getPath().endsWith("/dare") ? "dare" : "truth";
+            byte[] body = ("{\"id\":\"stub-" + id + "\",\"type\":\"" + type + "\",\"question\":\"Stub " + type
+                    + " question " + id + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-upstream");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        LoadGenerator.log("Stub upstream on http://localhost:" + options.upstreamPort() + " answering after "
+                + options.upstreamDelayMillis() + " ms");
+        return server;
+    }
+
+    /**
+     * Server thread count from /api/health/jvm; 0 if unavailable
+     */
+    private int serverThreads() throws InterruptedException {
+        try {
+            HttpResponse<byte[]> response = http.send(
+                    HttpRequest.newBuilder(URI.create(options.baseUrl() + "/api/health/jvm")).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 ? objectMapper.readTree(response.body()).path("threads").asInt() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private HttpRequest post(String path, String json, String adminToken) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(options.baseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(json != null ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody());
+        if (adminToken != null) {
+            request.header("X-Admin-Token", adminToken);
+        }
+        return request.build();
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " -> " + response.statusCode());
+        }
+        return response.body().length > 0 ? objectMapper.readTree(response.body()) : objectMapper.nullNode();
+    }
+
+    private void writeSummary(List<Map<String, Object>> steps, int maxInFlight) throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("finishedAt", Instant.now().toString());
+        summary.put("config", options);
+        summary.put("maxInFlight", maxInFlight);
+        summary.put("steps", steps);
+
+        Path out = Path.of(options.out());
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), summary);
+        LoadGenerator.log("Summary written to " + out.toAbsolutePath());
+    }
+
+    /**
+     * One concurrency level's counters
+     */
+    private final class Step {
+        final int clients;
+        final long startedAt = System.nanoTime();
+        final long endsAt;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger peakInFlight = new AtomicInteger();
+        volatile int serverThreads;
+        long elapsedNanos;
+
+        Step(int clients, long endsAt) {
+            this.clients = clients;
+            this.endsAt = endsAt;
+        }
+
+        boolean withinTarget() {
+            return completed.get() > 0
+                    && errors.get() * 100 < completed.get()
+                    && latency.percentile(99) <= options.p99TargetMillis() * 1000;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("clients", clients);
+            map.put("requestsPerSecond", Math.round(completed.get() / (elapsedNanos / 1e9)));
+            map.put("requests", completed.get());
+            map.put("errors", errors.get());
+            map.put("peakInFlight", peakInFlight.get());
+            map.put("p50Micros", latency.percentile(50));
+            map.put("p99Micros", latency.percentile(99));
+            map.put("maxMicros", latency.max());
+            map.put("serverThreads", serverThreads);
+            map.put("withinTarget", withinTarget());
+            return map;
+        }
+    }
+
+    /**
+     * Command-line options
+     */
+    record Options(String baseUrl, int rooms, List<Integer> levels, int stepSeconds, long p99TargetMillis,
+                   int upstreamPort, long upstreamDelayMillis, String out) {
+
+        static Options parse(Map<String, String> values) {
+            String url = values.getOrDefault("url", "http://localhost:8080");
+            return new Options(
+                    url.endsWith("/") ? url.substring(0, url.length() - 1) : url,
+                    Integer.parseInt(values.getOrDefault("rooms", "200")),
+                    Arrays.stream(values.getOrDefault("levels", "50,100,200,400,800,1600").split(","))
+                            .map(String::trim)
+                            .map(Integer::valueOf)
+                            .toList(),
+                    Integer.parseInt(values.getOrDefault("step-s", "20")),
+                    Long.parseLong(values.getOrDefault("p99-target-ms", "1000")),
+                    Integer.parseInt(values.getOrDefault("upstream-port", "9090")),
+                    Long.parseLong(values.getOrDefault("upstream-delay-ms", "200")),
+                    values.getOrDefault("out", "build/reports/loadtest/questions.json"));
+        }
+    }
+}
\ No newline at end of file
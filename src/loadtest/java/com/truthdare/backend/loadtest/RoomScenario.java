@@ -0,0 +1,264 @@
+package com.truthdare.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One simulated room: the admin creates it, the other players subscribe to the room
+ * topic and join one by one, the admin starts the game, then each round asks for a
+ * question and moves to the next turn.
+ *
+ * Every REST action waits until each subscribed player has received the event it
+ * causes (or the delivery timeout passes); the time from sending the request to each
+ * delivery is recorded. Actions of one room are sequential, rooms run concurrently.
+ */
+final class RoomScenario {
+
+    private final int index;
+    private final LoadGenerator.Options options;
+    private final HttpClient http;
+    private final WebSocketStompClient stompClient;
+    private final ObjectMapper objectMapper;
+    private final LoadMetrics metrics;
+    private final Executor thinkDelay;
+
+    private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+    private volatile Pending pending;
+    private String roomId;
+    private String roomCode;
+    private String adminToken;
+
+    RoomScenario(int index, LoadGenerator.Options options, HttpClient http, WebSocketStompClient stompClient,
+                 ObjectMapper objectMapper, LoadMetrics metrics) {
+        this.index = index;
+        this.options = options;
+        this.http = http;
+        this.stompClient = stompClient;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.thinkDelay = CompletableFuture.delayedExecutor(options.thinkMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    CompletableFuture<Void> run() {
+        CompletableFuture<Void> flow = createRoom()
+                .thenCompose(ignored -> subscribe())
+                .thenCompose(ignored -> joinPlayers(1))
+                .thenCompose(ignored -> action("GAME_STARTED",
+                        () -> post("/api/game/" + roomId + "/start", null, adminToken)))
+                .thenCompose(ignored -> rounds(0));
+        return flow.handle((ignored, error) -> {
+            if (error != null) {
+                metrics.roomsFailed.incrementAndGet();
+                LoadGenerator.log("room " + index + " failed: " + rootMessage(error));
+            } else {
+                metrics.roomsCompleted.incrementAndGet();
+            }
+            disconnect();
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> createRoom() {
+        metrics.actions.incrementAndGet();
+        String body = "{\"gameMode\":\"TRUTH_AND_DARE\",\"playerName\":\"Admin " + index + "\"}";
+        return post("/api/rooms", body, null).thenAccept(json -> {
+            roomId = json.get("roomId").asText();
+            roomCode = json.get("roomCode").asText();
+            adminToken = json.get("adminToken").asText();
+        });
+    }
+
+    private CompletableFuture<Void> joinPlayers(int player) {
+        if (player >= options.players()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String body = "{\"roomCode\":\"" + roomCode + "\",\"playerName\":\"Player " + player + "\"}";
+        return subscribe()
+                .thenCompose(ignored -> action("PLAYER_JOINED", () -> post("/api/rooms/join", body, null)))
+                .thenCompose(ignored -> joinPlayers(player + 1));
+    }
+
+    private CompletableFuture<Void> rounds(int round) {
+        if (round >= options.rounds()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return action("QUESTION_SENT", () -> get("/api/game/" + roomId + "/question"))
+                .thenCompose(ignored -> action("NEXT_TURN", () -> post("/api/game/" + roomId + "/next-turn", null, null)))
+                .thenCompose(ignored -> rounds(round + 1));
+    }
+
+    /**
+     * Send a request and wait for its event to reach every subscriber, then think
+     */
+    private CompletableFuture<Void> action(String eventType, Supplier<CompletableFuture<JsonNode>> request) {
+        Pending current = new Pending(eventType, sessions.size(), System.nanoTime());
+        pending = current; // Before sending: the event can arrive before the response
+        metrics.actions.incrementAndGet();
+        return request.get()
+                .thenCompose(ignored -> current.done
+                        .completeOnTimeout(null, options.deliveryTimeoutMillis(), TimeUnit.MILLISECONDS))
+                .thenRun(() -> {
+                    int missed = current.expected - Math.min(current.expected, current.delivered.get());
+                    if (missed > 0) {
+                        metrics.missedDeliveries.addAndGet(missed);
+                    }
+                })
+                .thenRunAsync(() -> { }, thinkDelay);
+    }
+
+    /**
+     * Connect one more player and subscribe it to the room topic
+     * The simple broker sends no RECEIPT frames, so readiness is the reply to a second
+     * subscription to /app/room/{code}/state, which the server handles after the topic one.
+     */
+    private CompletableFuture<Void> subscribe() {
+        return stompClient.connectAsync(options.webSocketUrl(), new StompSessionHandlerAdapter() { })
+                .thenCompose(session -> {
+                    sessions.add(session);
+                    metrics.openSessions.incrementAndGet();
+                    CompletableFuture<Void> subscribed = new CompletableFuture<>();
+                    session.subscribe("/topic/room/" + roomCode, new RoomTopicHandler());
+                    session.subscribe("/app/room/" + roomCode + "/state", new StompFrameHandler() {
+                        @Override
+                        public Type getPayloadType(StompHeaders headers) {
+                            return byte[].class;
+                        }
+
+                        @Override
+                        public void handleFrame(StompHeaders headers, Object payload) {
+                            subscribed.complete(null);
+                        }
+                    });
+                    return subscribed.orTimeout(options.deliveryTimeoutMillis(), TimeUnit.MILLISECONDS);
+                });
+    }
+
+    private void onFrame(byte[] payload) {
+        long now = System.nanoTime();
+        metrics.recordFrame(payload.length);
+        JsonNode frame;
+        try {
+            frame = objectMapper.readTree(payload);
+        } catch (IOException e) {
+            return;
+        }
+        if ("BATCH".equals(frame.path("eventType").asText())) {
+            for (JsonNode item : frame.path("data")) {
+                onEvent(item.path("eventType").asText(), now);
+            }
+        } else {
+            onEvent(frame.path("eventType").asText(), now);
+        }
+    }
+
+    private void onEvent(String eventType, long receivedAt) {
+        Pending current = pending;
+        if (current == null || !current.eventType.equals(eventType)) {
+            return;
+        }
+        int delivered = current.delivered.incrementAndGet();
+        if (delivered <= current.expected) {
+            metrics.recordDelivery(eventType, receivedAt - current.startedAt);
+        }
+        if (delivered == current.expected) {
+            current.done.complete(null);
+        }
+    }
+
+    private CompletableFuture<JsonNode> post(String path, String json, String adminToken) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(options.baseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(json != null ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody());
+        if (adminToken != null) {
+            request.header("X-Admin-Token", adminToken);
+        }
+        return send(request.build());
+    }
+
+    private CompletableFuture<JsonNode> get(String path) {
+        return send(HttpRequest.newBuilder(URI.create(options.baseUrl() + path)).timeout(Duration.ofSeconds(30)).GET().build());
+    }
+
+    private CompletableFuture<JsonNode> send(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            if (response.statusCode() / 100 != 2) {
+                metrics.actionErrors.incrementAndGet();
+                throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " -> " + response.statusCode());
+            }
+            try {
+                return response.body().length > 0 ? objectMapper.readTree(response.body()) : objectMapper.nullNode();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void disconnect() {
+        for (StompSession session : sessions) {
+            try {
+                session.disconnect();
+            } catch (RuntimeException ignored) {
+                // Already closed
+            }
+            metrics.openSessions.decrementAndGet();
+        }
+        sessions.clear();
+    }
+
+    private static String rootMessage(Throwable error) {
+        while (error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error.getMessage();
+    }
+
+    private final class RoomTopicHandler implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            onFrame((byte[]) payload);
+        }
+    }
+
+    private static final class Pending {
+        final String eventType;
+        final int expected;
+        final long startedAt;
+        final AtomicInteger delivered = new AtomicInteger();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(String eventType, int expected, long startedAt) {
+            this.eventType = eventType;
+            this.expected = expected;
+            this.startedAt = startedAt;
+            if (expected == 0) {
+                done.complete(null);
+            }
+        }
+    }
+}
\ No newline at end of file
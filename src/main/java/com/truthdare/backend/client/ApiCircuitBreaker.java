@@ -0,0 +1,298 @@
+package com.truthdare.backend.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for the external question API.
+ * Tracks a rolling window of call outcomes and latencies. Opens when the failure
+ * rate crosses the threshold, rejects calls while open, and lets a few trial
+ * calls through (half-open) once the open period has elapsed. The call timeout
+ * follows the observed p99 latency instead of a fixed constant.
+ *
+ * Every state change starts a new generation, and a permit carries the generation
+ * it was granted in. Outcomes are only counted for permits of the current one, so a
+ * slow call started while closed can't pass for a half-open trial (or reopen the
+ * circuit after it closed again).
+ */
+@Slf4j
+public class ApiCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Returned by {@link #tryAcquire()} when the call must fail fast
+     */
+    public static final long NO_PERMIT = -1;
+
+    private static final int TIMEOUT_RECALC_INTERVAL = 10;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenTrialCalls;
+    private final long minTimeoutNanos;
+    private final long maxTimeoutNanos;
+    private final double timeoutMultiplier;
+    private final LongSupplier nanoClock;
+
+    // Rolling window of the last calls (guarded by this)
+    private final long[] latencies;
+    private final boolean[] failures;
+    private int windowIndex;
+    private int windowCount;
+    private int failureCount;
+    private int recordsSinceRecalc;
+
+    // Half-open bookkeeping (guarded by this)
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+    private long openedAtNanos;
+
+    private volatile long generation; // Advanced on every state change (under this)
+    private volatile State state = State.CLOSED;
+    private volatile Duration currentTimeout;
+
+    private final AtomicLong rejectedCalls = new AtomicLong();
+    private final Map<State, AtomicLong> transitions = new EnumMap<>(State.class);
+
+    public ApiCircuitBreaker(int windowSize,
+                             int minimumCalls,
+                             double failureRateThreshold,
+                             Duration openDuration,
+                             int halfOpenTrialCalls,
+                             Duration minTimeout,
+                             Duration maxTimeout,
+                             double timeoutMultiplier) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenTrialCalls,
+                minTimeout, maxTimeout, timeoutMultiplier, System::nanoTime);
+    }
+
+    ApiCircuitBreaker(int windowSize,
+                      int minimumCalls,
+                      double failureRateThreshold,
+                      Duration openDuration,
+                      int halfOpenTrialCalls,
+                      Duration minTimeout,
+                      Duration maxTimeout,
+                      double timeoutMultiplier,
+                      LongSupplier nanoClock) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("minimumCalls must be between 1 and windowSize");
+        }
+        if (minTimeout.compareTo(maxTimeout) > 0) {
+            throw new IllegalArgumentException("minTimeout must not exceed maxTimeout");
+        }
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenTrialCalls = Math.max(1, halfOpenTrialCalls);
+        this.minTimeoutNanos = minTimeout.toNanos();
+        this.maxTimeoutNanos = maxTimeout.toNanos();
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.nanoClock = nanoClock;
+        this.latencies = new long[windowSize];
+        this.failures = new boolean[windowSize];
+        this.currentTimeout = maxTimeout; // No observations yet, start with the ceiling
+        for (State s : State.values()) {
+            transitions.put(s, new AtomicLong());
+        }
+    }
+
+    /**
+     * Ask permission to make an upstream call
+     * @return a permit to report the call's outcome with, or NO_PERMIT if it should fail fast
+     */
+    public long tryAcquire() {
+        long current = generation; // Read before the state, so a closed call can't get a later generation's tag
+        if (state == State.CLOSED) {
+            return current;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAtNanos < openDurationNanos) {
+                    rejectedCalls.incrementAndGet();
+                    return NO_PERMIT;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenInFlight + halfOpenSuccesses >= halfOpenTrialCalls) {
+                    rejectedCalls.incrementAndGet();
+                    return NO_PERMIT;
+                }
+                halfOpenInFlight++;
+            }
+            return generation;
+        }
+    }
+
+    /**
+     * Record a successful call
+     * @param permit what tryAcquire returned for it
+     */
+    public synchronized void onSuccess(long permit, long latencyNanos) {
+        if (permit != generation) {
+            return; // Started before the last state change
+        }
+        if (state == State.HALF_OPEN) {
+            releaseTrial();
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= halfOpenTrialCalls) {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+        }
+        record(latencyNanos, false);
+    }
+
+    /**
+     * Record a failed call (error or timeout)
+     * @param permit what tryAcquire returned for it
+     */
+    public synchronized void onFailure(long permit, long latencyNanos) {
+        if (permit != generation) {
+            return; // Started before the last state change
+        }
+        if (state == State.HALF_OPEN) {
+            releaseTrial();
+            open();
+            return;
+        }
+        record(latencyNanos, true);
+        if (state == State.CLOSED && windowCount >= minimumCalls
+                && (double) failureCount / windowCount >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Record a call that was cancelled before completing
+     * @param permit what tryAcquire returned for it
+     */
+    public synchronized void onCancel(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            releaseTrial();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Timeout to apply to the next upstream call
+     */
+    public Duration getCurrentTimeout() {
+        return currentTimeout;
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.get();
+    }
+
+    public long getTransitionCount(State target) {
+        return transitions.get(target).get();
+    }
+
+    /**
+     * Current state, window failure rate, timeout and transition counters
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("windowCalls", windowCount);
+        stats.put("windowFailureRate", windowCount > 0 ? (double) failureCount / windowCount : 0.0);
+        stats.put("timeoutMs", currentTimeout.toMillis());
+        stats.put("rejectedCalls", rejectedCalls.get());
+        Map<String, Long> transitionCounts = new LinkedHashMap<>();
+        transitions.forEach((target, count) -> transitionCounts.put(target.name(), count.get()));
+        stats.put("transitions", transitionCounts);
+        return stats;
+    }
+
+    private void open() {
+        openedAtNanos = nanoClock.getAsLong();
+        // Trial calls get the full timeout so a tight adaptive value can't keep the circuit open
+        currentTimeout = Duration.ofNanos(maxTimeoutNanos);
+        transitionTo(State.OPEN);
+    }
+
+    private void releaseTrial() {
+        if (halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void transitionTo(State target) {
+        if (state == target) {
+            return;
+        }
+        log.warn("External API circuit breaker {} -> {}", state, target);
+        generation++;
+        state = target;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        transitions.get(target).incrementAndGet();
+    }
+
+    private void record(long latencyNanos, boolean failed) {
+        if (windowCount == latencies.length) {
+            // Overwrite the oldest entry
+            if (failures[windowIndex]) {
+                failureCount--;
+            }
+        } else {
+            windowCount++;
+        }
+        latencies[windowIndex] = latencyNanos;
+        failures[windowIndex] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        windowIndex = (windowIndex + 1) % latencies.length;
+
+        if (!failed && ++recordsSinceRecalc >= TIMEOUT_RECALC_INTERVAL) {
+            recordsSinceRecalc = 0;
+            recalculateTimeout();
+        }
+    }
+
+    /**
+     * Set the timeout from the p99 latency of successful calls in the window
+     */
+    private void recalculateTimeout() {
+        long[] successful = new long[windowCount];
+        int n = 0;
+        for (int i = 0; i < windowCount; i++) {
+            if (!failures[i]) {
+                successful[n++] = latencies[i];
+            }
+        }
+        if (n == 0) {
+            return;
+        }
+        Arrays.sort(successful, 0, n);
+        long p99 = successful[Math.min(n - 1, (int) Math.ceil(n * 0.99) - 1)];
+        long timeout = Math.max(minTimeoutNanos, Math.min(maxTimeoutNanos, (long) (p99 * timeoutMultiplier)));
+        currentTimeout = Duration.ofNanos(timeout);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        failureCount = 0;
+        recordsSinceRecalc = 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.truthdare.backend.client;
+
+/**
+ * Thrown instead of calling the external API while the circuit breaker is open
+ */
+public class CircuitOpenException extends RuntimeException {
+    
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,24 @@
 package com.truthdare.backend.client;
 
 import com.truthdare.backend.dto.ExternalApiQuestionResponse;
+import com.truthdare.backend.model.GameMode;
 import com.truthdare.backend.model.QuestionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Client for external Truth or Dare API
@@ -18,16 +28,41 @@ import java.time.Duration;
 @Component
 public class TruthDareApiClient {
     
-    private static final String BASE_URL = "https://api.truthordarebot.xyz/v1";
-    private static final Duration TIMEOUT = Duration.ofSeconds(5);
-    
     private final WebClient webClient;
+    private final ApiCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    
+    // In-flight upstream call per type, shared by concurrent callers
+    private final Map<String, Mono<ExternalApiQuestionResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    private final AtomicLong upstreamCalls = new AtomicLong();
     
-    public TruthDareApiClient() {
+    public TruthDareApiClient(
+            @Value("${external-api.base-url:https://api.truthordarebot.xyz/v1}") String baseUrl,
+            @Value("${external-api.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${external-api.circuit-breaker.minimum-calls:5}") int minimumCalls,
+            @Value("${external-api.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${external-api.circuit-breaker.open-duration-ms:10000}") long openDurationMs,
+            @Value("${external-api.circuit-breaker.half-open-trial-calls:2}") int halfOpenTrialCalls,
+            @Value("${external-api.timeout.min-ms:300}") long minTimeoutMs,
+            @Value("${external-api.timeout.max-ms:5000}") long maxTimeoutMs,
+            @Value("${external-api.timeout.p99-multiplier:2.0}") double timeoutMultiplier,
+            MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
         this.webClient = WebClient.builder()
-                .baseUrl(BASE_URL)
+                .baseUrl(baseUrl)
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(256 * 1024))
                 .build();
+        this.circuitBreaker = new ApiCircuitBreaker(
+                windowSize,
+                minimumCalls,
+                failureRateThreshold,
+                Duration.ofMillis(openDurationMs),
+                halfOpenTrialCalls,
+                Duration.ofMillis(minTimeoutMs),
+                Duration.ofMillis(maxTimeoutMs),
+                timeoutMultiplier
+        );
     }
     
     /**
@@ -35,10 +70,10 @@ public class TruthDareApiClient {
      * @return Question text or null if API call fails
      */
     public Mono<String> fetchTruthQuestion() {
-        return fetchQuestion("truth")
+        return fetchCoalesced("truth")
                 .map(ExternalApiQuestionResponse::getQuestion)
                 .onErrorResume(error -> {
-                    log.error("Error fetching truth question from API: {}", error.getMessage());
+                    logFetchError("truth", error);
                     return Mono.empty();
                 });
     }
@@ -48,10 +83,10 @@ public class TruthDareApiClient {
      * @return Question text or null if API call fails
      */
     public Mono<String> fetchDareQuestion() {
-        return fetchQuestion("dare")
+        return fetchCoalesced("dare")
                 .map(ExternalApiQuestionResponse::getQuestion)
                 .onErrorResume(error -> {
-                    log.error("Error fetching dare question from API: {}", error.getMessage());
+                    logFetchError("dare", error);
                     return Mono.empty();
                 });
     }
@@ -61,10 +96,10 @@ public class TruthDareApiClient {
      * @return Question text or null if API call fails
      */
     public Mono<String> fetchRandomQuestion() {
-        return fetchQuestion("random")
+        return fetchCoalesced("random")
                 .map(ExternalApiQuestionResponse::getQuestion)
                 .onErrorResume(error -> {
-                    log.error("Error fetching random question from API: {}", error.getMessage());
+                    logFetchError("random", error);
                     return Mono.empty();
                 });
     }
@@ -75,16 +110,111 @@ public class TruthDareApiClient {
      * @return API response or empty on error
      */
     private Mono<ExternalApiQuestionResponse> fetchQuestion(String type) {
-        return webClient.get()
-                .uri("/{type}", type)
-                .retrieve()
-                .bodyToMono(ExternalApiQuestionResponse.class)
-                .timeout(TIMEOUT)
-                .doOnSuccess(response -> log.debug("Successfully fetched {} question from API", type))
-                .onErrorMap(WebClientResponseException.class, ex -> {
-                    log.error("API returned error: {} - {}", ex.getStatusCode(), ex.getResponseBodyAsString());
-                    return ex;
-                });
+        return Mono.defer(() -> {
+            long permit = circuitBreaker.tryAcquire();
+            if (permit == ApiCircuitBreaker.NO_PERMIT) {
+                return Mono.error(new CircuitOpenException("External API circuit is open"));
+            }
+            
+            long start = System.nanoTime();
+            return webClient.get()
+                    .uri("/{type}", type)
+                    .retrieve()
+                    .bodyToMono(ExternalApiQuestionResponse.class)
+                    .timeout(circuitBreaker.getCurrentTimeout())
+                    .doOnSuccess(response -> {
+                        long elapsed = System.nanoTime() - start;
+                        circuitBreaker.onSuccess(permit, elapsed);
+                        requestTimer(type, "success").record(elapsed, TimeUnit.NANOSECONDS);
+                        log.debug("Successfully fetched {} question from API", type);
+                    })
+                    .doOnError(error -> {
+                        long elapsed = System.nanoTime() - start;
+                        circuitBreaker.onFailure(permit, elapsed);
+                        requestTimer(type, error instanceof TimeoutException ? "timeout" : "error")
+                                .record(elapsed, TimeUnit.NANOSECONDS);
+                    })
+                    .doOnCancel(() -> circuitBreaker.onCancel(permit))
+                    .onErrorMap(WebClientResponseException.class, ex -> {
+                        log.error("API returned error: {} - {}", ex.getStatusCode(), ex.getResponseBodyAsString());
+                        return ex;
+                    });
+        });
+    }
+    
+    /**
+     * Upstream call latency by type and outcome (truthdare.api.requests)
+     * The registry returns the existing timer after the first call for a tag pair
+     */
+    private Timer requestTimer(String type, String outcome) {
+        return Timer.builder("truthdare.api.requests")
+                .description("External question API call latency")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Fetch a question, sharing the upstream call with any concurrent caller for the same type
+     * @param type "truth", "dare", or "random"
+     * @return API response or error, identical for every caller joined to the same call
+     */
+    private Mono<ExternalApiQuestionResponse> fetchCoalesced(String type) {
+        return Mono.defer(() -> {
+            coalescedRequests.incrementAndGet();
+            return inFlight.computeIfAbsent(type, key -> {
+                upstreamCalls.incrementAndGet();
+                AtomicReference<Mono<ExternalApiQuestionResponse>> self = new AtomicReference<>();
+                Mono<ExternalApiQuestionResponse> call = fetchQuestion(key)
+                        .doFinally(signal -> inFlight.remove(key, self.get()))
+                        .share();
+                self.set(call);
+                return call;
+            });
+        });
+    }
+    
+    /**
+     * Request coalescing stats: callers served vs upstream calls made
+     */
+    public Map<String, Object> getCoalescingStats() {
+        long requests = coalescedRequests.get();
+        long calls = upstreamCalls.get();
+        return Map.of(
+                "requests", requests,
+                "upstreamCalls", calls,
+                "collapseRatio", calls > 0 ? (double) requests / calls : 1.0
+        );
+    }
+    
+    /**
+     * Log a failed fetch; rejections while the circuit is open are expected and kept quiet
+     */
+    private void logFetchError(String type, Throwable error) {
+        if (error instanceof CircuitOpenException) {
+            log.debug("Skipped {} question fetch: {}", type, error.getMessage());
+        } else {
+            log.error("Error fetching {} question from API: {}", type, error.getMessage());
+        }
+    }
+    
+    /**
+     * Circuit breaker guarding the external API (state, timeout and transition counts)
+     */
+    public ApiCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    /**
+     * Fetch a question of the given upstream type without swallowing errors
+     * Used by the prefetch buffer, which tracks failures itself and needs distinct
+     * questions, so these calls are never coalesced
+     * @param type "truth", "dare", or "random"
+     * @return Question text, or an error if the API call fails
+     */
+    public Mono<String> fetchQuestionOfType(String type) {
+        return fetchQuestion(type)
+                .map(ExternalApiQuestionResponse::getQuestion);
     }
     
     /**
@@ -93,20 +223,35 @@ public class TruthDareApiClient {
      * @param questionType Preferred question type (can be null for random)
      * @return Question text or null if API call fails
      */
-    public Mono<String> getQuestionForGameMode(com.truthdare.backend.model.GameMode gameMode, QuestionType questionType) {
-        if (gameMode == com.truthdare.backend.model.GameMode.TRUTH_ONLY) {
-            return fetchTruthQuestion();
-        } else if (gameMode == com.truthdare.backend.model.GameMode.DARE_ONLY) {
-            return fetchDareQuestion();
-        } else if (gameMode == com.truthdare.backend.model.GameMode.TRUTH_AND_DARE) {
-            if (questionType == QuestionType.TRUTH) {
+    public Mono<String> getQuestionForGameMode(GameMode gameMode, QuestionType questionType) {
+        switch (resolveApiType(gameMode, questionType)) {
+            case "truth":
                 return fetchTruthQuestion();
-            } else if (questionType == QuestionType.DARE) {
+            case "dare":
                 return fetchDareQuestion();
-            } else {
+            default:
                 return fetchRandomQuestion();
+        }
+    }
+    
+    /**
+     * Resolve the upstream question type for a game mode and preference
+     * @param gameMode The current game mode
+     * @param questionType Preferred question type (can be null for random)
+     * @return "truth", "dare", or "random"
+     */
+    public static String resolveApiType(GameMode gameMode, QuestionType questionType) {
+        if (gameMode == GameMode.TRUTH_ONLY) {
+            return "truth";
+        } else if (gameMode == GameMode.DARE_ONLY) {
+            return "dare";
+        } else if (gameMode == GameMode.TRUTH_AND_DARE) {
+            if (questionType == QuestionType.TRUTH) {
+                return "truth";
+            } else if (questionType == QuestionType.DARE) {
+                return "dare";
             }
         }
-        return fetchRandomQuestion();
+        return "random";
     }
 }
\ No newline at end of file
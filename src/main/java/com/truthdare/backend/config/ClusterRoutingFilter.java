@@ -0,0 +1,293 @@
+package com.truthdare.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truthdare.backend.service.ClusterService;
+import com.truthdare.backend.service.RoomService;
+import com.truthdare.backend.util.RoomCodeGenerator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Sends room-scoped API calls to the node that owns the room (cluster mode only).
+ * The room code comes from the path (/api/game/{roomId}/..., /api/admin/{roomId}/...,
+ * /api/rooms/{roomCode}/...) or, for POST /api/rooms/join, from the JSON body.
+ * Calls for rooms owned elsewhere are proxied to the owner, or answered with a 307
+ * to it when cluster.routing=redirect. An owner that doesn't have the room yet
+ * (handover after a membership change still running) sends the call on to the
+ * previous owner. X-Cluster-Hops stops calls from bouncing between nodes that
+ * disagree about membership.
+ */
+@Slf4j
+@Component
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    private static final int MAX_HOPS = 2;
+
+    // Connection-level headers that must not be copied across the proxy hop, plus Origin:
+    // this node has already applied CORS for the client
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "host", "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "proxy-connection", "content-length", "origin");
+
+    private final ClusterService clusterService;
+    private final RoomService roomService;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+    private final Duration forwardTimeout;
+    private final String secret;
+
+    public ClusterRoutingFilter(ClusterService clusterService,
+                                RoomService roomService,
+                                ObjectMapper objectMapper,
+                                @Value("${cluster.forward-timeout-ms:15000}") long forwardTimeoutMs,
+                                @Value("${cluster.secret:}") String secret) {
+        this.clusterService = clusterService;
+        this.secret = secret;
+        this.roomService = roomService;
+        this.objectMapper = objectMapper;
+        this.forwardTimeout = Duration.ofMillis(forwardTimeoutMs);
+        this.webClient = WebClient.builder()
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !clusterService.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = null;
+        String roomCode = roomCodeFromPath(request.getRequestURI());
+        if (roomCode == null && isJoin(request)) {
+            body = request.getInputStream().readAllBytes();
+            roomCode = roomCodeFromJoinBody(body);
+            request = new CachedBodyRequest(request, body);
+        }
+
+        String target = roomCode != null ? routeTarget(roomCode, hops(request, clusterService)) : null;
+        if (target == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI() + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        if (clusterService.isRedirect()) {
+            clusterService.recordRedirect();
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target + path);
+            return;
+        }
+        if (body == null) {
+            body = request.getInputStream().readAllBytes();
+        }
+        forward(request, body, URI.create(target + path), response);
+    }
+
+    /**
+     * Node the call should go to, or null to handle it here
+     */
+    private String routeTarget(String roomCode, int hops) {
+        if (hops >= MAX_HOPS) {
+            return null;
+        }
+        String owner = clusterService.ownerOf(roomCode);
+        if (owner == null) {
+            return null;
+        }
+        if (!owner.equals(clusterService.getSelf())) {
+            return owner;
+        }
+        if (roomService.getRoomByCode(roomCode) != null) {
+            return null;
+        }
+        // Owned here but not arrived yet: the previous owner may still hold it
+        String previousOwner = clusterService.previousOwnerOf(roomCode);
+        return previousOwner != null && !previousOwner.equals(owner) ? previousOwner : null;
+    }
+
+    private void forward(HttpServletRequest request, byte[] body, URI uri, HttpServletResponse response) throws IOException {
+        clusterService.recordForward();
+        int hops = hops(request, clusterService) + 1;
+        ResponseEntity<byte[]> upstream;
+        try {
+            WebClient.RequestBodySpec spec = webClient.method(HttpMethod.valueOf(request.getMethod()))
+                    .uri(uri)
+                    .headers(headers -> {
+                        for (String name : Collections.list(request.getHeaderNames())) {
+                            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))
+                                    && !name.equalsIgnoreCase(ClusterService.HOPS_HEADER)
+                                    && !name.equalsIgnoreCase(ClusterService.SECRET_HEADER)) {
+                                headers.addAll(name, Collections.list(request.getHeaders(name)));
+                            }
+                        }
+                        headers.set(ClusterService.HOPS_HEADER, Integer.toString(hops));
+                        headers.set(ClusterService.SECRET_HEADER, secret); // Marks the call as forwarded by a peer
+                    });
+            upstream = (body.length > 0 ? spec.bodyValue(body) : spec)
+                    .exchangeToMono(clientResponse -> clientResponse.toEntity(byte[].class))
+                    .block(forwardTimeout);
+        } catch (RuntimeException e) {
+            log.warn("Forwarding {} {} failed: {}", request.getMethod(), uri, e.getMessage());
+            response.setStatus(HttpStatus.BAD_GATEWAY.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Room owner unavailable\"}");
+            return;
+        }
+
+        response.setStatus(upstream.getStatusCode().value());
+        upstream.getHeaders().forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (SKIPPED_HEADERS.contains(lower) || lower.startsWith("access-control-") || lower.equals("vary")) {
+                return;
+            }
+            response.setHeader(name, values.get(0)); // Replace, never duplicate, what this node already set
+            values.stream().skip(1).forEach(value -> response.addHeader(name, value));
+        });
+        byte[] responseBody = upstream.getBody();
+        if (responseBody != null) {
+            response.setContentLength(responseBody.length);
+            response.getOutputStream().write(responseBody);
+        }
+    }
+
+    /**
+     * Room code from a room-scoped path, or null
+     */
+    static String roomCodeFromPath(String uri) {
+        List<String> prefixes = List.of("/api/game/", "/api/admin/", "/api/rooms/");
+        for (String prefix : prefixes) {
+            if (!uri.startsWith(prefix)) {
+                continue;
+            }
+            int start = prefix.length();
+            int end = uri.indexOf('/', start);
+            if (end < 0) {
+                return null; // e.g. POST /api/rooms/join or /api/rooms itself
+            }
+            // Room IDs start with the room code
+            if (end - start < RoomCodeGenerator.ROOM_CODE_LENGTH) {
+                return null;
+            }
+            String code = uri.substring(start, start + RoomCodeGenerator.ROOM_CODE_LENGTH).toUpperCase(Locale.ROOT);
+            return RoomCodeGenerator.toKey(code) >= 0 ? code : null;
+        }
+        return null;
+    }
+
+    private static boolean isJoin(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && "/api/rooms/join".equals(request.getRequestURI());
+    }
+
+    private String roomCodeFromJoinBody(byte[] body) {
+        try {
+            JsonNode code = objectMapper.readTree(body).get("roomCode");
+            return code != null && code.isTextual() ? code.asText().toUpperCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null; // Let the controller report the bad request
+        }
+    }
+
+    /**
+     * Nodes a call has already passed through
+     * Only believed from another node of the cluster (shared secret present), so a client
+     * can't pose as a forwarded call; anything else counts as arriving here first.
+     */
+    static int hops(HttpServletRequest request, ClusterService clusterService) {
+        String value = request.getHeader(ClusterService.HOPS_HEADER);
+        if (value == null || !clusterService.isTrusted(request.getHeader(ClusterService.SECRET_HEADER))) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return MAX_HOPS;
+        }
+    }
+
+    /**
+     * Request whose body was already read, replayed to the rest of the chain
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is already in memory: it is available at once and never blocks
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.truthdare.backend.config;
+
+import com.truthdare.backend.service.RoomService;
+import com.truthdare.backend.websocket.WebSocketSessionTracker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges for live rooms, players and WebSocket sessions
+ * Gauges are read when the registry is scraped, so the room and session paths only
+ * maintain what they already track.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder roomMetrics(RoomService roomService, WebSocketSessionTracker sessionTracker) {
+        return registry -> {
+            Gauge.builder("truthdare.rooms.live", roomService, RoomService::getRoomCount)
+                    .description("Rooms held by this node")
+                    .register(registry);
+            Gauge.builder("truthdare.rooms.players", roomService, RoomService::getPlayerCount)
+                    .description("Players across the rooms held by this node")
+                    .register(registry);
+            Gauge.builder("truthdare.rooms.quarantined.codes", roomService, RoomService::getQuarantinedCodeCount)
+                    .description("Released room codes not yet reusable")
+                    .register(registry);
+            Gauge.builder("truthdare.websocket.sessions", sessionTracker, WebSocketSessionTracker::getSessionCount)
+                    .description("Connected STOMP sessions")
+                    .register(registry);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.truthdare.backend.config;
+
+import com.truthdare.backend.service.ClusterService;
+import com.truthdare.backend.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the rate limits to API calls before they are routed or handled.
+ * Runs after security (so CORS preflights are answered first) and before
+ * ClusterRoutingFilter, so calls are charged on the node they arrive at.
+ * The per-IP budget is only charged there; a call forwarded by another node of the
+ * cluster (X-Cluster-Hops with the shared secret) still counts against the room and
+ * endpoint budgets. From anyone else the hops header is ignored.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitService rateLimitService;
+    private final ClusterService clusterService;
+
+    public RateLimitFilter(RateLimitService rateLimitService, ClusterService clusterService) {
+        this.rateLimitService = rateLimitService;
+        this.clusterService = clusterService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !rateLimitService.isEnabled()
+                || !uri.startsWith("/api/")
+                || uri.startsWith("/api/health")
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        String endpoint = endpointOf(request.getMethod(), uri);
+        String clientIp = ClusterRoutingFilter.hops(request, clusterService) == 0 ? request.getRemoteAddr() : null;
+        // Join carries its room code in the body; the players quota bounds joins per room instead
+        String roomCode = ClusterRoutingFilter.roomCodeFromPath(uri);
+
+        RateLimitService.Rejection rejection = rateLimitService.tryAcquire(clientIp, roomCode, endpoint);
+        if (rejection == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        log.debug("Rate limited {} {} from {} ({} budget)", request.getMethod(), uri, request.getRemoteAddr(), rejection.scope());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rejection.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\",\"scope\":\"" + rejection.scope() + "\"}");
+    }
+
+    /**
+     * Endpoint budget a call is charged to
+     */
+    static String endpointOf(String method, String uri) {
+        if ("POST".equals(method)) {
+            if ("/api/rooms".equals(uri)) {
+                return RateLimitService.ENDPOINT_CREATE_ROOM;
+            }
+            if ("/api/room-batches".equals(uri)) {
+                return RateLimitService.ENDPOINT_BULK_ROOMS; // Charged per room by RoomBatchService
+            }
+            if ("/api/rooms/join".equals(uri)) {
+                return RateLimitService.ENDPOINT_JOIN;
+            }
+        }
+        if ("GET".equals(method) && uri.startsWith("/api/game/") && uri.endsWith("/question")) {
+            return RateLimitService.ENDPOINT_QUESTION;
+        }
+        return RateLimitService.ENDPOINT_OTHER;
+    }
+}
\ No newline at end of file
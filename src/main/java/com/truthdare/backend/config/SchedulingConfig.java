@@ -0,0 +1,12 @@
+package com.truthdare.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (corpus reload checks, housekeeping)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package com.truthdare.backend.config;
 
+import com.truthdare.backend.controller.RoomBatchController;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,6 +38,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/**").permitAll()
                         .requestMatchers("/ws/**").permitAll()
+                        .requestMatchers("/ws-native/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().permitAll()
                 );
         
@@ -56,6 +59,7 @@ public class SecurityConfig {
         
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of(RoomBatchController.BATCH_ID_HEADER, RoomBatchController.BATCH_TOKEN_HEADER));
         configuration.setAllowCredentials(true); // Allow credentials for WebSocket
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
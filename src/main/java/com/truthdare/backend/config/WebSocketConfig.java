@@ -1,16 +1,22 @@
 package com.truthdare.backend.config;
 
+import com.truthdare.backend.websocket.BinaryEncodingInterceptor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.StompWebSocketEndpointRegistration;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 /**
  * WebSocket configuration for STOMP protocol
  * Enables real-time communication between clients and server
  */
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
@@ -18,11 +24,64 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Value("${cors.allowed-origins:*}")
     private String allowedOrigins;
     
+    // Same switch Spring Boot uses for Tomcat request handling
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    // "simple" keeps subscriptions in this JVM; "relay" fans out through an external STOMP broker
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+    
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+    
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+    
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+    
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+    
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+    
+    @Value("${cluster.enabled:false}")
+    private boolean clusterEnabled;
+    
+    private final BinaryEncodingInterceptor binaryEncodingInterceptor;
+    
+    public WebSocketConfig(BinaryEncodingInterceptor binaryEncodingInterceptor) {
+        this.binaryEncodingInterceptor = binaryEncodingInterceptor;
+    }
+    
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple in-memory message broker to carry messages to clients
-        // Messages prefixed with "/topic" will be routed to message subscribers
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // Relay "/topic" through an external broker so a room's subscribers can be
+            // spread over several nodes; every node publishes to and receives from it
+            var relay = config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            log.info("Relaying /topic through STOMP broker at {}:{}", relayHost, relayPort);
+        } else if ("simple".equalsIgnoreCase(brokerMode)) {
+            if (clusterEnabled) {
+                log.warn("Cluster mode with the simple broker: players only get events for rooms owned by the node they're connected to");
+            }
+            // Enable a simple in-memory message broker to carry messages to clients
+            // Messages prefixed with "/topic" will be routed to message subscribers
+            config.enableSimpleBroker("/topic");
+        } else {
+            throw new IllegalStateException("Unknown websocket.broker.mode: " + brokerMode);
+        }
         
         // Messages prefixed with "/app" are routed to message-handling methods
         config.setApplicationDestinationPrefixes("/app");
@@ -32,14 +91,58 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Register the WebSocket endpoint that clients will connect to
         var endpoint = registry.addEndpoint("/ws");
+        allowOrigins(endpoint);
+        endpoint.withSockJS(); // Enable SockJS fallback options for browsers that don't support WebSocket
         
+        // Plain WebSocket (no SockJS framing); subscriptions here can ask for CBOR instead of JSON
+        var nativeEndpoint = registry.addEndpoint("/ws-native");
+        allowOrigins(nativeEndpoint);
+        nativeEndpoint.addInterceptors(binaryEncodingInterceptor);
+    }
+    
+    private void allowOrigins(StompWebSocketEndpointRegistration endpoint) {
         // Set allowed origins based on configuration
         if ("*".equals(allowedOrigins)) {
             endpoint.setAllowedOriginPatterns("*");
         } else {
             endpoint.setAllowedOrigins(allowedOrigins.split(","));
         }
-        
-        endpoint.withSockJS(); // Enable SockJS fallback options for browsers that don't support WebSocket
+    }
+    
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(binaryEncodingInterceptor);
+        if (useVirtualThreads()) {
+            registration.executor(virtualThreadExecutor("ws-inbound-"));
+        }
+    }
+    
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(binaryEncodingInterceptor.outbound());
+        if (useVirtualThreads()) {
+            registration.executor(virtualThreadExecutor("ws-outbound-"));
+        }
+    }
+    
+    /**
+     * Virtual threads need a Java 21 runtime; fall back to the default pools otherwise
+     */
+    private boolean useVirtualThreads() {
+        if (!virtualThreadsEnabled) {
+            return false;
+        }
+        if (Runtime.version().feature() < 21) {
+            log.warn("Virtual threads requested but running on Java {}, keeping platform thread pools",
+                    Runtime.version().feature());
+            return false;
+        }
+        return true;
+    }
+    
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
     }
 }
\ No newline at end of file
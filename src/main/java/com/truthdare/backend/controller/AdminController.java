@@ -1,20 +1,38 @@
 package com.truthdare.backend.controller;
 
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.truthdare.backend.dto.AdminInjectQuestionRequest;
 import com.truthdare.backend.dto.QuestionDto;
+import com.truthdare.backend.model.AdminQuestionQueue;
 import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Player;
 import com.truthdare.backend.model.Question;
 import com.truthdare.backend.model.QuestionType;
 import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomEvent;
 import com.truthdare.backend.service.GameService;
+import com.truthdare.backend.service.QuotaExceededException;
+import com.truthdare.backend.service.RateLimitService;
 import com.truthdare.backend.service.RoomService;
 import com.truthdare.backend.websocket.WebSocketService;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 /**
  * REST controller for admin operations
  */
@@ -27,11 +45,21 @@ public class AdminController {
     private final RoomService roomService;
     private final GameService gameService;
     private final WebSocketService webSocketService;
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int maxQueuedQuestions;
     
-    public AdminController(RoomService roomService, GameService gameService, WebSocketService webSocketService) {
+    public AdminController(RoomService roomService, GameService gameService, WebSocketService webSocketService,
+                           RateLimitService rateLimitService, ObjectMapper objectMapper, Validator validator,
+                           @Value("${rooms.max-queued-admin-questions:100}") int maxQueuedQuestions) {
         this.roomService = roomService;
         this.gameService = gameService;
         this.webSocketService = webSocketService;
+        this.rateLimitService = rateLimitService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxQueuedQuestions = maxQueuedQuestions;
     }
     
     /**
@@ -63,8 +91,9 @@ public class AdminController {
             String targetPlayerId = request.getTargetPlayerId();
             if (targetPlayerId == null) {
                 // Default to current player
-                if (room.getCurrentPlayer() != null) {
-                    targetPlayerId = room.getCurrentPlayer().getPlayerId();
+                Player currentPlayer = room.getSnapshot().currentPlayer();
+                if (currentPlayer != null) {
+                    targetPlayerId = currentPlayer.getPlayerId();
                 }
             }
             
@@ -76,13 +105,18 @@ public class AdminController {
                     true // Mark as admin-injected
             );
             
-            // Add to priority queue
-            room.addAdminQuestion(question);
-            
-            // If game is active, immediately use this question
-            if (room.getStatus() == com.truthdare.backend.model.RoomStatus.ACTIVE) {
-                room.setCurrentQuestion(question);
-            }
+            roomService.mutate(room, RoomEvent.ADMIN_INJECTED, r -> {
+                // Add to priority queue
+                if (!r.addAdminQuestion(question, maxQueuedQuestions)) {
+                    throw new QuotaExceededException("admin-questions", "Too many queued questions");
+                }
+                
+                // If game is active, immediately use this question
+                if (r.getStatus() == com.truthdare.backend.model.RoomStatus.ACTIVE) {
+                    r.setCurrentQuestion(question);
+                }
+                return null;
+            });
             
             QuestionDto dto = new QuestionDto(
                     question.getQuestionId(),
@@ -94,15 +128,108 @@ public class AdminController {
             
             // Broadcast immediately via WebSocket
             webSocketService.notifyAdminOverride(room.getRoomCode(), dto);
-            webSocketService.broadcastRoomState(room.getRoomId());
             
             return ResponseEntity.ok(dto);
+        } catch (QuotaExceededException e) {
+            rateLimitService.recordQuotaRejection(e, RateLimitService.ENDPOINT_OTHER);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
         } catch (Exception e) {
             log.error("Error injecting question", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    /**
+     * Queue several custom questions at once (admin only)
+     * POST /api/admin/{roomId}/inject-questions
+     * Body is a JSON array or NDJSON (one question per line, read as it streams in) of
+     * inject-question bodies with an optional order (lower is served first, default 0).
+     * A question with a targetPlayerId waits for that player's turn. The questions are
+     * queued in one mutation, all or none, and the room gets a single broadcast.
+     */
+    @PostMapping(value = "/{roomId}/inject-questions",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<QuestionDto>> injectQuestions(
+            @PathVariable String roomId,
+            @RequestHeader("X-Admin-Token") String adminToken,
+            InputStream body) {
+        Room room = roomService.getRoomById(roomId);
+        if (room == null) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        if (!room.isAdminTokenValid(adminToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        try {
+            List<AdminQuestionQueue.Queued> questions = readQuestions(body);
+            if (questions.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            
+            int pending = roomService.mutate(room, RoomEvent.ADMIN_INJECTED, r -> {
+                for (AdminQuestionQueue.Queued queued : questions) {
+                    String target = queued.question().getPlayerId();
+                    if (target != null && r.getPlayers().stream().noneMatch(p -> p.getPlayerId().equals(target))) {
+                        throw new IllegalArgumentException("Unknown target player " + target);
+                    }
+                }
+                if (!r.addAdminQuestions(questions, maxQueuedQuestions)) {
+                    throw new QuotaExceededException("admin-questions", "Too many queued questions");
+                }
+                return r.getAdminQuestions().size();
+            });
+            
+            webSocketService.notifyAdminQuestionsQueued(room.getRoomCode(), questions.size(), pending);
+            
+            List<QuestionDto> dtos = questions.stream()
+                    .map(AdminQuestionQueue.Queued::question)
+                    .map(q -> new QuestionDto(q.getQuestionId(), q.getText(), q.getType(), q.getPlayerId(), q.isAdminInjected()))
+                    .toList();
+            return ResponseEntity.ok(dtos);
+        } catch (QuotaExceededException e) {
+            rateLimitService.recordQuotaRejection(e, RateLimitService.ENDPOINT_OTHER);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejected bulk question injection for room {}: {}", roomId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            log.error("Error injecting questions", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Parse and validate a bulk injection body, stopping as soon as it can't fit the queue
+     * @throws IllegalArgumentException for malformed or invalid questions
+     */
+    private List<AdminQuestionQueue.Queued> readQuestions(InputStream body) throws IOException {
+        List<AdminQuestionQueue.Queued> questions = new ArrayList<>();
+        // Iterates the elements of a top-level array, or a sequence of root-level objects
+        try (MappingIterator<AdminInjectQuestionRequest> items = objectMapper
+                .readerFor(AdminInjectQuestionRequest.class)
+                .readValues(body)) {
+            while (items.hasNextValue()) {
+                AdminInjectQuestionRequest item = items.nextValue();
+                if (questions.size() == maxQueuedQuestions) {
+                    throw new QuotaExceededException("admin-questions", "Too many questions");
+                }
+                Set<ConstraintViolation<AdminInjectQuestionRequest>> violations = validator.validate(item);
+                if (!violations.isEmpty()) {
+                    throw new IllegalArgumentException("Question " + (questions.size() + 1) + ": "
+                            + violations.iterator().next().getMessage());
+                }
+                Question question = new Question(item.getQuestionText().trim(), item.getQuestionType(),
+                        item.getTargetPlayerId(), true);
+                questions.add(new AdminQuestionQueue.Queued(question, item.getOrder() != null ? item.getOrder() : 0));
+            }
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed question list: " + e.getOriginalMessage());
+        }
+        return questions;
+    }
+    
     /**
      * Change game mode (admin only)
      * PUT /api/admin/{roomId}/game-mode
@@ -118,7 +245,6 @@ public class AdminController {
             Room room = roomService.getRoomById(roomId);
             if (room != null) {
                 webSocketService.notifyGameModeChanged(room.getRoomCode(), request);
-                webSocketService.broadcastRoomState(room.getRoomId());
             }
             
             return ResponseEntity.ok().build();
@@ -0,0 +1,109 @@
+package com.truthdare.backend.controller;
+
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.service.ClusterService;
+import com.truthdare.backend.service.RoomMigrationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal endpoints used between cluster nodes (membership and room handover)
+ * They answer 404 unless cluster mode is on, and changes must carry X-Cluster-Secret.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/cluster")
+public class ClusterController {
+
+    private final ClusterService clusterService;
+    private final RoomMigrationService migrationService;
+
+    public ClusterController(ClusterService clusterService, RoomMigrationService migrationService) {
+        this.clusterService = clusterService;
+        this.migrationService = migrationService;
+    }
+
+    /**
+     * Membership and handover stats
+     * GET /internal/cluster
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        if (!clusterService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(stats());
+    }
+
+    /**
+     * Replace the member list and hand over rooms that moved
+     * PUT /internal/cluster/nodes
+     * Send the same list to every node.
+     */
+    @PutMapping("/nodes")
+    public ResponseEntity<Map<String, Object>> updateNodes(
+            @RequestHeader(value = ClusterService.SECRET_HEADER, required = false) String secret,
+            @RequestBody List<String> nodes) {
+        ResponseEntity<Map<String, Object>> refused = refuse(secret);
+        if (refused != null) {
+            return refused;
+        }
+        try {
+            clusterService.updateNodes(nodes);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        migrationService.rebalanceAsync();
+        return ResponseEntity.accepted().body(stats());
+    }
+
+    /**
+     * Receive a room from its previous owner
+     * POST /internal/cluster/rooms
+     */
+    @PostMapping("/rooms")
+    public ResponseEntity<Void> receiveRoom(
+            @RequestHeader(value = ClusterService.SECRET_HEADER, required = false) String secret,
+            @RequestBody RoomTransferDto transfer) {
+        ResponseEntity<Void> refused = refuse(secret);
+        if (refused != null) {
+            return refused;
+        }
+        if (!migrationService.accept(transfer)) {
+            log.warn("Rejected handover of room {}: code already in use", transfer.getRoomCode());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    /**
+     * 404 when cluster mode is off, 403 without the shared secret, otherwise null
+     */
+    private <T> ResponseEntity<T> refuse(String secret) {
+        if (!clusterService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!clusterService.isTrusted(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return null;
+    }
+
+    private Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(clusterService.getStats());
+        stats.put("handover", migrationService.getStats());
+        return stats;
+    }
+}
\ No newline at end of file
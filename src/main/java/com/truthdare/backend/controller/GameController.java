@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 /**
  * REST controller for game actions
@@ -61,34 +62,34 @@ public class GameController {
     /**
      * Get next question
      * GET /api/game/{roomId}/question?type=TRUTH
+     * Handled asynchronously so the servlet thread is released while the
+     * external API call is in flight
      */
     @GetMapping("/{roomId}/question")
-    public ResponseEntity<QuestionDto> getNextQuestion(
+    public Mono<ResponseEntity<QuestionDto>> getNextQuestion(
             @PathVariable String roomId,
             @RequestParam(required = false) QuestionType type) {
-        try {
-            return gameService.getNextQuestion(roomId, type)
-                    .map(question -> {
-                        QuestionDto dto = new QuestionDto(
-                                question.getQuestionId(),
-                                question.getText(),
-                                question.getType(),
-                                question.getPlayerId(),
-                                question.isAdminInjected()
-                        );
-                        
-                        var room = roomService.getRoomById(roomId);
-                        if (room != null) {
-                            webSocketService.notifyQuestionSent(room.getRoomCode(), dto);
-                        }
-                        
-                        return ResponseEntity.ok(dto);
-                    })
-                    .block();
-        } catch (Exception e) {
-            log.error("Error getting next question", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return gameService.getNextQuestion(roomId, type)
+                .map(question -> {
+                    QuestionDto dto = new QuestionDto(
+                            question.getQuestionId(),
+                            question.getText(),
+                            question.getType(),
+                            question.getPlayerId(),
+                            question.isAdminInjected()
+                    );
+                    
+                    var room = roomService.getRoomById(roomId);
+                    if (room != null) {
+                        webSocketService.notifyQuestionSent(room.getRoomCode(), dto);
+                    }
+                    
+                    return ResponseEntity.ok(dto);
+                })
+                .onErrorResume(e -> {
+                    log.error("Error getting next question", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                });
     }
     
     /**
@@ -1,11 +1,24 @@
 package com.truthdare.backend.controller;
 
+import com.truthdare.backend.client.TruthDareApiClient;
+import com.truthdare.backend.service.QuestionPrefetchBuffer;
+import com.truthdare.backend.service.RateLimitService;
+import com.truthdare.backend.service.RoomEvictionService;
+import com.truthdare.backend.service.RoomJournal;
+import com.truthdare.backend.service.RoomStateCache;
+import com.truthdare.backend.websocket.BinaryEncodingInterceptor;
+import com.truthdare.backend.websocket.RoomBroadcastBatcher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -15,6 +28,33 @@ import java.util.Map;
 @RequestMapping("/api")
 public class HealthController {
     
+    private final QuestionPrefetchBuffer prefetchBuffer;
+    private final TruthDareApiClient apiClient;
+    private final RoomEvictionService roomEvictionService;
+    private final RoomStateCache roomStateCache;
+    private final RoomBroadcastBatcher broadcastBatcher;
+    private final RoomJournal roomJournal;
+    private final BinaryEncodingInterceptor binaryEncoding;
+    private final RateLimitService rateLimitService;
+    
+    public HealthController(QuestionPrefetchBuffer prefetchBuffer,
+                            TruthDareApiClient apiClient,
+                            RoomEvictionService roomEvictionService,
+                            RoomStateCache roomStateCache,
+                            RoomBroadcastBatcher broadcastBatcher,
+                            RoomJournal roomJournal,
+                            BinaryEncodingInterceptor binaryEncoding,
+                            RateLimitService rateLimitService) {
+        this.prefetchBuffer = prefetchBuffer;
+        this.apiClient = apiClient;
+        this.roomEvictionService = roomEvictionService;
+        this.roomStateCache = roomStateCache;
+        this.broadcastBatcher = broadcastBatcher;
+        this.roomJournal = roomJournal;
+        this.binaryEncoding = binaryEncoding;
+        this.rateLimitService = rateLimitService;
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         Map<String, String> response = new HashMap<>();
@@ -22,4 +62,57 @@ public class HealthController {
         response.put("service", "truth-dare-backend");
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * External question pipeline stats (prefetch buffers and circuit breaker)
+     * GET /api/health/questions
+     */
+    @GetMapping("/health/questions")
+    public ResponseEntity<Map<String, Object>> questionStats() {
+        Map<String, Object> response = new HashMap<>();
+        List<Map<String, Object>> buffers = prefetchBuffer.getStats();
+        response.put("prefetchBuffers", buffers);
+        response.put("circuitBreaker", apiClient.getCircuitBreaker().getStats());
+        response.put("coalescing", apiClient.getCoalescingStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Room stats (live rooms, idle evictions, state cache, broadcast frames and journal)
+     * GET /api/health/rooms
+     */
+    @GetMapping("/health/rooms")
+    public ResponseEntity<Map<String, Object>> roomStats() {
+        Map<String, Object> response = new LinkedHashMap<>(roomEvictionService.getStats());
+        response.put("stateCacheHits", roomStateCache.getHitCount());
+        response.put("stateCacheEncodes", roomStateCache.getEncodeCount());
+        response.put("broadcast", broadcastBatcher.getStats());
+        response.put("binaryEncoding", binaryEncoding.getStats());
+        response.put("journal", roomJournal.getStats());
+        response.put("rateLimit", rateLimitService.getStats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * JVM heap, GC and thread counts (sampled by the load generator)
+     * GET /api/health/jvm
+     */
+    @GetMapping("/health/jvm")
+    public ResponseEntity<Map<String, Object>> jvmStats() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long gcCount = 0;
+        long gcTimeMs = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcTimeMs += Math.max(0, gc.getCollectionTime());
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("heapUsed", heap.getUsed());
+        response.put("heapCommitted", heap.getCommitted());
+        response.put("heapMax", heap.getMax());
+        response.put("gcCount", gcCount);
+        response.put("gcTimeMs", gcTimeMs);
+        response.put("threads", ManagementFactory.getThreadMXBean().getThreadCount());
+        return ResponseEntity.ok(response);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.truthdare.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truthdare.backend.dto.BulkCreateRoomsRequest;
+import com.truthdare.backend.dto.CreateRoomResponse;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.service.RateLimitedException;
+import com.truthdare.backend.service.RoomBatchService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * REST controller for rooms provisioned in bulk
+ * Batches live on the node that created them, so in cluster mode the start and close
+ * calls must go to that node.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/room-batches")
+@CrossOrigin(origins = "*")
+public class RoomBatchController {
+    
+    public static final String BATCH_ID_HEADER = "X-Room-Batch-Id";
+    public static final String BATCH_TOKEN_HEADER = "X-Room-Batch-Token";
+    
+    private final RoomBatchService roomBatchService;
+    private final ObjectMapper objectMapper;
+    
+    public RoomBatchController(RoomBatchService roomBatchService, ObjectMapper objectMapper) {
+        this.roomBatchService = roomBatchService;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Create a batch of rooms
+     * POST /api/room-batches
+     * Streams one CreateRoomResponse per line (NDJSON) as the rooms are created; the
+     * batch ID and token come back in the X-Room-Batch-Id / X-Room-Batch-Token headers.
+     * Every room counts against the bulk rooms rate limit: 429 if it can't cover them yet.
+     */
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createRooms(@Valid @RequestBody BulkCreateRoomsRequest request) {
+        RoomBatchService.RoomBatch batch;
+        try {
+            batch = roomBatchService.newBatch(request.getCount());
+        } catch (RateLimitedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRejection().retryAfterSeconds()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        
+        String playerName = request.getPlayerName();
+        if (playerName == null || playerName.trim().isEmpty()) {
+            playerName = "Admin";
+        }
+        String adminName = playerName;
+        
+        StreamingResponseBody body = out -> roomBatchService.createRooms(batch, request.getGameMode(), adminName, chunk -> {
+            try {
+                for (Room room : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(toResponse(room)));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Client went away; stop creating rooms
+            }
+        });
+        
+        return ResponseEntity.ok()
+                .header(BATCH_ID_HEADER, batch.getBatchId())
+                .header(BATCH_TOKEN_HEADER, batch.getToken())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * Start the game in every room of a batch that has at least 2 players
+     * POST /api/room-batches/{batchId}/start
+     */
+    @PostMapping("/{batchId}/start")
+    public ResponseEntity<Map<String, Object>> startAll(
+            @PathVariable String batchId,
+            @RequestHeader(BATCH_TOKEN_HEADER) String batchToken) {
+        try {
+            return ResponseEntity.ok(roomBatchService.startAll(batchId, batchToken));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Close every room of a batch
+     * POST /api/room-batches/{batchId}/close
+     */
+    @PostMapping("/{batchId}/close")
+    public ResponseEntity<Map<String, Object>> closeAll(
+            @PathVariable String batchId,
+            @RequestHeader(BATCH_TOKEN_HEADER) String batchToken) {
+        try {
+            return ResponseEntity.ok(roomBatchService.closeAll(batchId, batchToken));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    private static CreateRoomResponse toResponse(Room room) {
+        Player admin = room.getSnapshot().players().get(0); // Bulk-created rooms hold only their admin
+        return new CreateRoomResponse(room.getRoomId(), room.getRoomCode(), room.getAdminToken(), admin.getPlayerId());
+    }
+}
\ No newline at end of file
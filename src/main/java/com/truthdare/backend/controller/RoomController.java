@@ -3,12 +3,15 @@ package com.truthdare.backend.controller;
 import com.truthdare.backend.dto.*;
 import com.truthdare.backend.model.Player;
 import com.truthdare.backend.model.Room;
-import com.truthdare.backend.service.GameService;
+import com.truthdare.backend.service.QuotaExceededException;
+import com.truthdare.backend.service.RateLimitService;
 import com.truthdare.backend.service.RoomService;
+import com.truthdare.backend.service.RoomStateCache;
 import com.truthdare.backend.websocket.WebSocketService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,12 +26,15 @@ public class RoomController {
     
     private final RoomService roomService;
     private final WebSocketService webSocketService;
-    private final GameService gameService;
+    private final RoomStateCache roomStateCache;
+    private final RateLimitService rateLimitService;
     
-    public RoomController(RoomService roomService, WebSocketService webSocketService, GameService gameService) {
+    public RoomController(RoomService roomService, WebSocketService webSocketService, RoomStateCache roomStateCache,
+                          RateLimitService rateLimitService) {
         this.roomService = roomService;
         this.webSocketService = webSocketService;
-        this.gameService = gameService;
+        this.roomStateCache = roomStateCache;
+        this.rateLimitService = rateLimitService;
     }
     
     /**
@@ -46,7 +52,7 @@ public class RoomController {
             Room room = roomService.createRoom(request.getGameMode(), playerName);
             
             // Find the admin player
-            Player admin = room.getPlayers().stream()
+            Player admin = room.getSnapshot().players().stream()
                     .filter(p -> p.getRole() == com.truthdare.backend.model.Role.ADMIN)
                     .findFirst()
                     .orElse(null);
@@ -60,7 +66,6 @@ public class RoomController {
             
             // Notify via WebSocket
             webSocketService.notifyRoomCreated(room.getRoomCode(), response);
-            webSocketService.broadcastRoomState(room.getRoomId());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -85,7 +90,7 @@ public class RoomController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
             
-            if (room.getStatus() == com.truthdare.backend.model.RoomStatus.ACTIVE) {
+            if (room.getSnapshot().status() == com.truthdare.backend.model.RoomStatus.ACTIVE) {
                 JoinRoomResponse response = new JoinRoomResponse();
                 response.setSuccess(false);
                 response.setMessage("Game has already started");
@@ -116,7 +121,13 @@ public class RoomController {
             ));
             
             return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
+        } catch (QuotaExceededException e) {
+            rateLimitService.recordQuotaRejection(e, RateLimitService.ENDPOINT_JOIN);
+            JoinRoomResponse response = new JoinRoomResponse();
+            response.setSuccess(false);
+            response.setMessage(e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        } catch (IllegalArgumentException | IllegalStateException e) {
             JoinRoomResponse response = new JoinRoomResponse();
             response.setSuccess(false);
             response.setMessage(e.getMessage());
@@ -135,13 +146,15 @@ public class RoomController {
      * GET /api/rooms/{roomCode}/state
      */
     @GetMapping("/{roomCode}/state")
-    public ResponseEntity<RoomStateDto> getRoomState(@PathVariable String roomCode) {
+    public ResponseEntity<byte[]> getRoomState(@PathVariable String roomCode) {
         Room room = roomService.getRoomByCode(roomCode.toUpperCase());
         if (room == null) {
             return ResponseEntity.notFound().build();
         }
         
-        RoomStateDto state = gameService.toRoomStateDto(room);
-        return ResponseEntity.ok(state);
+        // RoomStateDto JSON, cached until the room changes
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(roomStateCache.get(room).stateJson());
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.truthdare.backend.dto;
 import com.truthdare.backend.model.QuestionType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,11 +15,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class AdminInjectQuestionRequest {
+    public static final int MAX_QUESTION_LENGTH = 500;
+    
     @NotBlank(message = "Question text is required")
+    @Size(max = MAX_QUESTION_LENGTH, message = "Question text is too long")
     private String questionText;
     
     @NotNull(message = "Question type is required")
     private QuestionType questionType;
     
     private String targetPlayerId; // If null, applies to current player
+    
+    private Integer order; // Place in the queue, lower first (default 0); bulk injection only
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.truthdare.backend.dto;
+
+import com.truthdare.backend.model.GameMode;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to create a batch of rooms (events, classrooms)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateRoomsRequest {
+    @Min(value = 1, message = "At least one room is required")
+    private int count;
+    
+    @NotNull(message = "Game mode is required")
+    private GameMode gameMode;
+    
+    private String playerName; // Name of the admin in every room
+}
\ No newline at end of file
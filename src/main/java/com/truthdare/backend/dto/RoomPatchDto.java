@@ -0,0 +1,40 @@
+package com.truthdare.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Incremental room state update (sent via WebSocket as ROOM_PATCH)
+ * Applies only to a state whose seq is baseSeq: PLAYER_ADDED and PLAYER_REMOVED are
+ * changes against that state, so a client holding any other state below seq must
+ * fetch the full state instead. The other ops carry absolute values.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomPatchDto {
+    private long seq; // Room sequence number after the patch
+    private long baseSeq; // Sequence number of the last state or patch sent for this room
+    private List<Op> ops;
+    
+    public static final String PLAYER_ADDED = "PLAYER_ADDED"; // value: PlayerDto, appended to players
+    public static final String PLAYER_REMOVED = "PLAYER_REMOVED"; // value: playerId
+    public static final String TURN = "TURN"; // value: currentTurnIndex
+    public static final String QUESTION = "QUESTION"; // value: QuestionDto or null
+    public static final String STATUS = "STATUS"; // value: RoomStatus
+    public static final String GAME_MODE = "GAME_MODE"; // value: GameMode
+    
+    /**
+     * One change to the room state
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Op {
+        private String op;
+        private Object value;
+    }
+}
\ No newline at end of file
@@ -23,4 +23,5 @@ public class RoomStateDto {
     private PlayerDto currentPlayer;
     private QuestionDto currentQuestion;
     private int currentTurnIndex;
+    private long seq; // Room sequence number this state reflects (see RoomPatchDto)
 }
\ No newline at end of file
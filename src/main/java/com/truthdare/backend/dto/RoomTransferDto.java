@@ -0,0 +1,33 @@
+package com.truthdare.backend.dto;
+
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.Question;
+import com.truthdare.backend.model.RoomStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Full room state handed from one node to the room's new owner (internal API)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomTransferDto {
+    private String roomId;
+    private String roomCode;
+    private String adminToken;
+    private GameMode gameMode;
+    private RoomStatus status;
+    private List<Player> players;
+    private int currentTurnIndex;
+    private Question currentQuestion;
+    private List<Question> adminQuestions; // Queued admin questions, in order
+    private LocalDateTime createdAt;
+    private LocalDateTime lastActivityAt;
+    private long version; // Snapshot version, so subscribers' sequence numbers continue
+}
\ No newline at end of file
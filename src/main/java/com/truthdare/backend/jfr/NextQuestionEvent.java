@@ -0,0 +1,53 @@
+package com.truthdare.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a whole GameService.getNextQuestion call, from the request to the
+ * question being set on the room (its stages are QuestionStage events)
+ */
+@Name("truthdare.NextQuestion")
+@Label("Next Question")
+@Category({"Truth and Dare", "Questions"})
+@Description("Picking and applying the next question for a room")
+@StackTrace(false)
+public class NextQuestionEvent extends Event {
+
+    @Label("Room Code")
+    String roomCode;
+
+    @Label("Question Type")
+    String questionType;
+
+    @Label("Admin Injected")
+    boolean adminInjected;
+
+    @Label("Outcome")
+    @Description("success, error or cancel")
+    String outcome;
+
+    public static NextQuestionEvent start(String roomCode) {
+        NextQuestionEvent event = new NextQuestionEvent();
+        event.roomCode = roomCode;
+        event.begin();
+        return event;
+    }
+
+    public void setQuestion(String questionType, boolean adminInjected) {
+        this.questionType = questionType;
+        this.adminInjected = adminInjected;
+    }
+
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.truthdare.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one stage of QuestionService.getNextQuestion
+ * Stages run in order admin poll, prefetch poll, API call, classification, fallback;
+ * later stages only appear when the earlier ones came up empty. The API call stage
+ * spans subscription to completion and may end on another thread.
+ */
+@Name("truthdare.QuestionStage")
+@Label("Question Stage")
+@Category({"Truth and Dare", "Questions"})
+@Description("One stage of picking the next question")
+@StackTrace(false)
+public class QuestionStageEvent extends Event {
+
+    public static final String ADMIN_POLL = "admin-poll";
+    public static final String PREFETCH_POLL = "prefetch-poll";
+    public static final String API_CALL = "api-call";
+    public static final String CLASSIFY = "classify";
+    public static final String FALLBACK = "fallback";
+
+    @Label("Room Code")
+    String roomCode;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Outcome")
+    @Description("hit or miss for polls; success, empty, error or cancel for the API call; the question type for classify and fallback")
+    String outcome;
+
+    public static QuestionStageEvent start(String stage, String roomCode) {
+        QuestionStageEvent event = new QuestionStageEvent();
+        event.stage = stage;
+        event.roomCode = roomCode;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.truthdare.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a room topic frame being built and handed to the broker
+ * The duration covers diffing the state, encoding and sending; the time the batch
+ * waited before that (batch window plus mailbox queue) is in queueTime.
+ */
+@Name("truthdare.RoomBroadcast")
+@Label("Room Broadcast")
+@Category({"Truth and Dare", "WebSocket"})
+@Description("Room state and events sent to a room topic")
+@StackTrace(false)
+public class RoomBroadcastEvent extends Event {
+
+    @Label("Room Code")
+    String roomCode;
+
+    @Label("Items")
+    @Description("Events and state updates in the frame (0 if nothing was sent)")
+    int items;
+
+    @Label("Frame Size")
+    @DataAmount
+    long frameBytes;
+
+    @Label("Full State")
+    @Description("The frame carried a full ROOM_STATE rather than a patch")
+    boolean fullState;
+
+    @Label("Queue Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueTime;
+
+    public static RoomBroadcastEvent start(String roomCode, long queueTimeNanos) {
+        RoomBroadcastEvent event = new RoomBroadcastEvent();
+        event.roomCode = roomCode;
+        event.queueTime = queueTimeNanos;
+        event.begin();
+        return event;
+    }
+
+    public void finish(int items, long frameBytes, boolean fullState) {
+        end();
+        if (shouldCommit()) {
+            this.items = items;
+            this.frameBytes = frameBytes;
+            this.fullState = fullState;
+            commit();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.truthdare.backend.jfr;
+
+import com.truthdare.backend.model.Room;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a room being created, joined, left, started or closed
+ * The duration covers the whole operation, including the wait on the room's mailbox
+ * and the journal sync.
+ */
+@Name("truthdare.RoomLifecycle")
+@Label("Room Lifecycle")
+@Category({"Truth and Dare", "Rooms"})
+@Description("Room create, join, leave, start and close")
+@StackTrace(false)
+public class RoomLifecycleEvent extends Event {
+
+    public static final String CREATE = "create";
+    public static final String JOIN = "join";
+    public static final String LEAVE = "leave";
+    public static final String START = "start";
+    public static final String CLOSE = "close";
+
+    @Label("Action")
+    String action;
+
+    @Label("Room Code")
+    String roomCode;
+
+    @Label("Players")
+    @Description("Players in the room afterwards")
+    int players;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Begin timing an operation (roomCode may be null until the room exists)
+     */
+    public static RoomLifecycleEvent start(String action, String roomCode) {
+        RoomLifecycleEvent event = new RoomLifecycleEvent();
+        event.action = action;
+        event.roomCode = roomCode;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit if the event is enabled and over its threshold
+     */
+    public void finish(Room room, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            if (room != null) {
+                this.roomCode = room.getRoomCode();
+                this.players = room.getSnapshot().players().size();
+            }
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.truthdare.backend.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admin-injected questions waiting to be served, lowest order first and in arrival
+ * order among equals. A question targeted at a player is only handed out on that
+ * player's turn and keeps its place until then; untargeted questions go to whoever
+ * is current.
+ * Adds and removals by player run on the room's mailbox while polls come from request
+ * threads, so entries live in a concurrent skip list and a poll claims an entry by
+ * removing it. Polls only ever shrink the queue, which keeps the size check on add exact.
+ */
+public class AdminQuestionQueue {
+
+    private static final Comparator<Entry> SERVING_ORDER = Comparator.comparingInt(Entry::order)
+            .thenComparingLong(Entry::sequence);
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(SERVING_ORDER);
+    private final AtomicInteger size = new AtomicInteger();
+    private long nextSequence; // Only advanced on the mailbox
+
+    /**
+     * Queue questions unless that would take the queue past limit (all or none)
+     * @return false if they don't fit
+     */
+    public boolean offerAll(List<Queued> questions, int limit) {
+        if (size.get() + questions.size() > limit) {
+            return false;
+        }
+        // Added in serving order, so a concurrent poll never takes one ahead of an earlier one still being added
+        List<Queued> sorted = new ArrayList<>(questions);
+        sorted.sort(Comparator.comparingInt(Queued::order));
+        for (Queued queued : sorted) {
+            entries.add(new Entry(queued.order(), nextSequence++, queued.question()));
+            size.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Take the next question for a player: the first one targeted at them or at nobody
+     * @param playerId current player, or null to only take untargeted questions
+     * @return the question, or null if none is waiting for this player
+     */
+    public Question poll(String playerId) {
+        for (Entry entry : entries) {
+            String target = entry.question().getPlayerId();
+            if ((target == null || target.equals(playerId)) && entries.remove(entry)) {
+                size.decrementAndGet();
+                return entry.question();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drop the questions targeted at a player (who left the room)
+     * @return how many were dropped
+     */
+    public int removeTargetedAt(String playerId) {
+        int removed = 0;
+        for (Entry entry : entries) {
+            if (playerId.equals(entry.question().getPlayerId()) && entries.remove(entry)) {
+                size.decrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Queued questions in serving order
+     */
+    public List<Question> toList() {
+        List<Question> questions = new ArrayList<>(size.get());
+        for (Entry entry : entries) {
+            questions.add(entry.question());
+        }
+        return questions;
+    }
+
+    /**
+     * A question to queue and its place in the serving order (lower first)
+     */
+    public record Queued(Question question, int order) {
+    }
+
+    private record Entry(int order, long sequence, Question question) {
+    }
+}
\ No newline at end of file
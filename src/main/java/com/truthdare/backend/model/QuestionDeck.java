@@ -0,0 +1,101 @@
+package com.truthdare.backend.model;
+
+import java.util.Arrays;
+
+/**
+ * Per-room record of questions already served, so a room doesn't see repeats.
+ * Local corpus questions are remembered exactly by entry id in a small ring of
+ * recent ids; external API questions by text fingerprint in a small Bloom filter.
+ * Both are fixed-size (under 1 KB per room): the ring forgets the oldest id and
+ * the filter is cleared once it has seen enough questions to get inaccurate.
+ */
+public class QuestionDeck {
+
+    private static final int RECENT_IDS = 128;
+    private static final int BLOOM_BITS = 2048;
+    private static final int BLOOM_HASHES = 3;
+    // ~1.6% false positive rate at this fill level for 2048 bits and 3 hashes
+    private static final int BLOOM_CAPACITY = 200;
+
+    // Ring of recently served corpus entry ids
+    private final int[] recentIds = new int[RECENT_IDS];
+    private int recentCount;
+    private int recentNext;
+    private long corpusGeneration;
+
+    // Bloom filter over API question fingerprints
+    private final long[] bloom = new long[BLOOM_BITS / Long.SIZE];
+    private int bloomCount;
+
+    /**
+     * Record a local corpus question
+     * @param generation Generation of the corpus the id belongs to
+     * @param id Corpus entry id
+     * @return true if the question is new for this room, false if it was served recently
+     */
+    public synchronized boolean markCorpusQuestion(long generation, int id) {
+        if (generation != corpusGeneration) {
+            // Ids from a previous corpus mean nothing in the new one
+            corpusGeneration = generation;
+            recentCount = 0;
+            recentNext = 0;
+        }
+        for (int i = 0; i < recentCount; i++) {
+            if (recentIds[i] == id) {
+                return false;
+            }
+        }
+        recentIds[recentNext] = id;
+        recentNext = (recentNext + 1) % RECENT_IDS;
+        if (recentCount < RECENT_IDS) {
+            recentCount++;
+        }
+        return true;
+    }
+
+    /**
+     * Record an external API question by its text
+     * @return true if the question is (probably) new for this room, false if it was seen
+     */
+    public synchronized boolean markApiQuestion(String text) {
+        long fingerprint = fingerprint(text);
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32);
+
+        boolean seen = true;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % BLOOM_BITS;
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                seen = false;
+                break;
+            }
+        }
+        if (seen) {
+            return false;
+        }
+
+        if (bloomCount >= BLOOM_CAPACITY) {
+            Arrays.fill(bloom, 0L);
+            bloomCount = 0;
+        }
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % BLOOM_BITS;
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+        bloomCount++;
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the normalized text
+     */
+    private static long fingerprint(String text) {
+        long hash = 0xcbf29ce484222325L;
+        String normalized = text.trim().toLowerCase();
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -1,19 +1,32 @@
 package com.truthdare.backend.model;
 
+import com.truthdare.backend.util.SerialExecutor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * Represents a game room
+ * Game state is only changed through {@link #submit}, which runs mutations one at a
+ * time on the room's mailbox; readers use the immutable {@link #getSnapshot()}.
  */
 @Data
 @NoArgsConstructor
 public class Room {
+    private static final int MAILBOX_BATCH_LIMIT = 32;
+    
     private String roomId;
     private String roomCode; // Short code for players to join
     private String adminToken; // Secure token for admin access
@@ -22,21 +35,117 @@ public class Room {
     private List<Player> players;
     private int currentTurnIndex; // Index in players list
     private Question currentQuestion;
-    private ConcurrentLinkedQueue<Question> adminOverrideQueue; // Priority queue for admin-injected questions
+    private AdminQuestionQueue adminQuestions; // Admin-injected questions, by order and target player
     private LocalDateTime createdAt;
     private LocalDateTime lastActivityAt;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile QuestionDeck questionDeck; // Questions already served, created on first question
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final SerialExecutor mailbox = new SerialExecutor(ForkJoinPool.commonPool(), MAILBOX_BATCH_LIMIT);
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Setter(AccessLevel.NONE)
+    private volatile RoomSnapshot snapshot; // Published after every mutation
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile SerializedRoomState serializedState; // Serialized form of the latest snapshot seen by a reader
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private RoomSnapshot lastBroadcastSnapshot; // Last state sent to subscribers (only touched on the mailbox)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Setter(AccessLevel.NONE)
+    private volatile boolean closed; // Set on the mailbox once the room is being removed; it takes no more players
     
     public Room(String roomCode, String adminToken, GameMode gameMode) {
-        this.roomId = java.util.UUID.randomUUID().toString();
+        this(java.util.UUID.randomUUID().toString(), roomCode, adminToken, gameMode);
+    }
+    
+    public Room(String roomId, String roomCode, String adminToken, GameMode gameMode) {
+        this.roomId = roomId;
         this.roomCode = roomCode;
         this.adminToken = adminToken;
         this.gameMode = gameMode;
         this.status = RoomStatus.WAITING;
         this.players = new ArrayList<>();
         this.currentTurnIndex = 0;
-        this.adminOverrideQueue = new ConcurrentLinkedQueue<>();
+        this.adminQuestions = new AdminQuestionQueue();
         this.createdAt = LocalDateTime.now();
         this.lastActivityAt = LocalDateTime.now();
+        publishSnapshot();
+    }
+    
+    /**
+     * Apply a mutation on the room's mailbox, then publish a new snapshot
+     * Runs inline when the mailbox is idle (or the caller is already running on it),
+     * otherwise after the mutations queued before it.
+     */
+    public <T> CompletableFuture<T> submit(Function<Room, T> mutation) {
+        if (mailbox.isCurrentThread()) {
+            try {
+                return CompletableFuture.completedFuture(apply(mutation));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        mailbox.execute(() -> {
+            try {
+                result.complete(apply(mutation));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+    
+    private <T> T apply(Function<Room, T> mutation) {
+        try {
+            return mutation.apply(this);
+        } finally {
+            publishSnapshot();
+        }
+    }
+    
+    private void publishSnapshot() {
+        RoomSnapshot previous = this.snapshot;
+        if (previous != null && previous.gameMode() == gameMode && previous.status() == status
+                && previous.currentTurnIndex() == currentTurnIndex && previous.currentQuestion() == currentQuestion
+                && Objects.equals(previous.lastActivityAt(), lastActivityAt) && previous.players().equals(players)) {
+            return; // Nothing changed (e.g. a task that only read or broadcast state)
+        }
+        this.snapshot = new RoomSnapshot(
+                previous != null ? previous.version() + 1 : 0,
+                gameMode,
+                status,
+                List.copyOf(players),
+                currentTurnIndex,
+                currentQuestion,
+                lastActivityAt
+        );
+    }
+    
+    /**
+     * Number snapshots after the given version (for a room moved from another node), so
+     * subscribers' sequence numbers keep increasing. Call from a mutation.
+     */
+    public void continueVersionsFrom(long version) {
+        RoomSnapshot current = this.snapshot;
+        if (current.version() < version) {
+            this.snapshot = new RoomSnapshot(version, current.gameMode(), current.status(), current.players(),
+                    current.currentTurnIndex(), current.currentQuestion(), current.lastActivityAt());
+        }
+    }
+    
+    /**
+     * Mark the room as removed, so mutations queued behind the removal see it; call from a mutation
+     */
+    public void markClosed() {
+        this.closed = true;
     }
     
     /**
@@ -53,6 +162,8 @@ public class Room {
     public boolean removePlayer(String playerId) {
         boolean removed = this.players.removeIf(p -> p.getPlayerId().equals(playerId));
         if (removed) {
+            this.adminQuestions.removeTargetedAt(playerId); // Their turn won't come
+            
             // Adjust turn index if needed
             if (this.currentTurnIndex >= this.players.size() && this.players.size() > 0) {
                 this.currentTurnIndex = 0;
@@ -83,6 +194,13 @@ public class Room {
         this.lastActivityAt = LocalDateTime.now();
     }
     
+    /**
+     * Record activity in the room (used for idle eviction)
+     */
+    public void touch() {
+        this.lastActivityAt = LocalDateTime.now();
+    }
+    
     /**
      * Check if admin token is valid
      */
@@ -91,21 +209,47 @@ public class Room {
     }
     
     /**
-     * Add an admin-injected question to the priority queue
+     * Queue admin-injected questions unless the queue would then hold more than limit
+     * @return false (nothing queued) if they don't fit
      */
-    public void addAdminQuestion(Question question) {
-        this.adminOverrideQueue.offer(question);
+    public boolean addAdminQuestions(List<AdminQuestionQueue.Queued> questions, int limit) {
+        if (!this.adminQuestions.offerAll(questions, limit)) {
+            return false;
+        }
         this.lastActivityAt = LocalDateTime.now();
+        return true;
     }
     
     /**
-     * Poll an admin question from the queue (if available)
+     * Add an admin-injected question (order 0) unless the queue already holds limit questions
+     * @return false if the queue is full
      */
-    public Question pollAdminQuestion() {
-        Question question = this.adminOverrideQueue.poll();
-        if (question != null) {
-            this.lastActivityAt = LocalDateTime.now();
+    public boolean addAdminQuestion(Question question, int limit) {
+        return addAdminQuestions(List.of(new AdminQuestionQueue.Queued(question, 0)), limit);
+    }
+    
+    /**
+     * Poll the next admin question for a player (if available)
+     * Questions targeted at other players stay queued until their turn.
+     */
+    public Question pollAdminQuestion(String playerId) {
+        return this.adminQuestions.poll(playerId);
+    }
+    
+    /**
+     * Get the room's record of served questions, creating it on first use
+     */
+    public QuestionDeck getQuestionDeck() {
+        QuestionDeck deck = this.questionDeck;
+        if (deck == null) {
+            synchronized (this) {
+                deck = this.questionDeck;
+                if (deck == null) {
+                    deck = new QuestionDeck();
+                    this.questionDeck = deck;
+                }
+            }
         }
-        return question;
+        return deck;
     }
 }
\ No newline at end of file
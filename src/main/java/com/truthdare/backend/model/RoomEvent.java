@@ -0,0 +1,18 @@
+package com.truthdare.backend.model;
+
+/**
+ * Room mutation recorded in the journal
+ * Stored by ordinal: only ever append new constants.
+ */
+public enum RoomEvent {
+    CREATED,
+    JOINED,
+    LEFT,
+    STARTED,
+    TURN,
+    QUESTION,
+    MODE_CHANGED,
+    ADMIN_INJECTED,
+    ADOPTED,    // Handed over from another node
+    CLOSED      // Removed (evicted, emptied or handed over)
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.truthdare.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable view of a room's game state, published after every mutation.
+ * Readers use this instead of the room's fields, so they never see a half-applied
+ * change and need no lock. The version increases by one per published change.
+ */
+public record RoomSnapshot(long version,
+                           GameMode gameMode,
+                           RoomStatus status,
+                           List<Player> players,
+                           int currentTurnIndex,
+                           Question currentQuestion,
+                           LocalDateTime lastActivityAt) {
+
+    /**
+     * The player whose turn it is, or null
+     */
+    public Player currentPlayer() {
+        if (currentTurnIndex < 0 || currentTurnIndex >= players.size()) {
+            return null;
+        }
+        return players.get(currentTurnIndex);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.truthdare.backend.model;
+
+/**
+ * JSON encodings of one room snapshot version, cached on the room until the next mutation
+ * @param version Snapshot version the bytes were produced from
+ * @param stateJson RoomStateDto as JSON
+ * @param eventJson ROOM_STATE WebSocket event wrapping the same state
+ */
+public record SerializedRoomState(long version, byte[] stateJson, byte[] eventJson) {
+}
\ No newline at end of file
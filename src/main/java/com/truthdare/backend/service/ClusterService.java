@@ -0,0 +1,185 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.util.ConsistentHashRing;
+import com.truthdare.backend.util.RoomCodeGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster membership and room ownership.
+ * Every room code has one owner node, picked by a consistent hash ring over the
+ * configured node URLs; rooms are only ever created on and served by their owner.
+ * After a membership change the previous ring is kept, so requests for rooms that
+ * are still being handed over can be sent to the node that holds them.
+ *
+ * With cluster.enabled=false this node owns everything.
+ */
+@Slf4j
+@Service
+public class ClusterService {
+
+    public static final String HOPS_HEADER = "X-Cluster-Hops";
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final boolean enabled;
+    private final String self;
+    private final int virtualNodes;
+    private final boolean redirect;
+    private final String secret;
+
+    private volatile ConsistentHashRing ring;
+    private volatile ConsistentHashRing previousRing;
+
+    private final AtomicLong forwardedCalls = new AtomicLong();
+    private final AtomicLong redirectedCalls = new AtomicLong();
+
+    public ClusterService(@Value("${cluster.enabled:false}") boolean enabled,
+                          @Value("${cluster.self:}") String self,
+                          @Value("${cluster.nodes:}") String nodes,
+                          @Value("${cluster.virtual-nodes:160}") int virtualNodes,
+                          @Value("${cluster.routing:forward}") String routing,
+                          @Value("${cluster.secret:}") String secret) {
+        this.enabled = enabled;
+        this.self = normalize(self);
+        this.virtualNodes = virtualNodes;
+        this.redirect = "redirect".equalsIgnoreCase(routing);
+        this.secret = secret;
+        if (!enabled) {
+            return;
+        }
+        if (this.self.isEmpty()) {
+            throw new IllegalStateException("cluster.self must be set when cluster.enabled=true");
+        }
+        if (secret.isBlank()) {
+            throw new IllegalStateException("cluster.secret must be set when cluster.enabled=true");
+        }
+        this.ring = buildRing(Arrays.asList(nodes.split(",")));
+        log.info("Cluster mode: {} of {} nodes, routing by {}", this.self, ring.getNodes().size(),
+                redirect ? "redirect" : "forward");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    /**
+     * Redirect (307) clients to the owner instead of proxying the call
+     */
+    public boolean isRedirect() {
+        return redirect;
+    }
+
+    /**
+     * Whether a packed room code is owned by this node
+     */
+    public boolean isLocal(long key) {
+        return !enabled || self.equals(ring.ownerOf(key));
+    }
+
+    /**
+     * Owner of a room code, or null for an invalid code (or when clustering is off)
+     */
+    public String ownerOf(String roomCode) {
+        return ownerOf(ring, roomCode);
+    }
+
+    /**
+     * Owner of a room code before the last membership change, or null if there was none
+     */
+    public String previousOwnerOf(String roomCode) {
+        return ownerOf(previousRing, roomCode);
+    }
+
+    /**
+     * Replace the member list; rooms that now belong elsewhere must be handed over
+     */
+    public synchronized void updateNodes(List<String> nodes) {
+        if (!enabled) {
+            throw new IllegalStateException("Cluster mode is not enabled");
+        }
+        ConsistentHashRing next = buildRing(nodes);
+        previousRing = ring;
+        ring = next;
+        log.info("Cluster membership changed to {}", next.getNodes());
+    }
+
+    public List<String> getNodes() {
+        return enabled ? ring.getNodes() : List.of();
+    }
+
+    /**
+     * Whether a call comes from another node of this cluster: cluster mode is on and the
+     * call carries the shared secret (which is required in cluster mode)
+     */
+    public boolean isTrusted(String presentedSecret) {
+        return enabled && secretMatches(presentedSecret);
+    }
+
+    private boolean secretMatches(String presentedSecret) {
+        return presentedSecret != null && MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), presentedSecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void recordForward() {
+        forwardedCalls.incrementAndGet();
+    }
+
+    public void recordRedirect() {
+        redirectedCalls.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("self", self);
+        stats.put("nodes", getNodes());
+        stats.put("virtualNodes", virtualNodes);
+        stats.put("routing", redirect ? "redirect" : "forward");
+        stats.put("forwardedCalls", forwardedCalls.get());
+        stats.put("redirectedCalls", redirectedCalls.get());
+        return stats;
+    }
+
+    private ConsistentHashRing buildRing(List<String> nodes) {
+        List<String> normalized = nodes.stream()
+                .map(ClusterService::normalize)
+                .filter(node -> !node.isEmpty())
+                .toList();
+        if (!normalized.contains(self)) {
+            throw new IllegalArgumentException("Node list must include this node (" + self + ")");
+        }
+        return new ConsistentHashRing(normalized, virtualNodes);
+    }
+
+    private static String ownerOf(ConsistentHashRing ring, String roomCode) {
+        if (ring == null) {
+            return null;
+        }
+        long key = RoomCodeGenerator.toKey(roomCode);
+        return key >= 0 ? ring.ownerOf(key) : null;
+    }
+
+    /**
+     * Node IDs are base URLs; drop trailing slashes so "http://a:8080/" matches "http://a:8080"
+     */
+    private static String normalize(String node) {
+        String trimmed = node.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+}
\ No newline at end of file
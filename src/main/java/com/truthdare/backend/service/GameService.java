@@ -3,6 +3,8 @@ package com.truthdare.backend.service;
 import com.truthdare.backend.dto.RoomStateDto;
 import com.truthdare.backend.dto.PlayerDto;
 import com.truthdare.backend.dto.QuestionDto;
+import com.truthdare.backend.jfr.NextQuestionEvent;
+import com.truthdare.backend.jfr.RoomLifecycleEvent;
 import com.truthdare.backend.model.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -39,17 +41,31 @@ public class GameService {
             throw new SecurityException("Invalid admin token");
         }
         
-        if (room.getPlayers().size() < 2) {
-            throw new IllegalStateException("Need at least 2 players to start");
+        RoomLifecycleEvent event = RoomLifecycleEvent.start(RoomLifecycleEvent.START, room.getRoomCode());
+        boolean started = false;
+        try {
+            started = roomService.mutate(room, RoomEvent.STARTED, r -> {
+                if (r.getPlayers().size() < 2) {
+                    throw new IllegalStateException("Need at least 2 players to start");
+                }
+                
+                if (r.getStatus() == RoomStatus.ACTIVE) {
+                    return false; // Game already started
+                }
+                
+                r.setStatus(RoomStatus.ACTIVE);
+                r.setCurrentTurnIndex(0);
+                r.touch();
+                return true;
+            });
+        } finally {
+            event.finish(room, started);
         }
         
-        if (room.getStatus() == RoomStatus.ACTIVE) {
-            return false; // Game already started
+        if (!started) {
+            return false;
         }
         
-        room.setStatus(RoomStatus.ACTIVE);
-        room.setCurrentTurnIndex(0);
-        
         log.info("Game started in room {}", room.getRoomCode());
         
         return true;
@@ -64,19 +80,34 @@ public class GameService {
             return Mono.error(new IllegalArgumentException("Room not found"));
         }
         
-        if (room.getStatus() != RoomStatus.ACTIVE) {
+        RoomSnapshot state = room.getSnapshot();
+        if (state.status() != RoomStatus.ACTIVE) {
             return Mono.error(new IllegalStateException("Game is not active"));
         }
         
-        if (room.getCurrentPlayer() == null) {
+        if (state.currentPlayer() == null) {
             return Mono.error(new IllegalStateException("No current player"));
         }
         
+        // The question may arrive on a Reactor thread; it is applied on the room's mailbox
+        // without blocking, and the result is emitted once the new snapshot is published
+        // and journaled
+        NextQuestionEvent event = NextQuestionEvent.start(room.getRoomCode());
         return questionService.getNextQuestion(room, preferredType)
+                .flatMap(question -> Mono.fromFuture(roomService.submit(room, RoomEvent.QUESTION, r -> {
+                    r.setCurrentQuestion(question);
+                    r.touch();
+                    return question;
+                })))
                 .doOnNext(question -> {
-                    room.setCurrentQuestion(question);
+                    event.setQuestion(question.getType() != null ? question.getType().name() : null, question.isAdminInjected());
                     log.debug("Set question for room {}: {}", room.getRoomCode(), question.getText());
-                });
+                })
+                .doFinally(signal -> event.finish(switch (signal) {
+                    case ON_ERROR -> "error";
+                    case CANCEL -> "cancel";
+                    default -> "success";
+                }));
     }
     
     /**
@@ -88,11 +119,13 @@ public class GameService {
             throw new IllegalArgumentException("Room not found");
         }
         
-        if (room.getStatus() != RoomStatus.ACTIVE) {
-            throw new IllegalStateException("Game is not active");
-        }
-        
-        room.nextTurn();
+        roomService.mutate(room, RoomEvent.TURN, r -> {
+            if (r.getStatus() != RoomStatus.ACTIVE) {
+                throw new IllegalStateException("Game is not active");
+            }
+            r.nextTurn();
+            return null;
+        });
         
         log.debug("Moved to next turn in room {}", room.getRoomCode());
     }
@@ -110,50 +143,72 @@ public class GameService {
             throw new SecurityException("Invalid admin token");
         }
         
-        room.setGameMode(newMode);
+        roomService.mutate(room, RoomEvent.MODE_CHANGED, r -> {
+            r.setGameMode(newMode);
+            r.touch();
+            return null;
+        });
         
         log.info("Game mode changed to {} in room {}", newMode, room.getRoomCode());
     }
     
     /**
-     * Convert Room to RoomStateDto
+     * Convert Room to RoomStateDto (from the room's latest snapshot)
      */
     public RoomStateDto toRoomStateDto(Room room) {
+        return toRoomStateDto(room, room.getSnapshot());
+    }
+    
+    /**
+     * Convert a specific snapshot of a room to RoomStateDto
+     */
+    public RoomStateDto toRoomStateDto(Room room, RoomSnapshot state) {
         RoomStateDto dto = new RoomStateDto();
         dto.setRoomId(room.getRoomId());
         dto.setRoomCode(room.getRoomCode());
-        dto.setGameMode(room.getGameMode());
-        dto.setStatus(room.getStatus());
-        dto.setCurrentTurnIndex(room.getCurrentTurnIndex());
+        dto.setGameMode(state.gameMode());
+        dto.setStatus(state.status());
+        dto.setCurrentTurnIndex(state.currentTurnIndex());
+        dto.setSeq(state.version());
         
         // Convert players
-        List<PlayerDto> playerDtos = room.getPlayers().stream()
-                .map(p -> new PlayerDto(p.getPlayerId(), p.getName(), p.getRole()))
+        List<PlayerDto> playerDtos = state.players().stream()
+                .map(GameService::toPlayerDto)
                 .collect(Collectors.toList());
         dto.setPlayers(playerDtos);
         
         // Current player
-        Player currentPlayer = room.getCurrentPlayer();
+        Player currentPlayer = state.currentPlayer();
         if (currentPlayer != null) {
-            dto.setCurrentPlayer(new PlayerDto(
-                    currentPlayer.getPlayerId(),
-                    currentPlayer.getName(),
-                    currentPlayer.getRole()
-            ));
+            dto.setCurrentPlayer(toPlayerDto(currentPlayer));
         }
         
         // Current question
-        Question currentQuestion = room.getCurrentQuestion();
+        Question currentQuestion = state.currentQuestion();
         if (currentQuestion != null) {
-            dto.setCurrentQuestion(new QuestionDto(
-                    currentQuestion.getQuestionId(),
-                    currentQuestion.getText(),
-                    currentQuestion.getType(),
-                    currentQuestion.getPlayerId(),
-                    currentQuestion.isAdminInjected()
-            ));
+            dto.setCurrentQuestion(toQuestionDto(currentQuestion));
         }
         
         return dto;
     }
+    
+    /**
+     * Convert Player to PlayerDto
+     */
+    public static PlayerDto toPlayerDto(Player player) {
+        return new PlayerDto(player.getPlayerId(), player.getName(), player.getRole());
+    }
+    
+    /**
+     * Convert Question to QuestionDto
+     */
+    public static QuestionDto toQuestionDto(Question question) {
+        return new QuestionDto(
+                question.getQuestionId(),
+                question.getText(),
+                question.getType(),
+                question.getPlayerId(),
+                question.isAdminInjected()
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.QuestionDeck;
+import com.truthdare.backend.model.QuestionType;
+import com.truthdare.backend.util.QuestionCorpus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local question corpus used when the external API is unavailable.
+ * Loads a memory-mapped corpus index from questions.corpus.path and swaps in a new
+ * index atomically when the file changes. Without a configured file (or if it
+ * fails to load) the built-in questions are served.
+ */
+@Slf4j
+@Service
+public class LocalQuestionCorpus {
+
+    private static final String BUILT_IN_CATEGORY = "classic";
+    private static final int MAX_DRAWS = 8;
+
+    private static final List<String> BUILT_IN_TRUTH_QUESTIONS = List.of(
+            "What's the most embarrassing thing that's ever happened to you?",
+            "What's a secret you've never told anyone?",
+            "Who was your first crush?",
+            "What's your biggest fear?",
+            "What's the worst lie you've ever told?",
+            "What's something you're ashamed of?",
+            "Who do you have a crush on right now?",
+            "What's the most trouble you've ever gotten into?",
+            "What's one thing you wish you could change about yourself?",
+            "What's your guilty pleasure?"
+    );
+
+    private static final List<String> BUILT_IN_DARE_QUESTIONS = List.of(
+            "Do your best impression of someone in the room",
+            "Call your ex and tell them you miss them",
+            "Eat a spoonful of a condiment of the group's choice",
+            "Let someone go through your phone for 1 minute",
+            "Do 20 push-ups",
+            "Sing a song chosen by the group",
+            "Dance with no music for 1 minute",
+            "Let the group post a status on your social media",
+            "Text someone you haven't talked to in a year",
+            "Do your best celebrity impression"
+    );
+
+    private final QuestionCorpus builtIn = QuestionCorpus.wrap(QuestionCorpus.encode(builtInEntries()));
+    private final AtomicReference<QuestionCorpus> current = new AtomicReference<>(builtIn);
+    private final Path corpusPath;
+
+    // Attributes of the file behind the current corpus, to detect changes
+    private volatile long loadedModifiedMillis;
+    private volatile long loadedSize = -1;
+
+    public LocalQuestionCorpus(@Value("${questions.corpus.path:}") String corpusPath) {
+        this.corpusPath = corpusPath == null || corpusPath.isBlank() ? null : Path.of(corpusPath);
+        if (this.corpusPath != null) {
+            reload();
+        }
+    }
+
+    /**
+     * The corpus currently being served
+     */
+    public QuestionCorpus current() {
+        return current.get();
+    }
+
+    /**
+     * Draw a random question of the given type (any type if null) that the room hasn't seen
+     * Falls back to the built-in questions if the corpus has none of that type. If every
+     * draw is a repeat (small corpus), the last one is returned anyway.
+     * @param type Question type, or null for either
+     * @param deck The room's served questions, or null to skip de-duplication
+     */
+    public QuestionCorpus.Entry draw(QuestionType type, QuestionDeck deck) {
+        QuestionCorpus corpus = current.get();
+        if ((type != null ? corpus.size(type) : corpus.size()) == 0) {
+            corpus = builtIn;
+        }
+        
+        int id = -1;
+        for (int attempt = 0; attempt < MAX_DRAWS; attempt++) {
+            id = corpus.randomId(type);
+            // Marks the id when it is new, so the returned question is always recorded
+            if (deck == null || deck.markCorpusQuestion(corpus.getGeneration(), id)) {
+                break;
+            }
+        }
+        return new QuestionCorpus.Entry(corpus.type(id), corpus.category(id), corpus.text(id));
+    }
+    
+    /**
+     * Check the corpus file and reload it if it changed
+     */
+    @Scheduled(fixedDelayString = "${questions.corpus.reload-check-ms:30000}")
+    public void reloadIfChanged() {
+        if (corpusPath == null) {
+            return;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(corpusPath, BasicFileAttributes.class);
+            if (attributes.lastModifiedTime().toMillis() != loadedModifiedMillis || attributes.size() != loadedSize) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.debug("Question corpus {} not readable: {}", corpusPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Load the corpus file and swap it in; the previous corpus stays in use on failure
+     * @return true if a new corpus was loaded
+     */
+    public synchronized boolean reload() {
+        if (corpusPath == null) {
+            return false;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(corpusPath, BasicFileAttributes.class);
+            QuestionCorpus corpus = QuestionCorpus.open(corpusPath);
+            current.set(corpus);
+            loadedModifiedMillis = attributes.lastModifiedTime().toMillis();
+            loadedSize = attributes.size();
+            log.info("Loaded question corpus {} ({} questions, {} categories)",
+                    corpusPath, corpus.size(), corpus.getCategories().size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load question corpus {}, keeping current corpus: {}", corpusPath, e.getMessage());
+            return false;
+        }
+    }
+
+    private static List<QuestionCorpus.Entry> builtInEntries() {
+        List<QuestionCorpus.Entry> entries = new ArrayList<>();
+        BUILT_IN_TRUTH_QUESTIONS.forEach(text ->
+                entries.add(new QuestionCorpus.Entry(QuestionType.TRUTH, BUILT_IN_CATEGORY, text)));
+        BUILT_IN_DARE_QUESTIONS.forEach(text ->
+                entries.add(new QuestionCorpus.Entry(QuestionType.DARE, BUILT_IN_CATEGORY, text)));
+        return entries;
+    }
+}
@@ -0,0 +1,178 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.client.TruthDareApiClient;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.QuestionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffer of ready-to-serve external API questions.
+ * Questions are kept per upstream type ("truth", "dare", "random") and the buffer
+ * is refilled in the background whenever it drops to the low watermark, so the
+ * request path only has to poll a queue.
+ */
+@Slf4j
+@Component
+public class QuestionPrefetchBuffer {
+
+    private final TruthDareApiClient apiClient;
+    private final boolean enabled;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final int refillConcurrency;
+    private final long failureBackoffNanos;
+
+    // Upstream type -> buffered questions
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public QuestionPrefetchBuffer(TruthDareApiClient apiClient,
+                                  @Value("${questions.prefetch.enabled:true}") boolean enabled,
+                                  @Value("${questions.prefetch.low-watermark:4}") int lowWatermark,
+                                  @Value("${questions.prefetch.high-watermark:16}") int highWatermark,
+                                  @Value("${questions.prefetch.refill-concurrency:4}") int refillConcurrency,
+                                  @Value("${questions.prefetch.failure-backoff-ms:5000}") long failureBackoffMs) {
+        if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+            throw new IllegalArgumentException("questions.prefetch.high-watermark must be greater than low-watermark");
+        }
+        this.apiClient = apiClient;
+        this.enabled = enabled;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.refillConcurrency = Math.max(1, refillConcurrency);
+        this.failureBackoffNanos = TimeUnit.MILLISECONDS.toNanos(failureBackoffMs);
+    }
+
+    /**
+     * Take a buffered question without blocking
+     * @param gameMode The current game mode
+     * @param preferredType Preferred question type (can be null for random)
+     * @return Question text, or null if the buffer is empty
+     */
+    public String poll(GameMode gameMode, QuestionType preferredType) {
+        if (!enabled) {
+            return null;
+        }
+
+        Bucket bucket = buckets.computeIfAbsent(
+                TruthDareApiClient.resolveApiType(gameMode, preferredType), Bucket::new);
+
+        String question = bucket.queue.poll();
+        if (question != null) {
+            bucket.depth.decrementAndGet();
+            bucket.hits.incrementAndGet();
+        } else {
+            bucket.misses.incrementAndGet();
+        }
+
+        if (bucket.depth.get() <= lowWatermark) {
+            refill(bucket);
+        }
+
+        return question;
+    }
+
+    /**
+     * Top the bucket up to the high watermark in the background
+     */
+    private void refill(Bucket bucket) {
+        if (System.nanoTime() - bucket.retryAfterNanos < 0) {
+            return; // Last refill came back empty, give the upstream a break
+        }
+        if (!bucket.refilling.compareAndSet(false, true)) {
+            return; // Refill already in flight
+        }
+
+        int missing = highWatermark - bucket.depth.get();
+        if (missing <= 0) {
+            bucket.refilling.set(false);
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger fetched = new AtomicInteger();
+        Flux.range(0, missing)
+                .flatMap(i -> apiClient.fetchQuestionOfType(bucket.apiType)
+                        .onErrorResume(e -> Mono.empty()), refillConcurrency)
+                .doOnNext(question -> {
+                    bucket.queue.offer(question);
+                    bucket.depth.incrementAndGet();
+                    fetched.incrementAndGet();
+                })
+                .doFinally(signal -> {
+                    long elapsed = System.nanoTime() - start;
+                    bucket.lastRefillNanos = elapsed;
+                    bucket.totalRefillNanos.addAndGet(elapsed);
+                    bucket.refills.incrementAndGet();
+                    if (fetched.get() == 0) {
+                        bucket.retryAfterNanos = System.nanoTime() + failureBackoffNanos;
+                    }
+                    bucket.refilling.set(false);
+                    log.debug("Refilled {} question buffer with {} of {} questions in {} ms",
+                            bucket.apiType, fetched.get(), missing, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                })
+                .subscribe(null, e -> log.warn("Question buffer refill failed for {}: {}", bucket.apiType, e.getMessage()));
+    }
+
+    /**
+     * Current buffer depth for an upstream type
+     */
+    public int getDepth(String apiType) {
+        Bucket bucket = buckets.get(apiType);
+        return bucket != null ? bucket.depth.get() : 0;
+    }
+
+    /**
+     * Buffer depth and refill latency per upstream type
+     */
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        buckets.values().forEach(bucket -> {
+            long refills = bucket.refills.get();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("type", bucket.apiType);
+            entry.put("depth", bucket.depth.get());
+            entry.put("hits", bucket.hits.get());
+            entry.put("misses", bucket.misses.get());
+            entry.put("refills", refills);
+            entry.put("lastRefillMs", TimeUnit.NANOSECONDS.toMillis(bucket.lastRefillNanos));
+            entry.put("avgRefillMs", refills > 0
+                    ? TimeUnit.NANOSECONDS.toMillis(bucket.totalRefillNanos.get() / refills)
+                    : 0);
+            stats.add(entry);
+        });
+        return stats;
+    }
+
+    // Buffered questions and counters for one upstream type
+    private static class Bucket {
+        private final String apiType;
+        private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong refills = new AtomicLong();
+        private final AtomicLong totalRefillNanos = new AtomicLong();
+        private volatile long lastRefillNanos;
+        private volatile long retryAfterNanos = System.nanoTime();
+
+        private Bucket(String apiType) {
+            this.apiType = apiType;
+        }
+    }
+}
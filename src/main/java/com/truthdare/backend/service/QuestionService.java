@@ -1,22 +1,26 @@
 package com.truthdare.backend.service;
 
 import com.truthdare.backend.client.TruthDareApiClient;
+import com.truthdare.backend.jfr.QuestionStageEvent;
 import com.truthdare.backend.model.GameMode;
 import com.truthdare.backend.model.Question;
+import com.truthdare.backend.model.QuestionDeck;
 import com.truthdare.backend.model.QuestionType;
 import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomSnapshot;
+import com.truthdare.backend.util.QuestionCorpus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service for managing questions with priority strategy:
  * 1. Admin injected question (highest priority)
- * 2. External API question
+ * 2. External API question (prefetched if available)
  * 3. Local fallback question
  */
 @Slf4j
@@ -24,37 +28,36 @@ import java.util.Random;
 public class QuestionService {
     
     private final TruthDareApiClient apiClient;
-    private final Random random = new Random();
+    private final QuestionPrefetchBuffer prefetchBuffer;
+    private final LocalQuestionCorpus localCorpus;
     
-    // Local fallback questions
-    private static final List<String> FALLBACK_TRUTH_QUESTIONS = Arrays.asList(
-            "What's the most embarrassing thing that's ever happened to you?",
-            "What's a secret you've never told anyone?",
-            "Who was your first crush?",
-            "What's your biggest fear?",
-            "What's the worst lie you've ever told?",
-            "What's something you're ashamed of?",
-            "Who do you have a crush on right now?",
-            "What's the most trouble you've ever gotten into?",
-            "What's one thing you wish you could change about yourself?",
-            "What's your guilty pleasure?"
-    );
+    // Questions served per source (truthdare.questions.served{source=...})
+    private final Counter adminQuestions;
+    private final Counter prefetchedQuestions;
+    private final Counter apiQuestions;
+    private final Counter fallbackQuestions;
     
-    private static final List<String> FALLBACK_DARE_QUESTIONS = Arrays.asList(
-            "Do your best impression of someone in the room",
-            "Call your ex and tell them you miss them",
-            "Eat a spoonful of a condiment of the group's choice",
-            "Let someone go through your phone for 1 minute",
-            "Do 20 push-ups",
-            "Sing a song chosen by the group",
-            "Dance with no music for 1 minute",
-            "Let the group post a status on your social media",
-            "Text someone you haven't talked to in a year",
-            "Do your best celebrity impression"
-    );
+    // Prefetched questions to discard as repeats before going to the API
+    private static final int MAX_PREFETCH_POLLS = 3;
     
-    public QuestionService(TruthDareApiClient apiClient) {
+    public QuestionService(TruthDareApiClient apiClient,
+                           QuestionPrefetchBuffer prefetchBuffer,
+                           LocalQuestionCorpus localCorpus,
+                           MeterRegistry meterRegistry) {
         this.apiClient = apiClient;
+        this.prefetchBuffer = prefetchBuffer;
+        this.localCorpus = localCorpus;
+        this.adminQuestions = servedCounter(meterRegistry, "admin");
+        this.prefetchedQuestions = servedCounter(meterRegistry, "prefetch");
+        this.apiQuestions = servedCounter(meterRegistry, "api");
+        this.fallbackQuestions = servedCounter(meterRegistry, "fallback");
+    }
+    
+    private static Counter servedCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("truthdare.questions.served")
+                .description("Questions served, by source")
+                .tag("source", source)
+                .register(meterRegistry);
     }
     
     /**
@@ -64,68 +67,116 @@ public class QuestionService {
      * @return A Mono containing the question
      */
     public Mono<Question> getNextQuestion(Room room, QuestionType preferredType) {
-        String currentPlayerId = room.getCurrentPlayer() != null 
-                ? room.getCurrentPlayer().getPlayerId() 
+        RoomSnapshot state = room.getSnapshot();
+        String roomCode = room.getRoomCode();
+        String currentPlayerId = state.currentPlayer() != null 
+                ? state.currentPlayer().getPlayerId() 
                 : null;
         
-        // Priority 1: Check for admin-injected question
-        Question adminQuestion = room.pollAdminQuestion();
+        // Priority 1: Check for an admin-injected question for this player (or anyone)
+        QuestionStageEvent adminPoll = QuestionStageEvent.start(QuestionStageEvent.ADMIN_POLL, roomCode);
+        Question adminQuestion = room.pollAdminQuestion(currentPlayerId);
+        adminPoll.finish(adminQuestion != null ? "hit" : "miss");
         if (adminQuestion != null) {
-            // Update player ID if needed
+            // Target the current player if needed (on a copy; the original may be in a published snapshot)
             if (adminQuestion.getPlayerId() == null && currentPlayerId != null) {
-                adminQuestion.setPlayerId(currentPlayerId);
+                adminQuestion = new Question(adminQuestion.getQuestionId(), adminQuestion.getText(),
+                        adminQuestion.getType(), currentPlayerId, true);
             }
-            log.debug("Using admin-injected question for room {}", room.getRoomCode());
+            log.debug("Using admin-injected question for room {}", roomCode);
+            adminQuestions.increment();
             return Mono.just(adminQuestion);
         }
         
-        // Priority 2: Try external API
-        Mono<String> apiQuestionMono = apiClient.getQuestionForGameMode(room.getGameMode(), preferredType)
-                .doOnSuccess(q -> log.debug("Fetched question from external API"))
+        // Priority 2: Try external API, served from the prefetch buffer when possible
+        // Questions this room has already seen are skipped and re-drawn
+        QuestionDeck deck = room.getQuestionDeck();
+        QuestionStageEvent prefetchPoll = QuestionStageEvent.start(QuestionStageEvent.PREFETCH_POLL, roomCode);
+        String prefetched = pollUnseenPrefetched(state.gameMode(), preferredType, deck);
+        prefetchPoll.finish(prefetched != null ? "hit" : "miss");
+        Mono<String> apiQuestionMono = (prefetched != null
+                ? Mono.just(prefetched)
+                : recordApiCall(roomCode, apiClient.getQuestionForGameMode(state.gameMode(), preferredType).filter(deck::markApiQuestion)))
+                .doOnSuccess(q -> {
+                    if (q != null) {
+                        (prefetched != null ? prefetchedQuestions : apiQuestions).increment();
+                        log.debug("Fetched question from external API");
+                    }
+                })
                 .onErrorResume(e -> {
                     log.warn("External API failed, falling back to local questions: {}", e.getMessage());
                     return Mono.empty();
                 });
         
-        // Priority 3: Fallback to local questions if API fails
+        // Priority 3: Fallback to local questions if API fails (or only had repeats)
         Mono<Question> questionMono = apiQuestionMono
-                .switchIfEmpty(Mono.fromCallable(() -> getFallbackQuestion(room.getGameMode(), preferredType)))
                 .map(text -> {
-                    QuestionType type = determineQuestionType(room.getGameMode(), preferredType, text);
+                    QuestionStageEvent classify = QuestionStageEvent.start(QuestionStageEvent.CLASSIFY, roomCode);
+                    QuestionType type = determineQuestionType(state.gameMode(), preferredType, text);
+                    classify.finish(type.name());
                     Question question = new Question(text, type, currentPlayerId, false);
                     return question;
-                });
+                })
+                .switchIfEmpty(Mono.fromCallable(() -> getFallbackQuestion(roomCode, state.gameMode(), preferredType, deck, currentPlayerId)));
         
         return questionMono;
     }
     
     /**
-     * Get a fallback question from local pool
+     * Time an upstream call as the API call stage (from subscription to its outcome)
+     */
+    private static Mono<String> recordApiCall(String roomCode, Mono<String> call) {
+        return Mono.defer(() -> {
+            QuestionStageEvent event = QuestionStageEvent.start(QuestionStageEvent.API_CALL, roomCode);
+            return call.doOnSuccess(text -> event.finish(text != null ? "success" : "empty"))
+                    .doOnError(e -> event.finish("error"))
+                    .doOnCancel(() -> event.finish("cancel"));
+        });
+    }
+    
+    /**
+     * Poll the prefetch buffer until it yields a question the room hasn't seen
+     * @return Question text, or null if the buffer has nothing new
+     */
+    private String pollUnseenPrefetched(GameMode gameMode, QuestionType preferredType, QuestionDeck deck) {
+        for (int attempt = 0; attempt < MAX_PREFETCH_POLLS; attempt++) {
+            String text = prefetchBuffer.poll(gameMode, preferredType);
+            if (text == null) {
+                return null;
+            }
+            if (deck.markApiQuestion(text)) {
+                return text;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get a fallback question from the local corpus
+     * The corpus knows each question's type, so no text inference is needed
      */
-    private String getFallbackQuestion(GameMode gameMode, QuestionType preferredType) {
+    private Question getFallbackQuestion(String roomCode, GameMode gameMode, QuestionType preferredType,
+                                         QuestionDeck deck, String currentPlayerId) {
+        QuestionType type;
         if (gameMode == GameMode.TRUTH_ONLY) {
-            return FALLBACK_TRUTH_QUESTIONS.get(random.nextInt(FALLBACK_TRUTH_QUESTIONS.size()));
+            type = QuestionType.TRUTH;
         } else if (gameMode == GameMode.DARE_ONLY) {
-            return FALLBACK_DARE_QUESTIONS.get(random.nextInt(FALLBACK_DARE_QUESTIONS.size()));
+            type = QuestionType.DARE;
         } else {
-            // TRUTH_AND_DARE mode
-            if (preferredType == QuestionType.TRUTH) {
-                return FALLBACK_TRUTH_QUESTIONS.get(random.nextInt(FALLBACK_TRUTH_QUESTIONS.size()));
-            } else if (preferredType == QuestionType.DARE) {
-                return FALLBACK_DARE_QUESTIONS.get(random.nextInt(FALLBACK_DARE_QUESTIONS.size()));
-            } else {
-                // Random
-                boolean isTruth = random.nextBoolean();
-                List<String> questions = isTruth ? FALLBACK_TRUTH_QUESTIONS : FALLBACK_DARE_QUESTIONS;
-                return questions.get(random.nextInt(questions.size()));
-            }
+            // TRUTH_AND_DARE mode - null picks from either type
+            type = preferredType;
         }
+        QuestionStageEvent fallback = QuestionStageEvent.start(QuestionStageEvent.FALLBACK, roomCode);
+        QuestionCorpus.Entry entry = localCorpus.draw(type, deck);
+        fallback.finish(entry.type().name());
+        fallbackQuestions.increment();
+        return new Question(entry.text(), entry.type(), currentPlayerId, false);
     }
     
     /**
      * Determine question type based on game mode and context
      */
-    private QuestionType determineQuestionType(GameMode gameMode, QuestionType preferredType, String questionText) {
+    static QuestionType determineQuestionType(GameMode gameMode, QuestionType preferredType, String questionText) {
         if (gameMode == GameMode.TRUTH_ONLY) {
             return QuestionType.TRUTH;
         } else if (gameMode == GameMode.DARE_ONLY) {
@@ -141,7 +192,7 @@ public class QuestionService {
                 return preferredType;
             } else {
                 // Default to random
-                return random.nextBoolean() ? QuestionType.TRUTH : QuestionType.DARE;
+                return ThreadLocalRandom.current().nextBoolean() ? QuestionType.TRUTH : QuestionType.DARE;
             }
         }
     }
@@ -0,0 +1,22 @@
+package com.truthdare.backend.service;
+
+/**
+ * A per-room quota (players, queued admin questions) would be exceeded
+ * Reported to clients as 429 Too Many Requests.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    private final String quota;
+
+    public QuotaExceededException(String quota, String message) {
+        super(message);
+        this.quota = quota;
+    }
+
+    /**
+     * Name of the quota, used as the metric tag
+     */
+    public String getQuota() {
+        return quota;
+    }
+}
\ No newline at end of file
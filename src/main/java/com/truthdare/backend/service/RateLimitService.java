@@ -0,0 +1,164 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.util.StripedRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket limits on inbound API calls, per client IP, per room and per endpoint.
+ * IP and room budgets live in striped lock-free buckets (fixed memory whatever the
+ * number of keys). Endpoint budgets are node-wide caps on the calls that cost the most:
+ * creating rooms, joining, and asking for a question (which may call the external API).
+ * Rooms created in bulk draw on their own node-wide budget, one permit per room.
+ * Rejections, including quota rejections reported by the controllers, are counted in
+ * truthdare.requests.rejected.
+ */
+@Service
+public class RateLimitService {
+
+    public static final String ENDPOINT_CREATE_ROOM = "create-room";
+    public static final String ENDPOINT_JOIN = "join";
+    public static final String ENDPOINT_QUESTION = "question";
+    public static final String ENDPOINT_BULK_ROOMS = "bulk-rooms";
+    public static final String ENDPOINT_OTHER = "other";
+
+    private final boolean enabled;
+    private final StripedRateLimiter ipLimiter;
+    private final StripedRateLimiter roomLimiter;
+    private final Map<String, StripedRateLimiter> endpointLimiters;
+    private final StripedRateLimiter bulkRoomsLimiter;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong quotaRejected = new AtomicLong();
+
+    public RateLimitService(@Value("${rate-limit.enabled:true}") boolean enabled,
+                            @Value("${rate-limit.stripes:16384}") int stripes,
+                            @Value("${rate-limit.ip.per-second:20}") double ipRate,
+                            @Value("${rate-limit.ip.burst:40}") int ipBurst,
+                            @Value("${rate-limit.room.per-second:10}") double roomRate,
+                            @Value("${rate-limit.room.burst:30}") int roomBurst,
+                            @Value("${rate-limit.endpoint.create-room.per-second:50}") double createRate,
+                            @Value("${rate-limit.endpoint.join.per-second:200}") double joinRate,
+                            @Value("${rate-limit.endpoint.question.per-second:200}") double questionRate,
+                            @Value("${rate-limit.endpoint.bulk-rooms.per-second:50}") double bulkRoomsRate,
+                            @Value("${rooms.bulk.max-rooms:500}") int bulkMaxRooms,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ipLimiter = new StripedRateLimiter(ipRate, ipBurst, stripes);
+        this.roomLimiter = new StripedRateLimiter(roomRate, roomBurst, stripes);
+        // Node-wide: one bucket each, allowing a second's worth at once
+        this.endpointLimiters = Map.of(
+                ENDPOINT_CREATE_ROOM, new StripedRateLimiter(createRate, (int) Math.ceil(createRate), 1),
+                ENDPOINT_JOIN, new StripedRateLimiter(joinRate, (int) Math.ceil(joinRate), 1),
+                ENDPOINT_QUESTION, new StripedRateLimiter(questionRate, (int) Math.ceil(questionRate), 1));
+        // A whole batch at once when idle, then rooms at the sustained rate
+        this.bulkRoomsLimiter = new StripedRateLimiter(bulkRoomsRate, bulkMaxRooms, 1);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Take a permit from each budget that applies to a call
+     * @param clientIp caller's address, or null to skip the IP budget (a call forwarded
+     *                 by another node, which already charged it)
+     * @param roomCode room the call is about, or null
+     * @param endpoint one of the ENDPOINT_ names
+     * @return null if the call may proceed, otherwise which budget ran out and when to retry
+     */
+    public Rejection tryAcquire(String clientIp, String roomCode, String endpoint) {
+        if (!enabled) {
+            return null;
+        }
+        if (clientIp != null) {
+            long wait = ipLimiter.tryAcquire(clientIp);
+            if (wait > 0) {
+                return reject("ip", endpoint, wait);
+            }
+        }
+        if (roomCode != null) {
+            long wait = roomLimiter.tryAcquire(roomCode);
+            if (wait > 0) {
+                return reject("room", endpoint, wait);
+            }
+        }
+        // Node-wide budgets last, so calls already over their own budget don't use them up for everyone
+        StripedRateLimiter endpointLimiter = endpointLimiters.get(endpoint);
+        if (endpointLimiter != null) {
+            long wait = endpointLimiter.tryAcquire(endpoint);
+            if (wait > 0) {
+                return reject("endpoint", endpoint, wait);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Take one permit per room from the bulk budget (all or none)
+     * @param count rooms about to be created, at most rooms.bulk.max-rooms
+     * @return null if they may be created, otherwise when to retry
+     */
+    public Rejection tryAcquireRooms(int count) {
+        if (!enabled) {
+            return null;
+        }
+        long wait = bulkRoomsLimiter.tryAcquire(ENDPOINT_BULK_ROOMS, count);
+        return wait > 0 ? reject("endpoint", ENDPOINT_BULK_ROOMS, wait) : null;
+    }
+
+    private Rejection reject(String scope, String endpoint, long waitNanos) {
+        rejected.incrementAndGet();
+        rejectionCounter("rate-limit-" + scope, endpoint).increment();
+        return new Rejection(scope, waitNanos);
+    }
+
+    /**
+     * Count a call refused because a room quota was full
+     */
+    public void recordQuotaRejection(QuotaExceededException e, String endpoint) {
+        quotaRejected.incrementAndGet();
+        rejectionCounter("quota-" + e.getQuota(), endpoint).increment();
+    }
+
+    /**
+     * The registry hands back the existing counter after the first call for a tag pair
+     */
+    private Counter rejectionCounter(String reason, String endpoint) {
+        return Counter.builder("truthdare.requests.rejected")
+                .description("API calls refused with 429, by reason")
+                .tag("reason", reason)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("stripes", ipLimiter.getStripeCount());
+        stats.put("rejected", rejected.get());
+        stats.put("quotaRejected", quotaRejected.get());
+        return stats;
+    }
+
+    /**
+     * Budget that ran out (ip, room or endpoint) and the time until a permit is free
+     */
+    public record Rejection(String scope, long retryAfterNanos) {
+
+        /**
+         * Whole seconds for a Retry-After header (at least 1)
+         */
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.truthdare.backend.service;
+
+/**
+ * A rate limit checked by a service (rather than RateLimitFilter) refused the call
+ * Reported to clients as 429 Too Many Requests with Retry-After.
+ */
+public class RateLimitedException extends RuntimeException {
+
+    private final RateLimitService.Rejection rejection;
+
+    public RateLimitedException(RateLimitService.Rejection rejection) {
+        super("Rate limit exceeded (" + rejection.scope() + ")");
+        this.rejection = rejection;
+    }
+
+    public RateLimitService.Rejection getRejection() {
+        return rejection;
+    }
+}
\ No newline at end of file
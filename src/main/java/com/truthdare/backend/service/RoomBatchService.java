@@ -0,0 +1,191 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.util.RoomCodeGenerator;
+import com.truthdare.backend.websocket.WebSocketService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Rooms provisioned together (events, classrooms) and operations on all of them.
+ * A batch lives on the node that created it; its token, handed out once at creation,
+ * authorizes starting or closing every room in it. Batches whose rooms are all gone
+ * are forgotten when the next batch is created.
+ */
+@Slf4j
+@Service
+public class RoomBatchService {
+    
+    public static final String REASON_BATCH_CLOSED = "BATCH_CLOSED";
+    
+    private final RoomService roomService;
+    private final GameService gameService;
+    private final WebSocketService webSocketService;
+    private final RateLimitService rateLimitService;
+    private final int maxRooms;
+    
+    private final Map<String, RoomBatch> batches = new ConcurrentHashMap<>();
+    
+    public RoomBatchService(RoomService roomService,
+                            GameService gameService,
+                            WebSocketService webSocketService,
+                            RateLimitService rateLimitService,
+                            @Value("${rooms.bulk.max-rooms:500}") int maxRooms) {
+        this.roomService = roomService;
+        this.gameService = gameService;
+        this.webSocketService = webSocketService;
+        this.rateLimitService = rateLimitService;
+        this.maxRooms = maxRooms;
+    }
+    
+    /**
+     * Register a new, empty batch for count rooms, charging them to the bulk rooms budget
+     * @throws RateLimitedException if that budget can't cover them yet
+     */
+    public RoomBatch newBatch(int count) {
+        if (count < 1 || count > maxRooms) {
+            throw new IllegalArgumentException("A batch holds 1 to " + maxRooms + " rooms");
+        }
+        RateLimitService.Rejection rejection = rateLimitService.tryAcquireRooms(count);
+        if (rejection != null) {
+            throw new RateLimitedException(rejection);
+        }
+        batches.values().removeIf(batch -> batch.complete
+                && batch.roomIds.stream().allMatch(roomId -> roomService.getRoomById(roomId) == null));
+        RoomBatch batch = new RoomBatch(UUID.randomUUID().toString(), RoomCodeGenerator.generateAdminToken(), count);
+        batches.put(batch.batchId, batch);
+        return batch;
+    }
+    
+    /**
+     * Create the batch's rooms, passing each chunk on as soon as it is durable
+     */
+    public int createRooms(RoomBatch batch, GameMode gameMode, String adminName, Consumer<List<Room>> onChunk) {
+        try {
+            return roomService.createRooms(batch.count, gameMode, adminName, chunk -> {
+                batch.roomIds.addAll(chunk.stream().map(Room::getRoomId).toList());
+                onChunk.accept(chunk);
+            });
+        } finally {
+            batch.complete = true;
+        }
+    }
+    
+    /**
+     * Start the game in every room of a batch that has enough players
+     * @return counts of rooms started, skipped (too few players or already started) and gone
+     */
+    public Map<String, Object> startAll(String batchId, String batchToken) {
+        RoomBatch batch = getBatch(batchId, batchToken);
+        int started = 0;
+        int skipped = 0;
+        int missing = 0;
+        for (String roomId : batch.roomIds) {
+            Room room = roomService.getRoomById(roomId);
+            if (room == null) {
+                missing++;
+                continue;
+            }
+            try {
+                if (gameService.startGame(roomId, room.getAdminToken())) {
+                    webSocketService.notifyGameStarted(room.getRoomCode());
+                    started++;
+                } else {
+                    skipped++;
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                skipped++; // Not enough players, or closed meanwhile
+            }
+        }
+        log.info("Started {} of {} rooms in batch {}", started, batch.roomIds.size(), batchId);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("started", started);
+        result.put("skipped", skipped);
+        result.put("missing", missing);
+        return result;
+    }
+    
+    /**
+     * Close every room of a batch and forget the batch
+     * @return counts of rooms closed and already gone
+     */
+    public Map<String, Object> closeAll(String batchId, String batchToken) {
+        RoomBatch batch = getBatch(batchId, batchToken);
+        int closed = 0;
+        int missing = 0;
+        for (String roomId : batch.roomIds) {
+            Room room = roomService.getRoomById(roomId);
+            if (room == null) {
+                missing++;
+                continue;
+            }
+            // Only sent if someone is subscribed (see RoomBroadcastBatcher)
+            webSocketService.notifyRoomClosed(room.getRoomCode(), REASON_BATCH_CLOSED);
+            if (roomService.removeRoom(room)) {
+                closed++;
+            } else {
+                missing++;
+            }
+        }
+        if (batch.complete) {
+            batches.remove(batchId, batch);
+        }
+        log.info("Closed {} of {} rooms in batch {}", closed, batch.roomIds.size(), batchId);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("closed", closed);
+        result.put("missing", missing);
+        return result;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the batch isn't known here
+     * @throws SecurityException if the token doesn't match
+     */
+    private RoomBatch getBatch(String batchId, String batchToken) {
+        RoomBatch batch = batches.get(batchId);
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch not found");
+        }
+        if (!batch.token.equals(batchToken)) {
+            throw new SecurityException("Invalid batch token");
+        }
+        return batch;
+    }
+    
+    /**
+     * A batch's identity, credentials and the IDs of the rooms created for it so far
+     */
+    public static final class RoomBatch {
+        private final String batchId;
+        private final String token;
+        private final int count;
+        private final List<String> roomIds = new CopyOnWriteArrayList<>();
+        private volatile boolean complete;
+        
+        private RoomBatch(String batchId, String token, int count) {
+            this.batchId = batchId;
+            this.token = token;
+            this.count = count;
+        }
+        
+        public String getBatchId() {
+            return batchId;
+        }
+        
+        public String getToken() {
+            return token;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.Room;
+
+/**
+ * Published by RoomService after a room has been created and stored (or adopted from another node)
+ */
+public record RoomCreatedEvent(Room room) {
+}
@@ -0,0 +1,118 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomSnapshot;
+import com.truthdare.backend.model.RoomStatus;
+import com.truthdare.backend.util.HashedTimingWheel;
+import com.truthdare.backend.websocket.WebSocketService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closes rooms that have been idle longer than the TTL for their status.
+ * Each room sits in a hashed timing wheel at its idle deadline. When the deadline
+ * comes up the room's real last activity is checked: active rooms are pushed back
+ * to their new deadline, idle ones are announced to subscribers and removed.
+ */
+@Slf4j
+@Service
+public class RoomEvictionService {
+
+    public static final String REASON_IDLE = "IDLE";
+
+    private final RoomService roomService;
+    private final WebSocketService webSocketService;
+    private final Map<RoomStatus, Duration> idleTtls = new EnumMap<>(RoomStatus.class);
+    private final Map<RoomStatus, AtomicLong> evictions = new EnumMap<>(RoomStatus.class);
+    private final HashedTimingWheel<Room> wheel;
+
+    public RoomEvictionService(RoomService roomService,
+                               WebSocketService webSocketService,
+                               @Value("${rooms.idle-ttl.waiting:30m}") Duration waitingTtl,
+                               @Value("${rooms.idle-ttl.active:2h}") Duration activeTtl,
+                               @Value("${rooms.eviction.tick-ms:1000}") long tickMillis,
+                               @Value("${rooms.eviction.wheel-size:512}") int wheelSize) {
+        this.roomService = roomService;
+        this.webSocketService = webSocketService;
+        this.idleTtls.put(RoomStatus.WAITING, waitingTtl);
+        this.idleTtls.put(RoomStatus.ACTIVE, activeTtl);
+        for (RoomStatus status : RoomStatus.values()) {
+            evictions.put(status, new AtomicLong());
+        }
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onRoomCreated(RoomCreatedEvent event) {
+        Room room = event.room();
+        wheel.schedule(room, idleDeadline(room));
+    }
+
+    /**
+     * Advance the wheel and close rooms whose idle deadline has passed
+     */
+    @Scheduled(fixedDelayString = "${rooms.eviction.tick-ms:1000}")
+    public void evictIdleRooms() {
+        wheel.advance(System.currentTimeMillis(), this::checkRoom);
+    }
+
+    private void checkRoom(Room room) {
+        if (roomService.getRoomById(room.getRoomId()) != room) {
+            return; // Already removed (last player left)
+        }
+
+        long deadline = idleDeadline(room);
+        if (System.currentTimeMillis() < deadline) {
+            wheel.schedule(room, deadline); // Saw activity since it was scheduled
+            return;
+        }
+
+        RoomStatus status = room.getSnapshot().status();
+        try {
+            webSocketService.notifyRoomClosed(room.getRoomCode(), REASON_IDLE);
+        } catch (Exception e) {
+            log.warn("Failed to notify room {} before eviction: {}", room.getRoomCode(), e.getMessage());
+        }
+        if (roomService.removeRoom(room)) {
+            evictions.get(status).incrementAndGet();
+            log.info("Evicted idle {} room {}", status, room.getRoomCode());
+        }
+    }
+
+    private long idleDeadline(Room room) {
+        RoomSnapshot state = room.getSnapshot();
+        long lastActivity = state.lastActivityAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return lastActivity + idleTtls.get(state.status()).toMillis();
+    }
+
+    /**
+     * Total rooms evicted for inactivity
+     */
+    public long getEvictionCount() {
+        return evictions.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    /**
+     * Live room count, quarantined codes, rooms tracked by the wheel and evictions per status
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("liveRooms", roomService.getRoomCount());
+        stats.put("quarantinedCodes", roomService.getQuarantinedCodeCount());
+        stats.put("trackedRooms", wheel.size());
+        Map<String, Long> evicted = new LinkedHashMap<>();
+        evictions.forEach((status, count) -> evicted.put(status.name(), count.get()));
+        stats.put("evicted", evicted);
+        return stats;
+    }
+}
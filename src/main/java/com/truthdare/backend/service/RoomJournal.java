@@ -0,0 +1,247 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.model.RoomEvent;
+import com.truthdare.backend.util.MappedJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Durable record of room state: a write-ahead journal plus periodic snapshots.
+ * Each mutation appends one record holding the event and the room's full state after
+ * it (see RoomStateCodec), so replay is "last record per room wins" and never depends
+ * on re-running game logic. A snapshot holds every live room as of a journal position;
+ * recovery loads the newest snapshot and replays the journal from there, and segments
+ * before a snapshot are deleted once it is written.
+ *
+ * Appends before open() (or with journal.enabled=false) are no-ops returning -1.
+ */
+@Service
+public class RoomJournal {
+
+    private static final int SNAPSHOT_MAGIC = 0x5444534E; // "TDSN"
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private volatile MappedJournal journal;
+
+    public RoomJournal(@Value("${journal.enabled:false}") boolean enabled,
+                       @Value("${journal.dir:data/journal}") String directory,
+                       @Value("${journal.segment-size-mb:64}") int segmentSizeMb,
+                       @Value("${journal.fsync:true}") boolean fsync) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.fsync = fsync;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start appending at nextSeq (after recovery)
+     */
+    public void open(long nextSeq) throws IOException {
+        journal = new MappedJournal(directory, segmentSize, fsync, nextSeq);
+    }
+
+    /**
+     * Record a mutation with the room's resulting state; call on the room's mailbox so
+     * records of one room are in mutation order
+     * @return the record's sequence number, or -1 if not journaling
+     */
+    public long append(RoomEvent event, RoomTransferDto state) {
+        MappedJournal current = journal;
+        if (current == null) {
+            return -1;
+        }
+        return current.append((byte) event.ordinal(), RoomStateCodec.encode(state));
+    }
+
+    /**
+     * Record that a room is gone
+     */
+    public long appendClosed(String roomId) {
+        MappedJournal current = journal;
+        if (current == null) {
+            return -1;
+        }
+        return current.append((byte) RoomEvent.CLOSED.ordinal(), roomId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Completes once the record is on disk (group commit)
+     */
+    public CompletableFuture<Void> whenDurable(long seq) {
+        MappedJournal current = journal;
+        if (current == null || seq < 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return current.whenDurable(seq);
+    }
+
+    /**
+     * Start a new segment for a snapshot to be taken at
+     * @return the first sequence number not covered by older segments
+     */
+    public long roll() {
+        return journal.roll();
+    }
+
+    /**
+     * Write a snapshot of rooms as of journal position seq, then drop what it supersedes
+     */
+    public void writeSnapshot(long seq, Collection<RoomTransferDto> rooms) throws IOException {
+        Files.createDirectories(directory);
+        Path target = snapshotPath(seq);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT);
+            out.writeLong(seq);
+            out.writeInt(rooms.size());
+            for (RoomTransferDto room : rooms) {
+                RoomStateCodec.write(out, room);
+            }
+            out.writeLong(crc.getValue()); // Not part of its own checksum: read back before the CRC is taken
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Path older : snapshots()) {
+            if (snapshotSeq(older) < seq) {
+                Files.deleteIfExists(older);
+            }
+        }
+        journal.deleteSegmentsBefore(seq);
+    }
+
+    /**
+     * Load the newest snapshot
+     * @return the journal position it was taken at (1 if there is none)
+     */
+    public long readSnapshot(Consumer<RoomTransferDto> consumer) throws IOException {
+        List<Path> snapshots = snapshots();
+        if (snapshots.isEmpty()) {
+            return 1;
+        }
+        Path newest = snapshots.get(snapshots.size() - 1);
+        try (InputStream file = Files.newInputStream(newest)) {
+            CRC32C crc = new CRC32C();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(file, 1 << 16), crc));
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_FORMAT) {
+                throw new IOException("Not a room snapshot: " + newest);
+            }
+            long seq = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                consumer.accept(RoomStateCodec.read(in));
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + newest);
+            }
+            return seq;
+        }
+    }
+
+    /**
+     * Replay journal records from seq on
+     * @return the last valid sequence number (fromSeq - 1 if there are none)
+     */
+    public long replay(long fromSeq, Consumer<Entry> consumer) throws IOException {
+        RoomEvent[] events = RoomEvent.values();
+        return MappedJournal.replay(directory, fromSeq, (seq, type, payload) -> {
+            RoomEvent event = events[type];
+            if (event == RoomEvent.CLOSED) {
+                consumer.accept(new Entry(event, new String(payload, StandardCharsets.UTF_8), null));
+            } else {
+                RoomTransferDto state = RoomStateCodec.decode(payload);
+                consumer.accept(new Entry(event, state.getRoomId(), state));
+            }
+        });
+    }
+
+    public void close() {
+        MappedJournal current = journal;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        MappedJournal current = journal;
+        if (current != null) {
+            stats.put("lastSeq", current.getLastSeq());
+            stats.put("records", current.getRecordCount());
+            stats.put("bytes", current.getByteCount());
+            stats.put("syncs", current.getSyncCount());
+        }
+        return stats;
+    }
+
+    private List<Path> snapshots() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(RoomJournal::snapshotSeq))
+                    .toList();
+        }
+    }
+
+    private Path snapshotPath(long seq) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX));
+    }
+
+    private static long snapshotSeq(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    /**
+     * One replayed record; state is null for CLOSED
+     */
+    public record Entry(RoomEvent event, String roomId, RoomTransferDto state) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.websocket.WebSocketService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands rooms over to their new owner after a cluster membership change.
+ * Each room is exported and sent from its own mailbox, so no mutation can slip in
+ * between the copy and the local removal; mutations queued behind the handover find
+ * the room gone and the request is routed to the new owner.
+ * Served-question history (the room's QuestionDeck) is not carried over.
+ */
+@Slf4j
+@Service
+public class RoomMigrationService {
+
+    public static final String ROOMS_PATH = "/internal/cluster/rooms";
+
+    private final RoomService roomService;
+    private final ClusterService clusterService;
+    private final WebSocketService webSocketService;
+    private final WebClient webClient;
+    private final Duration transferTimeout;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cluster-rebalance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean rebalancing = new AtomicBoolean();
+    private final AtomicLong roomsSent = new AtomicLong();
+    private final AtomicLong roomsReceived = new AtomicLong();
+    private final AtomicLong transferFailures = new AtomicLong();
+
+    public RoomMigrationService(RoomService roomService,
+                                ClusterService clusterService,
+                                WebSocketService webSocketService,
+                                @Value("${cluster.secret:}") String secret,
+                                @Value("${cluster.transfer-timeout-ms:5000}") long transferTimeoutMs) {
+        this.roomService = roomService;
+        this.clusterService = clusterService;
+        this.webSocketService = webSocketService;
+        this.transferTimeout = Duration.ofMillis(transferTimeoutMs);
+        this.webClient = WebClient.builder()
+                .defaultHeader(ClusterService.SECRET_HEADER, secret)
+                .build();
+    }
+
+    /**
+     * Start moving rooms this node no longer owns to their owners (in the background)
+     */
+    public void rebalanceAsync() {
+        executor.execute(this::rebalance);
+    }
+
+    private void rebalance() {
+        rebalancing.set(true);
+        try {
+            List<Room> leaving = new ArrayList<>();
+            roomService.forEachRoom(room -> {
+                String owner = clusterService.ownerOf(room.getRoomCode());
+                if (owner != null && !owner.equals(clusterService.getSelf())) {
+                    leaving.add(room);
+                }
+            });
+            log.info("Handing over {} of {} rooms after membership change", leaving.size(), roomService.getRoomCount());
+            for (Room room : leaving) {
+                try {
+                    roomService.mutate(room, this::handOver);
+                } catch (RuntimeException e) {
+                    transferFailures.incrementAndGet();
+                    log.warn("Failed to hand over room {}: {}", room.getRoomCode(), e.getMessage());
+                }
+            }
+        } finally {
+            rebalancing.set(false);
+        }
+    }
+
+    /**
+     * Runs on the room's mailbox: send the room to its owner, then drop the local copy
+     */
+    private Void handOver(Room room) {
+        String owner = clusterService.ownerOf(room.getRoomCode());
+        if (owner == null || owner.equals(clusterService.getSelf()) || roomService.getRoomById(room.getRoomId()) != room) {
+            return null; // Membership changed back, or the room was removed meanwhile
+        }
+        webClient.post()
+                .uri(owner + ROOMS_PATH)
+                .bodyValue(RoomService.exportRoom(room))
+                .retrieve()
+                .toBodilessEntity()
+                .block(transferTimeout);
+        roomService.removeRoom(room);
+        roomsSent.incrementAndGet();
+        log.info("Handed room {} over to {}", room.getRoomCode(), owner);
+        return null;
+    }
+
+    /**
+     * Take over a room sent by its previous owner
+     * @return false if a different room already holds the code here
+     */
+    public boolean accept(RoomTransferDto transfer) {
+        Room room = roomService.importRoom(transfer);
+        if (!roomService.adoptRoom(room)) {
+            Room existing = roomService.getRoomById(transfer.getRoomId());
+            return existing != null; // Same room sent twice (retry after a lost response)
+        }
+        roomsReceived.incrementAndGet();
+        // Subscribers get the full state once from the new owner, continuing the old sequence
+        webSocketService.broadcastRoomState(room.getRoomId());
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rebalancing", rebalancing.get());
+        stats.put("roomsSent", roomsSent.get());
+        stats.put("roomsReceived", roomsReceived.get());
+        stats.put("transferFailures", transferFailures.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
\ No newline at end of file
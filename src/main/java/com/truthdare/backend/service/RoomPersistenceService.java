@@ -0,0 +1,135 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Rebuilds rooms from the journal on startup and keeps snapshots of them.
+ * Recovery loads the newest snapshot, replays the journal tail over it (last record per
+ * room wins, CLOSED drops the room) and stores the result before the web server accepts
+ * requests. A snapshot is written periodically and once more on shutdown, after the web
+ * server has stopped, so a clean restart replays almost nothing.
+ */
+@Slf4j
+@Service
+public class RoomPersistenceService implements SmartLifecycle {
+
+    private final RoomService roomService;
+    private final RoomJournal journal;
+    private volatile boolean running;
+
+    public RoomPersistenceService(RoomService roomService, RoomJournal journal) {
+        this.roomService = roomService;
+        this.journal = journal;
+    }
+
+    @Override
+    public void start() {
+        if (journal.isEnabled()) {
+            try {
+                recover();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Room recovery failed", e);
+            }
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (journal.isEnabled()) {
+            writeSnapshot();
+            journal.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the web server and stops after it
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Write a snapshot of every live room and drop the journal segments it covers
+     */
+    @Scheduled(fixedDelayString = "${journal.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (running && journal.isEnabled()) {
+            writeSnapshot();
+        }
+    }
+
+    private synchronized void writeSnapshot() {
+        long started = System.nanoTime();
+        // Records from here on go to a new segment and are replayed over the snapshot, so
+        // a room changing while it is exported is covered either way
+        long seq = journal.roll();
+        List<Room> live = new ArrayList<>();
+        roomService.forEachRoom(live::add);
+        List<CompletableFuture<RoomTransferDto>> exports = new ArrayList<>(live.size());
+        for (Room room : live) {
+            exports.add(room.submit(RoomService::exportRoom));
+        }
+        List<RoomTransferDto> states = new ArrayList<>(exports.size());
+        for (CompletableFuture<RoomTransferDto> export : exports) {
+            states.add(export.join());
+        }
+        try {
+            journal.writeSnapshot(seq, states);
+            log.info("Wrote snapshot of {} rooms at journal position {} in {} ms",
+                    states.size(), seq, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Failed to write room snapshot at journal position {}", seq, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        long started = System.nanoTime();
+        Map<String, RoomTransferDto> recovered = new HashMap<>();
+        long snapshotSeq = journal.readSnapshot(state -> recovered.put(state.getRoomId(), state));
+        int fromSnapshot = recovered.size();
+
+        long lastSeq = journal.replay(snapshotSeq, entry -> {
+            if (entry.event() == RoomEvent.CLOSED) {
+                recovered.remove(entry.roomId());
+            } else if (entry.event() == RoomEvent.CREATED || entry.event() == RoomEvent.ADOPTED
+                    || recovered.containsKey(entry.roomId())) {
+                // Other records of a room that is already gone belong to a close racing the snapshot
+                recovered.put(entry.roomId(), entry.state());
+            }
+        });
+
+        int restored = 0;
+        for (RoomTransferDto state : recovered.values()) {
+            if (roomService.restoreRoom(roomService.importRoom(state))) {
+                restored++;
+            } else {
+                log.warn("Skipped recovered room {}: code already in use", state.getRoomCode());
+            }
+        }
+        journal.open(lastSeq + 1);
+        log.info("Recovered {} rooms ({} from snapshot, {} journal records) in {} ms",
+                restored, fromSnapshot, lastSeq - snapshotSeq + 1, (System.nanoTime() - started) / 1_000_000);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,256 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.Room;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Room storage keyed by the room code packed into a long (see RoomCodeGenerator.toKey).
+ * Keys are striped over segments; each segment is an open-addressing table of
+ * parallel long/Room arrays guarded by a StampedLock. Lookups are optimistic reads
+ * that only fall back to the read lock if a writer got in the way, so the hot path
+ * takes no lock and allocates nothing. Entries cost one long and one reference
+ * instead of a map node plus a boxed or String key per index.
+ */
+public class RoomRegistry {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    private static final float MAX_LOAD = 0.75f;
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    public RoomRegistry() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Room stored under the key, or null
+     */
+    public Room get(long key) {
+        long hash = mix(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Store the room unless the key is taken
+     * @return null if stored, otherwise the room already holding the key
+     */
+    public Room putIfAbsent(long key, Room room) {
+        long hash = mix(key);
+        return segmentFor(hash).putIfAbsent(key, hash, room);
+    }
+
+    /**
+     * Remove the key only if it still maps to this room
+     * @return true if removed
+     */
+    public boolean remove(long key, Room room) {
+        long hash = mix(key);
+        return segmentFor(hash).remove(key, hash, room);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Visit every room, one segment at a time (weakly consistent across segments)
+     */
+    public void forEach(Consumer<Room> action) {
+        for (Segment segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        // Top bits pick the segment, low bits the slot, so the two stay independent
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    /**
+     * Murmur3 finalizer; sequential codes would otherwise cluster in the table
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Arrays of one table generation; a resize publishes a new instance
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final Room[] values; // null marks an empty slot
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Room[capacity];
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * Linear probe for the key; bounded so a torn optimistic read can't spin forever
+         */
+        private int indexOf(long key, long hash) {
+            int index = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                if (values[index] == null) {
+                    return -1;
+                }
+                if (keys[index] == key) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        private int size;
+
+        Room get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            Room room = find(table, key, hash);
+            if (lock.validate(stamp)) {
+                return room;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Room putIfAbsent(long key, long hash, Room room) {
+            long stamp = lock.writeLock();
+            try {
+                int index = table.indexOf(key, hash);
+                if (index >= 0) {
+                    return table.values[index];
+                }
+                if (size + 1 > table.keys.length * MAX_LOAD) {
+                    resize();
+                }
+                insert(table, key, hash, room);
+                size++;
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(long key, long hash, Room room) {
+            long stamp = lock.writeLock();
+            try {
+                int index = table.indexOf(key, hash);
+                if (index < 0 || table.values[index] != room) {
+                    return false;
+                }
+                deleteAt(table, index);
+                size--;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.tryOptimisticRead();
+            int current = size;
+            if (lock.validate(stamp)) {
+                return current;
+            }
+            stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void forEach(Consumer<Room> action) {
+            Room[] snapshot;
+            long stamp = lock.readLock();
+            try {
+                snapshot = table.values.clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            // Run the action outside the lock so it may call back into the registry
+            for (Room room : snapshot) {
+                if (room != null) {
+                    action.accept(room);
+                }
+            }
+        }
+
+        private static Room find(Table table, long key, long hash) {
+            int index = table.indexOf(key, hash);
+            return index >= 0 ? table.values[index] : null;
+        }
+
+        private void resize() {
+            Table old = table;
+            Table grown = new Table(old.keys.length * 2);
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.values[i] != null) {
+                    insert(grown, old.keys[i], mix(old.keys[i]), old.values[i]);
+                }
+            }
+            table = grown;
+        }
+
+        private static void insert(Table table, long key, long hash, Room room) {
+            int index = (int) hash & table.mask;
+            while (table.values[index] != null) {
+                index = (index + 1) & table.mask;
+            }
+            table.keys[index] = key;
+            table.values[index] = room;
+        }
+
+        /**
+         * Backward-shift deletion: pull later entries of the probe run into the gap so
+         * lookups never need tombstones
+         */
+        private static void deleteAt(Table table, int gap) {
+            int mask = table.mask;
+            int index = gap;
+            while (true) {
+                index = (index + 1) & mask;
+                Room value = table.values[index];
+                if (value == null) {
+                    break;
+                }
+                int home = (int) mix(table.keys[index]) & mask;
+                // The entry can move into the gap unless its home lies cyclically in (gap, index]
+                boolean stays = gap <= index
+                        ? gap < home && home <= index
+                        : gap < home || home <= index;
+                if (!stays) {
+                    table.keys[gap] = table.keys[index];
+                    table.values[gap] = value;
+                    gap = index;
+                }
+            }
+            table.values[gap] = null;
+        }
+    }
+}
\ No newline at end of file
@@ -1,16 +1,32 @@
 package com.truthdare.backend.service;
 
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.jfr.RoomLifecycleEvent;
+import com.truthdare.backend.model.AdminQuestionQueue;
 import com.truthdare.backend.model.GameMode;
 import com.truthdare.backend.model.Player;
 import com.truthdare.backend.model.Role;
 import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomEvent;
+import com.truthdare.backend.model.RoomStatus;
+import com.truthdare.backend.util.RoomCodeAllocator;
 import com.truthdare.backend.util.RoomCodeGenerator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service for managing rooms (in-memory storage)
@@ -19,11 +35,36 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class RoomService {
     
-    // In-memory storage: roomCode -> Room
-    private final Map<String, Room> roomsByCode = new ConcurrentHashMap<>();
+    private static final int MAX_CODE_ATTEMPTS = 100;
+    private static final int BULK_CREATE_CHUNK = 64;
+    private static final char ROOM_ID_SEPARATOR = '-';
     
-    // In-memory storage: roomId -> Room (for quick lookup)
-    private final Map<String, Room> roomsById = new ConcurrentHashMap<>();
+    // In-memory storage: packed roomCode -> Room. Room IDs embed the code, so one index serves both lookups
+    private final RoomRegistry rooms = new RoomRegistry();
+    
+    // Runs what callers chain on a durable mutation, instead of the journal's flush thread
+    private final Executor durableExecutor = ForkJoinPool.commonPool();
+    
+    // Suffix that keeps room IDs unique when a code is reused; seeded from the clock so it also differs across restarts
+    private final AtomicLong roomIdSequence = new AtomicLong(System.currentTimeMillis());
+    
+    private final RoomCodeAllocator codeAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterService clusterService;
+    private final RoomJournal journal;
+    private final int maxPlayers;
+    
+    public RoomService(ApplicationEventPublisher eventPublisher,
+                       ClusterService clusterService,
+                       RoomJournal journal,
+                       @Value("${rooms.code-quarantine:10m}") Duration codeQuarantine,
+                       @Value("${rooms.max-players:20}") int maxPlayers) {
+        this.eventPublisher = eventPublisher;
+        this.clusterService = clusterService;
+        this.journal = journal;
+        this.codeAllocator = new RoomCodeAllocator(codeQuarantine);
+        this.maxPlayers = maxPlayers;
+    }
     
     /**
      * Create a new room
@@ -32,36 +73,75 @@ public class RoomService {
      * @return The created room
      */
     public Room createRoom(GameMode gameMode, String adminName) {
-        String roomCode = generateUniqueRoomCode();
+        RoomLifecycleEvent event = RoomLifecycleEvent.start(RoomLifecycleEvent.CREATE, null);
         String adminToken = RoomCodeGenerator.generateAdminToken();
         
-        Room room = new Room(roomCode, adminToken, gameMode);
-        
         // Create admin player
         Player admin = new Player(UUID.randomUUID().toString(), adminName, Role.ADMIN);
-        room.addPlayer(admin);
         
-        // Store room
-        roomsByCode.put(roomCode, room);
-        roomsById.put(room.getRoomId(), room);
+        // Claim a free code and store the room in one step
+        Room room = null;
+        boolean created = false;
+        try {
+            room = storeWithUniqueRoomCode(adminToken, gameMode, admin);
+            mutate(room, RoomEvent.CREATED, r -> null);
+            created = true;
+        } finally {
+            event.finish(room, created);
+        }
+        
+        log.info("Created room: {} with code: {} by admin: {}", room.getRoomId(), room.getRoomCode(), adminName);
         
-        log.info("Created room: {} with code: {} by admin: {}", room.getRoomId(), roomCode, adminName);
+        eventPublisher.publishEvent(new RoomCreatedEvent(room));
         
         return room;
     }
     
+    /**
+     * Create rooms in bulk, handing each chunk of them to the consumer once it is stored
+     * and durable. A chunk's codes come from one allocator call and its journal records
+     * share syncs, instead of one durable write per room. No RoomCreated broadcasts are
+     * needed: nobody can be subscribed to a room whose code hasn't been handed out.
+     * @return the number of rooms created
+     */
+    public int createRooms(int count, GameMode gameMode, String adminName, Consumer<List<Room>> onChunk) {
+        int created = 0;
+        while (created < count) {
+            List<Room> chunk = storeWithUniqueRoomCodes(Math.min(BULK_CREATE_CHUNK, count - created), gameMode, adminName);
+            CompletableFuture.allOf(chunk.stream()
+                            .map(room -> submit(room, RoomEvent.CREATED, r -> null))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+            for (Room room : chunk) {
+                eventPublisher.publishEvent(new RoomCreatedEvent(room));
+            }
+            created += chunk.size();
+            onChunk.accept(chunk);
+        }
+        log.info("Created {} rooms in bulk by admin: {}", created, adminName);
+        return created;
+    }
+    
     /**
      * Get room by code
      */
     public Room getRoomByCode(String roomCode) {
-        return roomsByCode.get(roomCode);
+        long key = RoomCodeGenerator.toKey(roomCode);
+        return key >= 0 ? rooms.get(key) : null;
     }
     
     /**
      * Get room by ID
+     * IDs are "CODE-suffix"; the code locates the room and the full ID must still match,
+     * so IDs of earlier rooms that used the same code resolve to nothing.
      */
     public Room getRoomById(String roomId) {
-        return roomsById.get(roomId);
+        int codeLength = RoomCodeGenerator.ROOM_CODE_LENGTH;
+        if (roomId == null || roomId.length() <= codeLength || roomId.charAt(codeLength) != ROOM_ID_SEPARATOR) {
+            return null;
+        }
+        Room room = getRoomByCode(roomId.substring(0, codeLength));
+        return room != null && room.getRoomId().equals(roomId) ? room : null;
     }
     
     /**
@@ -71,22 +151,46 @@ public class RoomService {
      * @return The created player, or null if room doesn't exist
      */
     public Player addPlayerToRoom(String roomCode, String playerName) {
-        Room room = roomsByCode.get(roomCode);
+        Room room = getRoomByCode(roomCode);
         if (room == null) {
             return null;
         }
         
-        // Check if player name already exists in room
-        boolean nameExists = room.getPlayers().stream()
-                .anyMatch(p -> p.getName().equalsIgnoreCase(playerName));
-        
-        if (nameExists) {
-            throw new IllegalArgumentException("Player name already exists in this room");
-        }
-        
         Player player = new Player(UUID.randomUUID().toString(), playerName, Role.PLAYER);
-        room.addPlayer(player);
+        RoomLifecycleEvent event = RoomLifecycleEvent.start(RoomLifecycleEvent.JOIN, roomCode);
+        boolean joined = false;
+        try {
+            joined = mutate(room, RoomEvent.JOINED, r -> {
+                if (r.isClosed()) {
+                    return false; // Removed since it was looked up (e.g. the last player left)
+                }
+                
+                if (r.getStatus() == RoomStatus.ACTIVE) {
+                    throw new IllegalStateException("Game has already started");
+                }
+                
+                // Check if player name already exists in room
+                boolean nameExists = r.getPlayers().stream()
+                        .anyMatch(p -> p.getName().equalsIgnoreCase(playerName));
+                
+                if (nameExists) {
+                    throw new IllegalArgumentException("Player name already exists in this room");
+                }
+                
+                if (r.getPlayers().size() >= maxPlayers) {
+                    throw new QuotaExceededException("players", "Room is full");
+                }
+                
+                r.addPlayer(player);
+                return true;
+            });
+        } finally {
+            event.finish(room, joined);
+        }
         
+        if (!joined) {
+            return null;
+        }
         log.info("Player {} joined room {}", playerName, roomCode);
         
         return player;
@@ -96,45 +200,288 @@ public class RoomService {
      * Remove a player from a room
      */
     public boolean removePlayerFromRoom(String roomCode, String playerId) {
-        Room room = roomsByCode.get(roomCode);
+        Room room = getRoomByCode(roomCode);
         if (room == null) {
             return false;
         }
         
-        boolean removed = room.removePlayer(playerId);
+        RoomLifecycleEvent event = RoomLifecycleEvent.start(RoomLifecycleEvent.LEAVE, roomCode);
+        boolean removed = false;
+        try {
+            removed = mutate(room, RoomEvent.LEFT, r -> {
+                boolean left = r.removePlayer(playerId);
+                // Decided together with the removal, so no join can slip in before the room goes
+                if (left && r.getPlayers().isEmpty()) {
+                    r.markClosed();
+                }
+                return left;
+            });
+        } finally {
+            event.finish(room, removed);
+        }
         
         // If room is empty, clean it up (optional - you might want to keep it)
-        if (room.getPlayers().isEmpty()) {
-            roomsByCode.remove(roomCode);
-            roomsById.remove(room.getRoomId());
+        if (removed && room.isClosed() && removeRoom(room)) {
             log.info("Room {} cleaned up (no players)", roomCode);
         }
         
         return removed;
     }
     
+    /**
+     * Apply a mutation on the room's mailbox and wait for it
+     * Exceptions thrown by the mutation are rethrown unchanged. Must not be called from
+     * another room's mutation, which would tie up that room's mailbox while waiting.
+     */
+    public <T> T mutate(Room room, Function<Room, T> mutation) {
+        try {
+            return room.submit(mutation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Apply a journaled mutation and wait until it is durable
+     * The room's full state after the mutation is appended to the journal on the mailbox;
+     * a mutation that throws is not recorded.
+     */
+    public <T> T mutate(Room room, RoomEvent event, Function<Room, T> mutation) {
+        try {
+            return submit(room, event, mutation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Non-blocking form of {@link #mutate(Room, RoomEvent, Function)}
+     * Completes with the mutation's result once its journal record is durable. A record
+     * still waiting for its sync completes on the common pool, so stages chained by the
+     * caller never run on (and hold up) the journal's flush thread.
+     */
+    public <T> CompletableFuture<T> submit(Room room, RoomEvent event, Function<Room, T> mutation) {
+        return room.submit(r -> {
+                    boolean closed = r.isClosed(); // A record after CLOSED would bring the room back on recovery
+                    T result = mutation.apply(r);
+                    return new Journaled<>(result, closed ? -1 : journal.append(event, exportRoom(r)));
+                })
+                .thenCompose(journaled -> {
+                    CompletableFuture<Void> durable = journal.whenDurable(journaled.seq());
+                    return durable.isDone()
+                            ? durable.thenApply(ignored -> journaled.result())
+                            : durable.thenApplyAsync(ignored -> journaled.result(), durableExecutor);
+                });
+    }
+    
+    /**
+     * Remove a room (e.g. evicted for inactivity)
+     * Runs on the room's mailbox and marks it closed there, so joins and other mutations
+     * queued behind the removal find it closed (and aren't journaled).
+     * @return true if this room was still stored
+     */
+    public boolean removeRoom(Room room) {
+        RoomLifecycleEvent event = RoomLifecycleEvent.start(RoomLifecycleEvent.CLOSE, room.getRoomCode());
+        boolean removed = false;
+        try {
+            removed = mutate(room, r -> {
+                r.markClosed();
+                long key = RoomCodeGenerator.toKey(r.getRoomCode());
+                if (!rooms.remove(key, r)) {
+                    return false;
+                }
+                codeAllocator.release(key);
+                journal.appendClosed(r.getRoomId());
+                return true;
+            });
+        } finally {
+            event.finish(room, removed);
+        }
+        return removed;
+    }
+    
+    /**
+     * Full state of a room; call on its mailbox (or before it is shared)
+     */
+    public static RoomTransferDto exportRoom(Room room) {
+        return new RoomTransferDto(
+                room.getRoomId(),
+                room.getRoomCode(),
+                room.getAdminToken(),
+                room.getGameMode(),
+                room.getStatus(),
+                new ArrayList<>(room.getPlayers()),
+                room.getCurrentTurnIndex(),
+                room.getCurrentQuestion(),
+                room.getAdminQuestions().toList(),
+                room.getCreatedAt(),
+                room.getLastActivityAt(),
+                room.getSnapshot().version()
+        );
+    }
+    
+    /**
+     * Rebuild a room from its exported state (not stored yet)
+     * Snapshot versions continue from the exported one, so subscribers' sequence numbers keep increasing.
+     */
+    public Room importRoom(RoomTransferDto state) {
+        Room room = new Room(state.getRoomId(), state.getRoomCode(), state.getAdminToken(), state.getGameMode());
+        mutate(room, r -> {
+            r.setStatus(state.getStatus());
+            r.setPlayers(new ArrayList<>(state.getPlayers()));
+            r.setCurrentTurnIndex(state.getCurrentTurnIndex());
+            r.setCurrentQuestion(state.getCurrentQuestion());
+            if (state.getAdminQuestions() != null) {
+                // Stored in serving order; their original order values aren't kept
+                r.getAdminQuestions().offerAll(state.getAdminQuestions().stream()
+                        .map(question -> new AdminQuestionQueue.Queued(question, 0))
+                        .toList(), Integer.MAX_VALUE);
+            }
+            r.setCreatedAt(state.getCreatedAt());
+            r.setLastActivityAt(state.getLastActivityAt());
+            r.continueVersionsFrom(state.getVersion());
+            return null;
+        });
+        return room;
+    }
+    
+    /**
+     * Store a room recovered from the journal (not journaled again)
+     * @return false if its code is already taken
+     */
+    public boolean restoreRoom(Room room) {
+        long key = RoomCodeGenerator.toKey(room.getRoomCode());
+        if (key < 0 || rooms.putIfAbsent(key, room) != null) {
+            return false;
+        }
+        eventPublisher.publishEvent(new RoomCreatedEvent(room));
+        return true;
+    }
+    
+    /**
+     * Store a room handed over by another node
+     * @return false if its code is already taken here
+     */
+    public boolean adoptRoom(Room room) {
+        if (!restoreRoom(room)) {
+            return false;
+        }
+        mutate(room, RoomEvent.ADOPTED, r -> null);
+        log.info("Adopted room {}", room.getRoomCode());
+        return true;
+    }
+    
+    /**
+     * Visit every live room (weakly consistent with concurrent changes)
+     */
+    public void forEachRoom(Consumer<Room> action) {
+        rooms.forEach(action);
+    }
+    
+    /**
+     * Number of live rooms
+     */
+    public int getRoomCount() {
+        return rooms.size();
+    }
+    
+    /**
+     * Number of players across live rooms
+     * Sums the rooms' published snapshots on each call, so it costs one pass over the
+     * registry and nothing on the join/leave path
+     */
+    public long getPlayerCount() {
+        long[] total = {0};
+        rooms.forEach(room -> total[0] += room.getSnapshot().players().size());
+        return total[0];
+    }
+    
+    /**
+     * Number of released room codes in quarantine
+     */
+    public int getQuarantinedCodeCount() {
+        return codeAllocator.getQuarantinedCount();
+    }
+    
     /**
      * Verify admin token for a room
      */
     public boolean verifyAdminToken(String roomId, String adminToken) {
-        Room room = roomsById.get(roomId);
+        Room room = getRoomById(roomId);
         return room != null && room.isAdminTokenValid(adminToken);
     }
     
     /**
-     * Generate a unique room code (retries if collision occurs)
+     * Create a room under a freshly allocated code
+     * The allocator doesn't repeat codes, so the registry insert only misses for codes
+     * held by rooms it didn't hand out (or after the whole code space wrapped).
+     * In cluster mode only codes this node owns are used; with N nodes that takes
+     * ~N draws, and the others are simply skipped (the code space is large).
      */
-    private String generateUniqueRoomCode() {
-        String code;
-        int attempts = 0;
-        do {
-            code = RoomCodeGenerator.generateRoomCode();
-            attempts++;
-            if (attempts > 100) {
-                throw new RuntimeException("Failed to generate unique room code after 100 attempts");
+    private Room storeWithUniqueRoomCode(String adminToken, GameMode gameMode, Player admin) {
+        int maxAttempts = MAX_CODE_ATTEMPTS * Math.max(1, clusterService.getNodes().size());
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            long key = codeAllocator.next();
+            if (!clusterService.isLocal(key)) {
+                continue;
             }
-        } while (roomsByCode.containsKey(code));
-        
-        return code;
+            String code = RoomCodeGenerator.fromKey(key);
+            String roomId = code + ROOM_ID_SEPARATOR + Long.toString(roomIdSequence.incrementAndGet(), 36);
+            Room room = new Room(roomId, code, adminToken, gameMode);
+            mutate(room, r -> {
+                r.addPlayer(admin);
+                return null;
+            });
+            if (rooms.putIfAbsent(key, room) == null) {
+                return room;
+            }
+        }
+        throw new RuntimeException("Failed to allocate a free room code after " + maxAttempts + " attempts");
+    }
+    
+    /**
+     * Bulk form of storeWithUniqueRoomCode: codes are allocated count at a time (more in
+     * cluster mode, where only this node's share of them is usable). Local codes left over
+     * once count rooms are stored go back to the allocator, so recycled ones aren't lost.
+     */
+    private List<Room> storeWithUniqueRoomCodes(int count, GameMode gameMode, String adminName) {
+        List<Room> stored = new ArrayList<>(count);
+        int nodes = Math.max(1, clusterService.getNodes().size());
+        int allocations = 0;
+        while (stored.size() < count) {
+            if (allocations++ == MAX_CODE_ATTEMPTS) {
+                throw new RuntimeException("Failed to allocate " + count + " free room codes after " + MAX_CODE_ATTEMPTS + " attempts");
+            }
+            for (long key : codeAllocator.next((count - stored.size()) * nodes)) {
+                if (!clusterService.isLocal(key)) {
+                    continue; // Unusable here, and handing it back would only draw it again
+                }
+                if (stored.size() == count) {
+                    codeAllocator.unreserve(key);
+                    continue;
+                }
+                String code = RoomCodeGenerator.fromKey(key);
+                String roomId = code + ROOM_ID_SEPARATOR + Long.toString(roomIdSequence.incrementAndGet(), 36);
+                Room room = new Room(roomId, code, RoomCodeGenerator.generateAdminToken(), gameMode);
+                Player admin = new Player(UUID.randomUUID().toString(), adminName, Role.ADMIN);
+                mutate(room, r -> {
+                    r.addPlayer(admin);
+                    return null;
+                });
+                if (rooms.putIfAbsent(key, room) == null) {
+                    stored.add(room);
+                }
+            }
+        }
+        return stored;
+    }
+    
+    private record Journaled<T>(T result, long seq) {
     }
 }
\ No newline at end of file
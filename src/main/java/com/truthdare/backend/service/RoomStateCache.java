@@ -0,0 +1,94 @@
+package com.truthdare.backend.service;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.truthdare.backend.dto.RoomStateDto;
+import com.truthdare.backend.dto.WebSocketEvent;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomSnapshot;
+import com.truthdare.backend.model.SerializedRoomState;
+import com.truthdare.backend.websocket.WebSocketService;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized room state, cached per snapshot version.
+ * The first reader after a mutation builds the DTO and encodes it (and the ROOM_STATE
+ * event wrapping it) once; every later REST read and broadcast of the same version
+ * reuses those bytes, so re-reading an unchanged room allocates nothing.
+ * The event timestamp is the time the version was first serialized.
+ * Each encode gets its own buffer sized from the previous version's bytes, which a
+ * room's next state rarely outgrows; nothing is held per thread, so encoding on
+ * short-lived or virtual threads leaves no buffers behind.
+ */
+@Component
+public class RoomStateCache {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int BUFFER_HEADROOM = 128; // For a state that grew a little since the last version
+
+    private final GameService gameService;
+    private final ObjectWriter stateWriter;
+    private final ObjectWriter eventWriter;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong encodes = new AtomicLong();
+
+    public RoomStateCache(GameService gameService, ObjectMapper objectMapper) {
+        this.gameService = gameService;
+        this.stateWriter = objectMapper.writerFor(RoomStateDto.class);
+        this.eventWriter = objectMapper.writerFor(WebSocketEvent.class);
+    }
+
+    /**
+     * Serialized form of the room's latest snapshot
+     */
+    public SerializedRoomState get(Room room) {
+        RoomSnapshot snapshot = room.getSnapshot();
+        SerializedRoomState cached = room.getSerializedState();
+        if (cached != null && cached.version() == snapshot.version()) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        RoomStateDto state = gameService.toRoomStateDto(room, snapshot);
+        SerializedRoomState serialized = new SerializedRoomState(
+                snapshot.version(),
+                encode(stateWriter, state, cached != null ? cached.stateJson().length : 0),
+                encode(eventWriter, new WebSocketEvent(WebSocketService.EVENT_ROOM_STATE, state),
+                        cached != null ? cached.eventJson().length : 0)
+        );
+        encodes.incrementAndGet();
+
+        // Racing readers may both encode; a lost update only costs the next reader a re-encode
+        if (cached == null || cached.version() < serialized.version()) {
+            room.setSerializedState(serialized);
+        }
+        return serialized;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getEncodeCount() {
+        return encodes.get();
+    }
+
+    /**
+     * @param previousLength Length of the previous version's encoding, or 0 if there is none
+     */
+    private static byte[] encode(ObjectWriter writer, Object value, int previousLength) {
+        int size = previousLength > 0 ? previousLength + BUFFER_HEADROOM : INITIAL_BUFFER_SIZE;
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(size)) {
+            writer.writeValue(buffer, value);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.Question;
+import com.truthdare.backend.model.QuestionType;
+import com.truthdare.backend.model.Role;
+import com.truthdare.backend.model.RoomStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of a room's full state, used for journal records and snapshots.
+ * Enums are stored by ordinal and timestamps as UTC-relative seconds and nanos, so a
+ * typical room with a handful of players encodes to a few hundred bytes.
+ */
+public final class RoomStateCodec {
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    private RoomStateCodec() {
+    }
+
+    public static byte[] encode(RoomTransferDto room) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, room);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static RoomTransferDto decode(byte[] data) throws IOException {
+        return read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    public static void write(DataOutput out, RoomTransferDto room) throws IOException {
+        out.writeUTF(room.getRoomId());
+        out.writeUTF(room.getRoomCode());
+        out.writeUTF(room.getAdminToken());
+        out.writeByte(room.getGameMode().ordinal());
+        out.writeByte(room.getStatus().ordinal());
+        out.writeInt(room.getCurrentTurnIndex());
+        out.writeLong(room.getVersion());
+        writeTime(out, room.getCreatedAt());
+        writeTime(out, room.getLastActivityAt());
+
+        out.writeShort(room.getPlayers().size());
+        for (Player player : room.getPlayers()) {
+            out.writeUTF(player.getPlayerId());
+            out.writeUTF(player.getName());
+            out.writeByte(player.getRole().ordinal());
+            writeTime(out, player.getJoinedAt());
+        }
+
+        writeQuestion(out, room.getCurrentQuestion());
+        List<Question> queued = room.getAdminQuestions() != null ? room.getAdminQuestions() : List.of();
+        out.writeShort(queued.size());
+        for (Question question : queued) {
+            writeQuestion(out, question);
+        }
+    }
+
+    public static RoomTransferDto read(DataInput in) throws IOException {
+        RoomTransferDto room = new RoomTransferDto();
+        room.setRoomId(in.readUTF());
+        room.setRoomCode(in.readUTF());
+        room.setAdminToken(in.readUTF());
+        room.setGameMode(GameMode.values()[in.readByte()]);
+        room.setStatus(RoomStatus.values()[in.readByte()]);
+        room.setCurrentTurnIndex(in.readInt());
+        room.setVersion(in.readLong());
+        room.setCreatedAt(readTime(in));
+        room.setLastActivityAt(readTime(in));
+
+        int playerCount = in.readUnsignedShort();
+        List<Player> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(new Player(in.readUTF(), in.readUTF(), Role.values()[in.readByte()], readTime(in)));
+        }
+        room.setPlayers(players);
+
+        room.setCurrentQuestion(readQuestion(in));
+        int queuedCount = in.readUnsignedShort();
+        List<Question> queued = new ArrayList<>(queuedCount);
+        for (int i = 0; i < queuedCount; i++) {
+            queued.add(readQuestion(in));
+        }
+        room.setAdminQuestions(queued);
+        return room;
+    }
+
+    private static void writeQuestion(DataOutput out, Question question) throws IOException {
+        out.writeBoolean(question != null);
+        if (question == null) {
+            return;
+        }
+        out.writeUTF(question.getQuestionId());
+        out.writeUTF(question.getText());
+        out.writeByte(question.getType() != null ? question.getType().ordinal() : -1);
+        writeNullable(out, question.getPlayerId());
+        out.writeBoolean(question.isAdminInjected());
+    }
+
+    private static Question readQuestion(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        String questionId = in.readUTF();
+        String text = in.readUTF();
+        byte type = in.readByte();
+        String playerId = readNullable(in);
+        boolean adminInjected = in.readBoolean();
+        return new Question(questionId, text, type >= 0 ? QuestionType.values()[type] : null, playerId, adminInjected);
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+}
\ No newline at end of file
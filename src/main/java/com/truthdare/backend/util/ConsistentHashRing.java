@@ -0,0 +1,106 @@
+package com.truthdare.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Consistent hash ring mapping 64-bit keys (packed room codes) to node IDs.
+ * Each node is placed at virtualNodes points on the ring and owns the keys hashing
+ * between the previous point and its own, so adding or removing one of N nodes only
+ * moves ~1/N of the keys. The ring depends only on the node IDs, so every node
+ * configured with the same list computes the same owners.
+ *
+ * Immutable; membership changes build a new ring.
+ */
+public final class ConsistentHashRing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<String> nodes;
+    private final int virtualNodes;
+    private final long[] points; // Sorted ring positions
+    private final String[] owners; // Node owning each position
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.nodes = List.copyOf(new LinkedHashSet<>(nodes));
+        this.virtualNodes = virtualNodes;
+
+        List<Point> ring = new ArrayList<>(this.nodes.size() * virtualNodes);
+        for (String node : this.nodes) {
+            long nodeHash = hash(node);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.add(new Point(mix(nodeHash + i * 0x9E3779B97F4A7C15L), node));
+            }
+        }
+        // Ties are broken by node ID so every node builds an identical ring
+        ring.sort(Comparator.comparingLong(Point::position).thenComparing(Point::node));
+
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).position();
+            owners[i] = ring.get(i).node();
+        }
+    }
+
+    /**
+     * Node owning a key: the first ring point at or after the key's hash
+     */
+    public String ownerOf(long key) {
+        int index = Arrays.binarySearch(points, mix(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public boolean contains(String node) {
+        return nodes.contains(node);
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, mixed; stable across JVMs unlike String.hashCode spreading
+     */
+    private static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Point(long position, String node) {
+    }
+}
\ No newline at end of file
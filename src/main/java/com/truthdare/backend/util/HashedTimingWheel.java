@@ -0,0 +1,109 @@
+package com.truthdare.backend.util;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for coarse-grained deadlines.
+ * Items are hashed into a fixed ring of buckets by deadline tick, so advancing the
+ * wheel only touches the buckets whose tick has passed instead of every item.
+ * Deadlines further out than one revolution carry a round counter.
+ *
+ * Items may be scheduled from any thread; they are queued and moved into their
+ * bucket by the advancing thread. {@link #advance} must be called from a single
+ * thread at a time. Items never fire early, but may fire up to one tick late.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Timeout<T>>[] buckets;
+    private final ConcurrentLinkedQueue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final long startMillis;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Next tick to be processed (advancing thread only)
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.startMillis = startMillis;
+        this.buckets = new ConcurrentLinkedQueue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Schedule an item to fire at (or shortly after) the given time
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        incoming.offer(new Timeout<>(item, deadlineTick));
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Process every tick up to the given time, handing expired items to the callback
+     * The callback may schedule items again; they are picked up from the next tick.
+     */
+    public void advance(long nowMillis, Consumer<T> onExpired) {
+        while (startMillis + currentTick * tickMillis <= nowMillis) {
+            long tick = currentTick;
+            transferIncoming(tick);
+
+            Iterator<Timeout<T>> iterator = buckets[(int) (tick & mask)].iterator();
+            while (iterator.hasNext()) {
+                Timeout<T> timeout = iterator.next();
+                if (timeout.rounds <= 0) {
+                    iterator.remove();
+                    pending.decrementAndGet();
+                    onExpired.accept(timeout.item);
+                } else {
+                    timeout.rounds--;
+                }
+            }
+            currentTick = tick + 1;
+        }
+    }
+
+    /**
+     * Move newly scheduled items into their buckets relative to the tick being processed
+     */
+    private void transferIncoming(long tick) {
+        Timeout<T> timeout;
+        while ((timeout = incoming.poll()) != null) {
+            long target = Math.max(timeout.deadlineTick, tick);
+            timeout.rounds = (target - tick) / buckets.length;
+            buckets[(int) (target & mask)].offer(timeout);
+        }
+    }
+
+    /**
+     * Number of scheduled items that haven't fired yet
+     */
+    public int size() {
+        return pending.get();
+    }
+
+    private static final class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+        private long rounds; // Only touched by the advancing thread
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.truthdare.backend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only record log in memory-mapped segment files.
+ * Records get consecutive sequence numbers. Each segment is a preallocated file named
+ * after its first sequence number; appending is a copy into the mapping under a short
+ * lock. With fsync on, a flusher thread forces what has been written and completes the
+ * futures of every record it covered, so concurrent appenders share one msync (group
+ * commit) instead of paying one each.
+ *
+ * Record layout: int payloadLength, int crc32c(seq, type, payload), long seq, byte type,
+ * payload. A zero length ends a segment. Replay of a segment stops at the first record
+ * that is torn, fails its CRC or breaks the sequence.
+ */
+public class MappedJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 1;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private final Thread flusher;
+
+    // Guarded by lock
+    private Segment current;
+    private long nextSeq;
+    private long durableSeq;
+    private boolean closed;
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+
+    /**
+     * Open for appending, starting a new segment at nextSeq (after a replay)
+     */
+    public MappedJournal(Path directory, int segmentSize, boolean fsync, long nextSeq) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.nextSeq = nextSeq;
+        this.durableSeq = nextSeq - 1;
+        this.current = Segment.create(segmentPath(directory, nextSeq), nextSeq, segmentSize);
+        if (fsync) {
+            flusher = new Thread(this::flushLoop, "journal-flush");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Append a record
+     * @return its sequence number
+     */
+    public long append(byte type, byte[] payload) {
+        int size = HEADER_SIZE + payload.length;
+        if (size + 4 > segmentSize) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a segment");
+        }
+        CRC32C crc = new CRC32C();
+        List<Waiter> ready = List.of();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (current.position + size + 4 > segmentSize) {
+                ready = rollLocked();
+            }
+            long seq = nextSeq++;
+            MappedByteBuffer buffer = current.buffer;
+            int position = current.position;
+            buffer.putLong(position + 8, seq);
+            buffer.put(position + 16, type);
+            buffer.put(position + HEADER_SIZE, payload);
+            crc.update(buffer.slice(position + 8, 9 + payload.length));
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putInt(position, payload.length);
+            current.position = position + size;
+            if (!fsync) {
+                durableSeq = seq;
+            }
+            written.signal();
+            records.incrementAndGet();
+            bytes.addAndGet(size);
+            return seq;
+        } finally {
+            lock.unlock();
+            complete(ready);
+        }
+    }
+
+    /**
+     * Future completed once the record with this sequence number is on disk
+     * (immediately when fsync is off, or for seq below 0)
+     * Pending futures are completed by the flusher thread, which runs non-async
+     * dependents before its next sync; chain real work with an async stage.
+     */
+    public CompletableFuture<Void> whenDurable(long seq) {
+        lock.lock();
+        try {
+            if (seq <= durableSeq) {
+                return CompletableFuture.completedFuture(null);
+            }
+            Waiter waiter = new Waiter(seq, new CompletableFuture<>());
+            waiters.add(waiter);
+            return waiter.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the current segment and start a new one
+     * @return the sequence number the new segment starts at; every earlier record is
+     *         in older segments
+     */
+    public long roll() {
+        List<Waiter> ready;
+        long start;
+        lock.lock();
+        try {
+            ready = rollLocked();
+            start = nextSeq;
+        } finally {
+            lock.unlock();
+        }
+        complete(ready);
+        return start;
+    }
+
+    private List<Waiter> rollLocked() {
+        Segment previous = current;
+        previous.buffer.force();
+        try {
+            current = Segment.create(segmentPath(directory, nextSeq), nextSeq, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Everything in the previous segment was just forced
+        return markDurable(nextSeq - 1);
+    }
+
+    /**
+     * Delete segments holding only records below seq (after a snapshot covering them)
+     */
+    public void deleteSegmentsBefore(long seq) throws IOException {
+        List<Long> starts = segmentStarts(directory);
+        for (int i = 0; i + 1 < starts.size(); i++) {
+            if (starts.get(i + 1) <= seq) {
+                Files.deleteIfExists(segmentPath(directory, starts.get(i)));
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            Segment segment;
+            int from;
+            int to;
+            long target;
+            lock.lock();
+            try {
+                while (!closed && nextSeq - 1 == durableSeq) {
+                    written.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                // Appends that arrive while this sync runs are picked up by the next one
+                segment = current;
+                from = segment.flushedPosition;
+                to = segment.position;
+                target = nextSeq - 1;
+            } finally {
+                lock.unlock();
+            }
+
+            segment.buffer.force(from, to - from);
+            syncs.incrementAndGet();
+
+            List<Waiter> ready;
+            lock.lock();
+            try {
+                segment.flushedPosition = Math.max(segment.flushedPosition, to);
+                ready = markDurable(target);
+            } finally {
+                lock.unlock();
+            }
+            complete(ready);
+        }
+    }
+
+    /**
+     * Advance the durable mark and take the waiters it satisfies (under the lock)
+     */
+    private List<Waiter> markDurable(long seq) {
+        if (seq > durableSeq) {
+            durableSeq = seq;
+        }
+        List<Waiter> ready = new ArrayList<>();
+        while (!waiters.isEmpty() && waiters.peek().seq <= durableSeq) {
+            ready.add(waiters.poll());
+        }
+        return ready;
+    }
+
+    /**
+     * Complete waiters outside the lock; their callbacks may run inline
+     */
+    private static void complete(List<Waiter> ready) {
+        for (Waiter waiter : ready) {
+            waiter.future.complete(null);
+        }
+    }
+
+    public long getLastSeq() {
+        lock.lock();
+        try {
+            return nextSeq - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRecordCount() {
+        return records.get();
+    }
+
+    public long getByteCount() {
+        return bytes.get();
+    }
+
+    public long getSyncCount() {
+        return syncs.get();
+    }
+
+    @Override
+    public void close() {
+        List<Waiter> ready;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            current.buffer.force();
+            ready = markDurable(nextSeq - 1);
+            closed = true;
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        complete(ready);
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Read every valid record with seq >= fromSeq, in order
+     * A torn or corrupt record ends its segment; the next segment is read only if it
+     * continues the sequence (it was opened after a restart that recovered up to there).
+     * @return the last valid sequence number found (fromSeq - 1 if none)
+     */
+    public static long replay(Path directory, long fromSeq, RecordConsumer consumer) throws IOException {
+        long lastSeq = fromSeq - 1;
+        if (!Files.isDirectory(directory)) {
+            return lastSeq;
+        }
+        for (long start : segmentStarts(directory)) {
+            if (start > lastSeq + 1) {
+                return lastSeq; // Gap: records are missing
+            }
+            long expected = start;
+            try (FileChannel channel = FileChannel.open(segmentPath(directory, start), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int position = 0;
+                CRC32C crc = new CRC32C();
+                while (position + HEADER_SIZE <= buffer.limit()) {
+                    int length = buffer.getInt(position);
+                    if (length <= 0 || position + HEADER_SIZE + length > buffer.limit()) {
+                        break; // End of this segment, or a torn write
+                    }
+                    crc.reset();
+                    crc.update(buffer.slice(position + 8, 9 + length));
+                    long seq = buffer.getLong(position + 8);
+                    if ((int) crc.getValue() != buffer.getInt(position + 4) || seq != expected) {
+                        break; // Corrupt or stale bytes: nothing after this in the segment can be trusted
+                    }
+                    if (seq > lastSeq) {
+                        if (seq >= fromSeq) {
+                            byte[] payload = new byte[length];
+                            buffer.get(position + HEADER_SIZE, payload);
+                            consumer.accept(seq, buffer.get(position + 16), payload);
+                        }
+                        lastSeq = seq;
+                    }
+                    expected++;
+                    position += HEADER_SIZE + length;
+                }
+            }
+        }
+        return lastSeq;
+    }
+
+    private static List<Long> segmentStarts(Path directory) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> starts.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        starts.sort(null);
+        return starts;
+    }
+
+    private static Path segmentPath(Path directory, long firstSeq) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long seq, byte type, byte[] payload) throws IOException;
+    }
+
+    private static final class Segment {
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int flushedPosition;
+
+        private Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path path, long firstSeq, int size) throws IOException {
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                // Zero-filled even if a segment that held no valid records is being reused
+                file.setLength(0);
+                file.setLength(size);
+                // The mapping stays valid after the channel is closed
+                return new Segment(file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+    }
+
+    private record Waiter(long seq, CompletableFuture<Void> future) implements Comparable<Waiter> {
+        @Override
+        public int compareTo(Waiter other) {
+            return Long.compare(seq, other.seq);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,327 @@
+package com.truthdare.backend.util;
+
+import com.truthdare.backend.model.QuestionType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only question corpus backed by a compact binary index.
+ * The index is memory-mapped (or wrapped from a byte array) and read with absolute
+ * gets only, so one instance can be shared by any number of threads without locking.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int   magic "TDQC"
+ *   byte  version
+ *   byte  type count (QuestionType order)
+ *   short category count
+ *   int   entry count
+ *   int   text section size in bytes
+ *   category names: category count x (short length, UTF-8 bytes)
+ *   ranges: (type count x category count + 1) x int first entry id, entries sorted by (type, category)
+ *   records: entry count x (int text offset, int text length)
+ *   text: UTF-8 question text
+ * </pre>
+ */
+public class QuestionCorpus {
+
+    private static final int MAGIC = 0x54445143; // "TDQC"
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 8;
+    private static final QuestionType[] TYPES = QuestionType.values();
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private final ByteBuffer buffer;
+    private final long generation;
+    private final String[] categories;
+    private final int entryCount;
+    private final int rangesOffset;
+    private final int recordsOffset;
+    private final int textOffset;
+
+    private QuestionCorpus(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.generation = GENERATIONS.incrementAndGet();
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a question corpus index");
+        }
+        if (buffer.get(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported corpus version: " + buffer.get(4));
+        }
+        if (buffer.get(5) != TYPES.length) {
+            throw new IllegalArgumentException("Corpus type count does not match QuestionType");
+        }
+
+        int categoryCount = Short.toUnsignedInt(buffer.getShort(6));
+        this.entryCount = buffer.getInt(8);
+        int textBytes = buffer.getInt(12);
+
+        this.categories = new String[categoryCount];
+        int position = HEADER_SIZE;
+        for (int i = 0; i < categoryCount; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort(position));
+            categories[i] = readString(position + 2, length);
+            position += 2 + length;
+        }
+
+        this.rangesOffset = position;
+        this.recordsOffset = rangesOffset + (rangeCount() + 1) * Integer.BYTES;
+        this.textOffset = recordsOffset + entryCount * RECORD_SIZE;
+        if (entryCount < 0 || textBytes < 0 || (long) textOffset + textBytes > buffer.capacity()) {
+            throw new IllegalArgumentException("Corpus index is truncated");
+        }
+
+        validate(textBytes);
+    }
+
+    /**
+     * Memory-map a corpus index file
+     */
+    public static QuestionCorpus open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new QuestionCorpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Wrap an in-memory corpus index
+     */
+    public static QuestionCorpus wrap(byte[] index) {
+        return new QuestionCorpus(ByteBuffer.wrap(index).asReadOnlyBuffer());
+    }
+
+    /**
+     * Encode entries into the binary index format
+     */
+    public static byte[] encode(List<Entry> entries) {
+        TreeMap<String, Integer> categoryIds = new TreeMap<>();
+        entries.forEach(e -> categoryIds.putIfAbsent(e.category(), 0));
+        if (categoryIds.size() > 0xFFFF) {
+            throw new IllegalArgumentException("Too many categories");
+        }
+        int nextId = 0;
+        for (Map.Entry<String, Integer> category : categoryIds.entrySet()) {
+            category.setValue(nextId++);
+        }
+
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingInt((Entry e) -> e.type().ordinal())
+                .thenComparingInt(e -> categoryIds.get(e.category())));
+
+        int categoryCount = categoryIds.size();
+        int[] rangeStarts = new int[TYPES.length * categoryCount + 1];
+        int[] rangeSizes = new int[TYPES.length * categoryCount];
+        for (Entry entry : sorted) {
+            rangeSizes[entry.type().ordinal() * categoryCount + categoryIds.get(entry.category())]++;
+        }
+        for (int i = 0; i < rangeSizes.length; i++) {
+            rangeStarts[i + 1] = rangeStarts[i] + rangeSizes[i];
+        }
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        int[] offsets = new int[sorted.size()];
+        int[] lengths = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            byte[] bytes = sorted.get(i).text().getBytes(StandardCharsets.UTF_8);
+            offsets[i] = text.size();
+            lengths[i] = bytes.length;
+            text.writeBytes(bytes);
+        }
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + sorted.size() * RECORD_SIZE + text.size());
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(MAGIC);
+            data.writeByte(VERSION);
+            data.writeByte(TYPES.length);
+            data.writeShort(categoryCount);
+            data.writeInt(sorted.size());
+            data.writeInt(text.size());
+            for (String category : categoryIds.keySet()) {
+                byte[] name = category.getBytes(StandardCharsets.UTF_8);
+                data.writeShort(name.length);
+                data.write(name);
+            }
+            for (int start : rangeStarts) {
+                data.writeInt(start);
+            }
+            for (int i = 0; i < sorted.size(); i++) {
+                data.writeInt(offsets[i]);
+                data.writeInt(lengths[i]);
+            }
+            text.writeTo(data);
+            data.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Pick a random entry id of the given type (any type if null)
+     * @return Entry id, or -1 if the corpus has no matching entries
+     */
+    public int randomId(QuestionType type) {
+        int start = type != null ? rangeStart(type.ordinal() * categories.length) : 0;
+        int end = type != null ? rangeStart((type.ordinal() + 1) * categories.length) : entryCount;
+        return randomBetween(start, end);
+    }
+
+    /**
+     * Pick a random entry id of the given type and category
+     * @return Entry id, or -1 if the corpus has no matching entries
+     */
+    public int randomId(QuestionType type, String category) {
+        int categoryId = categoryId(category);
+        if (categoryId < 0) {
+            return -1;
+        }
+        int range = type.ordinal() * categories.length + categoryId;
+        return randomBetween(rangeStart(range), rangeStart(range + 1));
+    }
+
+    /**
+     * Question text for an entry id
+     */
+    public String text(int id) {
+        checkId(id);
+        int record = recordsOffset + id * RECORD_SIZE;
+        return readString(textOffset + buffer.getInt(record), buffer.getInt(record + 4));
+    }
+
+    /**
+     * Question type for an entry id
+     */
+    public QuestionType type(int id) {
+        return TYPES[rangeOf(id) / categories.length];
+    }
+
+    /**
+     * Category name for an entry id
+     */
+    public String category(int id) {
+        return categories[rangeOf(id) % categories.length];
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Number of entries of the given type
+     */
+    public int size(QuestionType type) {
+        return rangeStart((type.ordinal() + 1) * categories.length) - rangeStart(type.ordinal() * categories.length);
+    }
+
+    public List<String> getCategories() {
+        return List.of(categories);
+    }
+
+    /**
+     * Unique per loaded instance; entry ids are only meaningful within one generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    private int randomBetween(int start, int end) {
+        return end > start ? ThreadLocalRandom.current().nextInt(start, end) : -1;
+    }
+
+    private int rangeCount() {
+        return TYPES.length * categories.length;
+    }
+
+    private int rangeStart(int range) {
+        return buffer.getInt(rangesOffset + range * Integer.BYTES);
+    }
+
+    /**
+     * Binary search for the (type, category) range containing an entry id
+     */
+    private int rangeOf(int id) {
+        checkId(id);
+        int low = 0;
+        int high = rangeCount() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (rangeStart(mid) <= id) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int categoryId(String category) {
+        for (int i = 0; i < categories.length; i++) {
+            if (categories[i].equals(category)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String readString(int index, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= entryCount) {
+            throw new IndexOutOfBoundsException("No corpus entry " + id);
+        }
+    }
+
+    /**
+     * Check ranges and records point inside the index before anyone reads from it
+     */
+    private void validate(int textBytes) {
+        int previous = 0;
+        for (int range = 0; range <= rangeCount(); range++) {
+            int start = rangeStart(range);
+            if (start < previous || start > entryCount) {
+                throw new IllegalArgumentException("Corpus ranges are corrupt");
+            }
+            previous = start;
+        }
+        if (previous != entryCount) {
+            throw new IllegalArgumentException("Corpus ranges do not cover all entries");
+        }
+        for (int id = 0; id < entryCount; id++) {
+            int record = recordsOffset + id * RECORD_SIZE;
+            long offset = buffer.getInt(record);
+            long length = buffer.getInt(record + 4);
+            if (offset < 0 || length < 0 || offset + length > textBytes) {
+                throw new IllegalArgumentException("Corpus record " + id + " is out of bounds");
+            }
+        }
+    }
+
+    /**
+     * A question to be encoded into a corpus index
+     */
+    public record Entry(QuestionType type, String category, String text) {
+    }
+}
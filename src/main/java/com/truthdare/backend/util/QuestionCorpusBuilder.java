@@ -0,0 +1,73 @@
+package com.truthdare.backend.util;
+
+import com.truthdare.backend.model.QuestionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line tool that builds a question corpus index from a tab-separated file.
+ * Each line is: TYPE (TRUTH or DARE), category, question text. Blank lines and
+ * lines starting with '#' are ignored.
+ *
+ * The index is written to a temporary file and atomically moved into place, so a
+ * running server picking up the new file never sees a partially written index.
+ *
+ * Usage: ./gradlew buildQuestionCorpus -Pinput=questions.tsv -Poutput=questions.idx
+ */
+public class QuestionCorpusBuilder {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: QuestionCorpusBuilder <input.tsv> <output.idx>");
+            System.exit(1);
+        }
+
+        Path input = Path.of(args[0]);
+        Path output = Path.of(args[1]).toAbsolutePath();
+
+        List<QuestionCorpus.Entry> entries = read(input);
+        byte[] index = QuestionCorpus.encode(entries);
+        QuestionCorpus.wrap(index); // Validate before publishing
+
+        Path temp = Files.createTempFile(output.getParent(), output.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, index);
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        System.out.printf("Wrote %d questions (%d bytes) to %s%n", entries.size(), index.length, output);
+    }
+
+    /**
+     * Parse corpus entries from a tab-separated file
+     */
+    public static List<QuestionCorpus.Entry> read(Path input) throws IOException {
+        List<QuestionCorpus.Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", 3);
+                if (fields.length != 3 || fields[2].isBlank()) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected TYPE<tab>category<tab>text");
+                }
+                QuestionType type = QuestionType.valueOf(fields[0].trim().toUpperCase());
+                entries.add(new QuestionCorpus.Entry(type, fields[1].trim(), fields[2].trim()));
+            }
+        }
+        return entries;
+    }
+}
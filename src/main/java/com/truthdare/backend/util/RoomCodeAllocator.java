@@ -0,0 +1,168 @@
+package com.truthdare.backend.util;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out packed room codes (see RoomCodeGenerator.toKey) without retries.
+ * A counter is run through a keyed Feistel permutation of the 32-bit space and
+ * cycle-walked into the 36^6 code space, so consecutive allocations are distinct
+ * by construction and look random without the secret round keys. Allocation is a
+ * single atomic increment plus a few multiplies; no shared RNG on the hot path.
+ *
+ * Released codes are quarantined for a while (so stale links and reconnecting
+ * clients don't land in a stranger's room) and handed out again afterwards. Codes
+ * allocated but never used are handed back with unreserve() and reused first.
+ */
+public class RoomCodeAllocator {
+
+    private static final long CODE_SPACE = 2_176_782_336L; // 36^6
+    private static final int ROUNDS = 6;
+
+    private final int[] roundKeys = new int[ROUNDS];
+    private final AtomicLong counter;
+    private final long quarantineNanos;
+    private final ConcurrentLinkedQueue<Released> quarantine = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger quarantined = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Long> unused = new ConcurrentLinkedQueue<>();
+
+    public RoomCodeAllocator(Duration quarantine) {
+        this(new SecureRandom(), quarantine);
+    }
+
+    RoomCodeAllocator(SecureRandom random, Duration quarantine) {
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = random.nextInt();
+        }
+        // Random starting point so a restart doesn't walk the same prefix of the sequence
+        this.counter = new AtomicLong(Math.floorMod(random.nextLong(), CODE_SPACE));
+        this.quarantineNanos = quarantine.toNanos();
+    }
+
+    /**
+     * Allocate a packed room code
+     * Recycles a released code whose quarantine has expired, otherwise takes the next
+     * code of the permutation. Codes repeat only after the whole space is used, so
+     * callers must still treat a taken code (e.g. a room restored from disk) as a miss.
+     */
+    public long next() {
+        Long returned = unused.poll();
+        if (returned != null) {
+            return returned;
+        }
+        Released oldest = quarantine.peek();
+        if (oldest != null && System.nanoTime() - oldest.releasedAtNanos >= quarantineNanos
+                && quarantine.remove(oldest)) {
+            quarantined.decrementAndGet();
+            return oldest.key;
+        }
+        return permute(counter.getAndIncrement() % CODE_SPACE);
+    }
+
+    /**
+     * Allocate count packed room codes in one go: unreserved codes first, then expired
+     * quarantined ones, the rest from a single reservation of the counter (one atomic add
+     * for the whole batch)
+     */
+    public long[] next(int count) {
+        long[] keys = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            Long returned = unused.poll();
+            if (returned == null) {
+                break;
+            }
+            keys[filled++] = returned;
+        }
+        while (filled < count) {
+            Released oldest = quarantine.peek();
+            if (oldest == null || System.nanoTime() - oldest.releasedAtNanos < quarantineNanos) {
+                break;
+            }
+            if (quarantine.remove(oldest)) {
+                quarantined.decrementAndGet();
+                keys[filled++] = oldest.key;
+            }
+        }
+        long start = counter.getAndAdd(count - filled);
+        for (int i = filled; i < count; i++) {
+            keys[i] = permute((start + i - filled) % CODE_SPACE);
+        }
+        return keys;
+    }
+
+    /**
+     * Return a code once its room is gone; it becomes available after the quarantine
+     */
+    public void release(long key) {
+        if (key < 0 || key >= CODE_SPACE) {
+            return;
+        }
+        quarantine.offer(new Released(key, System.nanoTime()));
+        quarantined.incrementAndGet();
+    }
+
+    /**
+     * Hand back a code from next() that no room was ever created under; it skips the
+     * quarantine (nobody can hold a link to it) and is the next one handed out
+     */
+    public void unreserve(long key) {
+        if (key < 0 || key >= CODE_SPACE) {
+            return;
+        }
+        unused.offer(key);
+    }
+
+    /**
+     * Number of released codes waiting out their quarantine (or waiting to be reused)
+     */
+    public int getQuarantinedCount() {
+        return quarantined.get();
+    }
+
+    /**
+     * Bijection on [0, CODE_SPACE): Feistel over 32 bits, re-applied while the result
+     * falls outside the code space (cycle walking). Expected ~2 passes.
+     */
+    long permute(long value) {
+        int x = (int) value;
+        do {
+            x = feistel(x);
+        } while (Integer.toUnsignedLong(x) >= CODE_SPACE);
+        return Integer.toUnsignedLong(x);
+    }
+
+    private int feistel(int x) {
+        int left = x >>> 16;
+        int right = x & 0xFFFF;
+        for (int key : roundKeys) {
+            int next = left ^ (round(right, key) & 0xFFFF);
+            left = right;
+            right = next;
+        }
+        return (left << 16) | right;
+    }
+
+    private static int round(int half, int key) {
+        int h = (half ^ key) * 0x9E3779B1;
+        h ^= h >>> 15;
+        h *= 0x85EBCA77;
+        return h ^ (h >>> 13);
+    }
+
+    /**
+     * Identity-compared so remove() takes exactly the entry that was peeked
+     */
+    private static final class Released {
+        private final long key;
+        private final long releasedAtNanos;
+
+        private Released(long key, long releasedAtNanos) {
+            this.key = key;
+            this.releasedAtNanos = releasedAtNanos;
+        }
+    }
+}
\ No newline at end of file
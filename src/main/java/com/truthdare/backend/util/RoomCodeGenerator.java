@@ -1,6 +1,7 @@
 package com.truthdare.backend.util;
 
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 /**
  * Utility class for generating room codes and secure tokens
@@ -8,12 +9,23 @@ import java.security.SecureRandom;
 public class RoomCodeGenerator {
     
     private static final String ROOM_CODE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int ROOM_CODE_LENGTH = 6;
+    public static final int ROOM_CODE_LENGTH = 6;
     private static final int ADMIN_TOKEN_LENGTH = 32;
     private static final SecureRandom random = new SecureRandom();
     
+    // Digit value of each ASCII character in ROOM_CODE_CHARS, -1 for the rest
+    private static final byte[] DIGITS = new byte[128];
+    
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ROOM_CODE_CHARS.length(); i++) {
+            DIGITS[ROOM_CODE_CHARS.charAt(i)] = (byte) i;
+        }
+    }
+    
     /**
      * Generate a random 6-character room code (e.g., "ABC123")
+     * Rooms get their codes from RoomCodeAllocator; this is for one-off codes.
      */
     public static String generateRoomCode() {
         StringBuilder code = new StringBuilder(ROOM_CODE_LENGTH);
@@ -28,10 +40,52 @@ public class RoomCodeGenerator {
      */
     public static String generateAdminToken() {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+        // Draw the randomness in bulk (one call on the shared RNG instead of one per character)
+        // and reject bytes past the largest multiple of the alphabet size to avoid bias
+        int limit = 256 - 256 % chars.length();
+        byte[] bytes = new byte[ADMIN_TOKEN_LENGTH * 2];
         StringBuilder token = new StringBuilder(ADMIN_TOKEN_LENGTH);
-        for (int i = 0; i < ADMIN_TOKEN_LENGTH; i++) {
-            token.append(chars.charAt(random.nextInt(chars.length())));
+        while (token.length() < ADMIN_TOKEN_LENGTH) {
+            random.nextBytes(bytes);
+            for (int i = 0; i < bytes.length && token.length() < ADMIN_TOKEN_LENGTH; i++) {
+                int value = bytes[i] & 0xFF;
+                if (value < limit) {
+                    token.append(chars.charAt(value % chars.length()));
+                }
+            }
         }
         return token.toString();
     }
+    
+    /**
+     * Pack a room code into a number (base 36 over ROOM_CODE_CHARS)
+     * @return The packed code, or -1 if the code is not a valid room code
+     */
+    public static long toKey(String code) {
+        if (code == null || code.length() != ROOM_CODE_LENGTH) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < ROOM_CODE_LENGTH; i++) {
+            char c = code.charAt(i);
+            int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            key = key * ROOM_CODE_CHARS.length() + digit;
+        }
+        return key;
+    }
+    
+    /**
+     * Unpack a number produced by {@link #toKey} into a room code
+     */
+    public static String fromKey(long key) {
+        char[] code = new char[ROOM_CODE_LENGTH];
+        for (int i = ROOM_CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = ROOM_CODE_CHARS.charAt((int) (key % ROOM_CODE_CHARS.length()));
+            key /= ROOM_CODE_CHARS.length();
+        }
+        return new String(code);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.truthdare.backend.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mailbox that runs submitted tasks one at a time, in submission order.
+ * There is no dedicated thread: when the mailbox is idle the submitting thread
+ * drains it inline (so an uncontended mutation runs synchronously), and after
+ * batchLimit tasks the rest is handed to the delegate executor so one busy
+ * mailbox can't hold a caller hostage. Any number of mailboxes share the delegate.
+ *
+ * Tasks must not block waiting on other tasks of the same mailbox.
+ */
+@Slf4j
+public class SerialExecutor implements Executor {
+
+    private final Executor delegate;
+    private final int batchLimit;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // Thread currently draining, to let tasks detect they're already on the mailbox
+    private volatile Thread drainer;
+
+    public SerialExecutor(Executor delegate, int batchLimit) {
+        if (batchLimit <= 0) {
+            throw new IllegalArgumentException("batchLimit must be positive");
+        }
+        this.delegate = delegate;
+        this.batchLimit = batchLimit;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.offer(task);
+        if (draining.compareAndSet(false, true)) {
+            drain();
+        }
+    }
+
+    /**
+     * True if called from a task running on this mailbox
+     */
+    public boolean isCurrentThread() {
+        return drainer == Thread.currentThread();
+    }
+
+    /**
+     * Run queued tasks while holding the draining flag
+     */
+    private void drain() {
+        drainer = Thread.currentThread();
+        int ran = 0;
+        while (true) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                drainer = null;
+                draining.set(false);
+                // A task may have been queued after the poll but before the flag was cleared
+                if (tasks.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+                drainer = Thread.currentThread();
+                continue;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Mailbox task failed", e);
+            }
+            if (++ran >= batchLimit && !tasks.isEmpty()) {
+                // Keep the flag and continue on the delegate
+                drainer = null;
+                delegate.execute(this::drain);
+                return;
+            }
+        }
+    }
+}
\ No newline at end of file
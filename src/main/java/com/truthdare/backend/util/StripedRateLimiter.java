@@ -0,0 +1,88 @@
+package com.truthdare.backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free token buckets for an unbounded set of keys in fixed memory.
+ * Keys are hashed onto a power-of-two number of stripes and each stripe is one bucket,
+ * kept as a single long and updated with compareAndSet: the generic cell rate
+ * algorithm stores the time at which the bucket would be full again, which is all a
+ * token bucket needs. Keys that share a stripe share its budget, which errs on the
+ * strict side; with far more stripes than busy keys that is rare, and memory stays
+ * at 8 bytes per stripe however many keys (e.g. spoofed IPs) show up.
+ */
+public class StripedRateLimiter {
+
+    private final AtomicLongArray fullAt;
+    private final int mask;
+    private final long intervalNanos;  // Time to earn one permit
+    private final long toleranceNanos; // How far ahead of now the bucket may be drawn down
+    private final long origin = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond sustained rate per key
+     * @param burst permits a key may take at once after being idle
+     * @param stripes number of buckets (rounded up to a power of two)
+     */
+    public StripedRateLimiter(double permitsPerSecond, int burst, int stripes) {
+        if (permitsPerSecond <= 0 || burst < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Rate, burst and stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.fullAt = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+    }
+
+    /**
+     * Take one permit for a key
+     * @return 0 if granted, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(stripe(key), System.nanoTime() - origin);
+    }
+
+    /**
+     * Take several permits for a key at once (all or none)
+     * @return 0 if granted, otherwise the nanoseconds until they will all be available
+     * @throws IllegalArgumentException if more permits than the burst are asked for
+     */
+    public long tryAcquire(String key, int permits) {
+        return tryAcquire(stripe(key), System.nanoTime() - origin, permits);
+    }
+
+    long tryAcquire(int stripe, long now) {
+        return tryAcquire(stripe, now, 1);
+    }
+
+    long tryAcquire(int stripe, long now, int permits) {
+        if (permits < 1 || intervalNanos * (permits - 1) > toleranceNanos) {
+            throw new IllegalArgumentException("Permits must be between 1 and the burst");
+        }
+        long cost = intervalNanos * permits;
+        while (true) {
+            long stored = fullAt.get(stripe);
+            long start = Math.max(stored, now);
+            long wait = start + cost - intervalNanos - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(stripe, stored, start + cost)) {
+                return 0;
+            }
+        }
+    }
+
+    int stripe(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    public int getStripeCount() {
+        return mask + 1;
+    }
+}
\ No newline at end of file
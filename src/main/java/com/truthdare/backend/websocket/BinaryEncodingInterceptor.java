@@ -0,0 +1,209 @@
+package com.truthdare.backend.websocket;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-subscription CBOR encoding for clients on the raw WebSocket endpoint.
+ * A client asks for it with "content-type:application/cbor" on SUBSCRIBE; MESSAGE
+ * frames for that subscription then carry the same document as CBOR instead of JSON,
+ * in binary WebSocket frames with content-type "application/octet-stream;codec=cbor"
+ * (Spring only sends binary frames for octet-stream). Other subscriptions, and every
+ * SockJS session (text-only), keep getting JSON.
+ *
+ * This interceptor goes on the inbound channel, where it only tracks subscriptions
+ * (client SEND frames are never transcoded); {@link #outbound()} goes on the outbound
+ * channel and re-encodes MESSAGE frames. Payloads are transcoded token by token without building a tree, and a
+ * frame fanned out to many CBOR subscribers is transcoded once.
+ */
+@Slf4j
+@Component
+public class BinaryEncodingInterceptor implements ChannelInterceptor, HandshakeInterceptor {
+
+    public static final MimeType CBOR = MimeType.valueOf("application/cbor");
+    public static final MimeType CBOR_FRAME = new MimeType(MimeTypeUtils.APPLICATION_OCTET_STREAM, Map.of("codec", "cbor"));
+
+    // Session attribute set on handshakes through the raw endpoint
+    private static final String BINARY_CAPABLE = BinaryEncodingInterceptor.class.getName() + ".binary";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CBORFactory cborFactory = new CBORFactory();
+
+    // sessionId -> IDs of its subscriptions that asked for CBOR
+    private final Map<String, Set<String>> cborSubscriptions = new ConcurrentHashMap<>();
+
+    // Last transcoded payload: the simple broker hands every subscriber the same array
+    private volatile Transcoded last;
+
+    private final AtomicLong framesEncoded = new AtomicLong();
+    private final AtomicLong transcodes = new AtomicLong();
+    private final AtomicLong jsonBytes = new AtomicLong();
+    private final AtomicLong cborBytes = new AtomicLong();
+
+    private final ChannelInterceptor outbound = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            return encode(message);
+        }
+    };
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        attributes.put(BINARY_CAPABLE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    /**
+     * Interceptor for the outbound channel, which transcodes MESSAGE frames for CBOR subscriptions
+     */
+    public ChannelInterceptor outbound() {
+        return outbound;
+    }
+
+    /**
+     * Inbound: track which subscriptions asked for CBOR
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (type == null || sessionId == null) {
+            return message;
+        }
+        switch (type) {
+            case SUBSCRIBE -> subscribe(headers, sessionId);
+            case UNSUBSCRIBE -> unsubscribe(sessionId, SimpMessageHeaderAccessor.getSubscriptionId(headers));
+            case DISCONNECT -> cborSubscriptions.remove(sessionId);
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private void subscribe(MessageHeaders headers, String sessionId) {
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+        if (subscriptionId == null) {
+            return;
+        }
+        String requested = NativeMessageHeaderAccessor.getFirstNativeHeader(StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER, headers);
+        if (requested == null || !CBOR.isCompatibleWith(MimeTypeUtils.parseMimeType(requested))) {
+            return;
+        }
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(headers);
+        if (attributes == null || !Boolean.TRUE.equals(attributes.get(BINARY_CAPABLE))) {
+            log.debug("Session {} asked for CBOR over SockJS, keeping JSON", sessionId);
+            return;
+        }
+        cborSubscriptions.computeIfAbsent(sessionId, id -> ConcurrentHashMap.newKeySet()).add(subscriptionId);
+    }
+
+    private void unsubscribe(String sessionId, String subscriptionId) {
+        Set<String> subscriptions = cborSubscriptions.get(sessionId);
+        if (subscriptions != null && subscriptionId != null) {
+            subscriptions.remove(subscriptionId);
+        }
+    }
+
+    private Message<?> encode(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+        Set<String> subscriptions = sessionId != null ? cborSubscriptions.get(sessionId) : null;
+        if (subscriptions == null || subscriptionId == null || !subscriptions.contains(subscriptionId)
+                || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (!MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(accessor.getContentType())) {
+            return message;
+        }
+        byte[] cbor = transcode(json);
+        accessor.setContentType(CBOR_FRAME);
+        accessor.setNativeHeader(StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER, CBOR_FRAME.toString());
+        accessor.removeNativeHeader(StompHeaderAccessor.STOMP_CONTENT_LENGTH_HEADER);
+        framesEncoded.incrementAndGet();
+        return MessageBuilder.createMessage(cbor, accessor.getMessageHeaders());
+    }
+
+    private byte[] transcode(byte[] json) {
+        Transcoded cached = last;
+        if (cached != null && cached.json() == json) {
+            return cached.cbor();
+        }
+        byte[] cbor = toCbor(json);
+        last = new Transcoded(json, cbor);
+        transcodes.incrementAndGet();
+        jsonBytes.addAndGet(json.length);
+        cborBytes.addAndGet(cbor.length);
+        return cbor;
+    }
+
+    /**
+     * Re-encode a JSON document as CBOR by streaming its tokens (no cache)
+     */
+    byte[] toCbor(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonParser parser = jsonFactory.createParser(json);
+             JsonGenerator generator = cborFactory.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * CBOR frames sent, distinct payloads transcoded and their total sizes
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cborSessions", cborSubscriptions.size());
+        stats.put("cborFrames", framesEncoded.get());
+        stats.put("transcodes", transcodes.get());
+        stats.put("jsonBytes", jsonBytes.get());
+        stats.put("cborBytes", cborBytes.get());
+        return stats;
+    }
+
+    private record Transcoded(byte[] json, byte[] cbor) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.truthdare.backend.websocket;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.truthdare.backend.dto.RoomPatchDto;
+import com.truthdare.backend.dto.WebSocketEvent;
+import com.truthdare.backend.jfr.RoomBroadcastEvent;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.model.RoomSnapshot;
+import com.truthdare.backend.service.RoomService;
+import com.truthdare.backend.service.RoomStateCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-room outbound batching for the room topic.
+ * Events queued for a room within websocket.batch.window-ms are sent together with
+ * the room's state update as one BATCH frame. The state is computed once when the
+ * batch is flushed, so intermediate states of a burst of changes are never sent.
+ * A batch holding a single item is sent as that item alone.
+ *
+ * The ws-batch timer only schedules: due batches are flushed on the common pool that
+ * also runs the room mailboxes, so state diffing, encoding and sending run in parallel
+ * across rooms (and in order within one, on its mailbox).
+ *
+ * Each frame records its size and the time from the batch's first enqueue to the
+ * frame being handed to the broker (truthdare.broadcast.frame.size / .latency).
+ *
+ * Batches for rooms without subscribers (e.g. rooms created in bulk that nobody has
+ * opened yet) are dropped before any state is computed or encoded. The next frame the
+ * room does send then carries the full state.
+ */
+@Slf4j
+@Component
+public class RoomBroadcastBatcher {
+
+    public static final String EVENT_BATCH = "BATCH";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomService roomService;
+    private final RoomStateCache roomStateCache;
+    private final WebSocketSessionTracker sessionTracker;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Executor flushExecutor = ForkJoinPool.commonPool(); // Sized to the cores, shared with the mailboxes
+
+    private final Map<String, PendingBatch> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong patchesSent = new AtomicLong();
+    private final AtomicLong fullStatesSent = new AtomicLong();
+    private final AtomicLong batchesSkipped = new AtomicLong();
+
+    private final Timer broadcastLatency;
+    private final DistributionSummary frameSize;
+
+    public RoomBroadcastBatcher(SimpMessagingTemplate messagingTemplate,
+                                RoomService roomService,
+                                RoomStateCache roomStateCache,
+                                WebSocketSessionTracker sessionTracker,
+                                MeterRegistry meterRegistry,
+                                @Value("${websocket.batch.window-ms:15}") long windowMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.roomService = roomService;
+        this.roomStateCache = roomStateCache;
+        this.sessionTracker = sessionTracker;
+        this.windowMillis = windowMillis;
+        this.broadcastLatency = Timer.builder("truthdare.broadcast.latency")
+                .description("Time from queueing a room broadcast to handing its frame to the broker")
+                .register(meterRegistry);
+        this.frameSize = DistributionSummary.builder("truthdare.broadcast.frame.size")
+                .description("Size of frames sent to room topics")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue an event (may be null) and/or a state update for a room
+     */
+    public void enqueue(String roomCode, WebSocketEvent event, boolean includeState) {
+        while (true) {
+            PendingBatch batch = pending.computeIfAbsent(roomCode, PendingBatch::new);
+            synchronized (batch) {
+                if (batch.flushed) {
+                    continue; // Lost the race with the flush; start a new batch
+                }
+                if (event != null) {
+                    batch.events.add(event);
+                }
+                batch.includeState |= includeState;
+                if (batch.scheduled) {
+                    return;
+                }
+                batch.scheduled = true;
+            }
+            if (windowMillis <= 0) {
+                flush(batch);
+            } else {
+                scheduler.schedule(() -> flushExecutor.execute(() -> flush(batch)), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+    }
+
+    private void flush(PendingBatch batch) {
+        pending.remove(batch.roomCode, batch);
+        List<WebSocketEvent> events;
+        boolean includeState;
+        synchronized (batch) {
+            batch.flushed = true;
+            events = batch.events;
+            includeState = batch.includeState;
+        }
+
+        if (!sessionTracker.hasRoomSubscribers(batch.roomCode)) {
+            batchesSkipped.incrementAndGet();
+            Room room = roomService.getRoomByCode(batch.roomCode);
+            if (room != null) {
+                // Whoever subscribes next gets the state on subscribe; later patches must not assume they saw this one
+                room.submit(r -> {
+                    r.setLastBroadcastSnapshot(null);
+                    return null;
+                });
+            }
+            return;
+        }
+
+        Room room = roomService.getRoomByCode(batch.roomCode);
+        if (room == null) {
+            // Room already removed (e.g. its closing event): no state, and no mailbox to order on
+            RoomBroadcastEvent event = RoomBroadcastEvent.start(batch.roomCode, System.nanoTime() - batch.createdAt);
+            event.finish(events.size(), send(batch, new ArrayList<>(events)), false);
+            return;
+        }
+        // State diffing and sending happen on the room's mailbox so frames leave in order,
+        // even when batches of one room are flushed on different pool threads
+        room.submit(r -> {
+            RoomBroadcastEvent event = RoomBroadcastEvent.start(batch.roomCode, System.nanoTime() - batch.createdAt);
+            int itemCount = 0;
+            int frameBytes = 0;
+            boolean fullState = false;
+            try {
+                List<Object> items = new ArrayList<>(events);
+                Object state = includeState ? nextStateUpdate(r) : null;
+                if (state instanceof byte[] json) {
+                    fullState = true;
+                    if (items.isEmpty()) {
+                        // A lone full state goes out as the cached bytes without re-encoding
+                        frameBytes = sendJson(batch, json, 1);
+                        itemCount = 1;
+                        return null;
+                    }
+                    items.add(new RawValue(new String(json, StandardCharsets.UTF_8)));
+                } else if (state != null) {
+                    items.add(state);
+                }
+                frameBytes = send(batch, items);
+                itemCount = items.size();
+            } catch (RuntimeException e) {
+                log.error("Failed to broadcast to room {}", batch.roomCode, e);
+            } finally {
+                event.finish(itemCount, frameBytes, fullState);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * ROOM_PATCH event against the last state sent, the cached ROOM_STATE event JSON if
+     * there is none or the change isn't patchable, or null if nothing visible changed
+     */
+    private Object nextStateUpdate(Room room) {
+        RoomSnapshot current = room.getSnapshot();
+        RoomSnapshot last = room.getLastBroadcastSnapshot();
+        if (last != null && last.version() == current.version()) {
+            return null; // Subscribers already have this version
+        }
+
+        List<RoomPatchDto.Op> ops = last != null ? RoomPatchBuilder.diff(last, current) : null;
+        if (ops != null && ops.isEmpty()) {
+            return null; // Nothing visible changed; the next patch stays based on the last one sent
+        }
+
+        room.setLastBroadcastSnapshot(current);
+        if (ops != null) {
+            patchesSent.incrementAndGet();
+            return new WebSocketEvent(WebSocketService.EVENT_ROOM_PATCH, new RoomPatchDto(current.version(), last.version(), ops));
+        }
+        fullStatesSent.incrementAndGet();
+        return roomStateCache.get(room).eventJson();
+    }
+
+    /**
+     * @return the frame size in bytes, 0 if nothing was sent
+     */
+    private int send(PendingBatch batch, List<Object> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        Object payload = items.size() == 1 ? items.get(0) : new WebSocketEvent(EVENT_BATCH, items);
+        // Encoded here rather than by convertAndSend so the frame size is known
+        Message<?> encoded = messagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (encoded == null || !(encoded.getPayload() instanceof byte[] json)) {
+            throw new IllegalStateException("Cannot encode frame for room " + batch.roomCode);
+        }
+        sendJson(batch, json, items.size());
+        log.debug("Broadcasted {} item(s) to room {}", items.size(), batch.roomCode);
+        return json.length;
+    }
+
+    private int sendJson(PendingBatch batch, byte[] json, int itemCount) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send("/topic/room/" + batch.roomCode, MessageBuilder.createMessage(json, accessor.getMessageHeaders()));
+        framesSent.incrementAndGet();
+        eventsSent.addAndGet(itemCount);
+        frameSize.record(json.length);
+        broadcastLatency.record(System.nanoTime() - batch.createdAt, TimeUnit.NANOSECONDS);
+        return json.length;
+    }
+
+    /**
+     * Frames sent to room topics and the items they carried
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("windowMs", windowMillis);
+        stats.put("frames", framesSent.get());
+        stats.put("items", eventsSent.get());
+        stats.put("patches", patchesSent.get());
+        stats.put("fullStates", fullStatesSent.get());
+        stats.put("skippedNoSubscribers", batchesSkipped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static final class PendingBatch {
+        private final String roomCode;
+        private final long createdAt = System.nanoTime();
+        private final List<WebSocketEvent> events = new ArrayList<>();
+        private boolean includeState;
+        private boolean scheduled;
+        private boolean flushed;
+
+        private PendingBatch(String roomCode) {
+            this.roomCode = roomCode;
+        }
+    }
+}
\ No newline at end of file
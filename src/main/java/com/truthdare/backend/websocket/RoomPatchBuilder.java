@@ -0,0 +1,75 @@
+package com.truthdare.backend.websocket;
+
+import com.truthdare.backend.dto.RoomPatchDto;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.RoomSnapshot;
+import com.truthdare.backend.service.GameService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Computes the patch ops that take one room snapshot to another
+ */
+final class RoomPatchBuilder {
+    
+    private RoomPatchBuilder() {
+    }
+    
+    /**
+     * Ops turning {@code from} into {@code to}
+     * @return The ops (empty if nothing clients see changed), or null if the change
+     * can't be expressed as a patch and a full state should be sent instead
+     */
+    static List<RoomPatchDto.Op> diff(RoomSnapshot from, RoomSnapshot to) {
+        List<RoomPatchDto.Op> ops = new ArrayList<>();
+        
+        if (!from.players().equals(to.players())) {
+            Set<String> remaining = new HashSet<>();
+            to.players().forEach(p -> remaining.add(p.getPlayerId()));
+            Set<String> existing = new HashSet<>();
+            List<String> patched = new ArrayList<>();
+            for (Player player : from.players()) {
+                existing.add(player.getPlayerId());
+                if (remaining.contains(player.getPlayerId())) {
+                    patched.add(player.getPlayerId());
+                } else {
+                    ops.add(new RoomPatchDto.Op(RoomPatchDto.PLAYER_REMOVED, player.getPlayerId()));
+                }
+            }
+            for (Player player : to.players()) {
+                if (!existing.contains(player.getPlayerId())) {
+                    ops.add(new RoomPatchDto.Op(RoomPatchDto.PLAYER_ADDED, GameService.toPlayerDto(player)));
+                    patched.add(player.getPlayerId());
+                }
+            }
+            // Removals plus appends must reproduce the new order (and players must not have changed in place)
+            List<String> expected = to.players().stream().map(Player::getPlayerId).toList();
+            if (!patched.equals(expected) || changedInPlace(from.players(), to.players(), remaining)) {
+                return null;
+            }
+        }
+        if (from.currentTurnIndex() != to.currentTurnIndex()) {
+            ops.add(new RoomPatchDto.Op(RoomPatchDto.TURN, to.currentTurnIndex()));
+        }
+        if (!Objects.equals(from.currentQuestion(), to.currentQuestion())) {
+            ops.add(new RoomPatchDto.Op(RoomPatchDto.QUESTION,
+                    to.currentQuestion() != null ? GameService.toQuestionDto(to.currentQuestion()) : null));
+        }
+        if (from.status() != to.status()) {
+            ops.add(new RoomPatchDto.Op(RoomPatchDto.STATUS, to.status()));
+        }
+        if (from.gameMode() != to.gameMode()) {
+            ops.add(new RoomPatchDto.Op(RoomPatchDto.GAME_MODE, to.gameMode()));
+        }
+        return ops;
+    }
+    
+    private static boolean changedInPlace(List<Player> from, List<Player> to, Set<String> remaining) {
+        List<Player> kept = from.stream().filter(p -> remaining.contains(p.getPlayerId())).toList();
+        return !to.subList(0, kept.size()).equals(kept);
+    }
+}
\ No newline at end of file
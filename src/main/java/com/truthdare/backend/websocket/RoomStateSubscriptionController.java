@@ -0,0 +1,35 @@
+package com.truthdare.backend.websocket;
+
+import com.truthdare.backend.dto.WebSocketEvent;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.service.GameService;
+import com.truthdare.backend.service.RoomService;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Full room state for clients subscribing to /app/room/{roomCode}/state
+ * The reply goes only to the subscriber, once; later changes arrive as ROOM_PATCH
+ * events on /topic/room/{roomCode}.
+ */
+@Controller
+public class RoomStateSubscriptionController {
+    
+    private final RoomService roomService;
+    private final GameService gameService;
+    
+    public RoomStateSubscriptionController(RoomService roomService, GameService gameService) {
+        this.roomService = roomService;
+        this.gameService = gameService;
+    }
+    
+    @SubscribeMapping("/room/{roomCode}/state")
+    public WebSocketEvent subscribeRoomState(@DestinationVariable String roomCode) {
+        Room room = roomService.getRoomByCode(roomCode.toUpperCase());
+        if (room == null) {
+            return null; // Nothing to send
+        }
+        return new WebSocketEvent(WebSocketService.EVENT_ROOM_STATE, gameService.toRoomStateDto(room));
+    }
+}
\ No newline at end of file
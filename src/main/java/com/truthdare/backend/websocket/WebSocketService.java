@@ -1,8 +1,6 @@
 package com.truthdare.backend.websocket;
 
-import com.truthdare.backend.dto.RoomStateDto;
 import com.truthdare.backend.dto.WebSocketEvent;
-import com.truthdare.backend.service.GameService;
 import com.truthdare.backend.service.RoomService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -17,7 +15,7 @@ public class WebSocketService {
     
     private final SimpMessagingTemplate messagingTemplate;
     private final RoomService roomService;
-    private final GameService gameService;
+    private final RoomBroadcastBatcher batcher;
     
     // WebSocket event types
     public static final String EVENT_ROOM_CREATED = "ROOM_CREATED";
@@ -26,20 +24,26 @@ public class WebSocketService {
     public static final String EVENT_GAME_STARTED = "GAME_STARTED";
     public static final String EVENT_QUESTION_SENT = "QUESTION_SENT";
     public static final String EVENT_ADMIN_OVERRIDE = "ADMIN_OVERRIDE";
+    public static final String EVENT_ADMIN_QUESTIONS_QUEUED = "ADMIN_QUESTIONS_QUEUED";
     public static final String EVENT_NEXT_TURN = "NEXT_TURN";
     public static final String EVENT_ROOM_STATE = "ROOM_STATE";
+    public static final String EVENT_ROOM_PATCH = "ROOM_PATCH";
     public static final String EVENT_GAME_MODE_CHANGED = "GAME_MODE_CHANGED";
+    public static final String EVENT_ROOM_CLOSED = "ROOM_CLOSED";
     
     public WebSocketService(SimpMessagingTemplate messagingTemplate,
                            RoomService roomService,
-                           GameService gameService) {
+                           RoomBroadcastBatcher batcher) {
         this.messagingTemplate = messagingTemplate;
         this.roomService = roomService;
-        this.gameService = gameService;
+        this.batcher = batcher;
     }
     
     /**
      * Broadcast a room state update to all subscribers of a room
+     * Queued on the room's outbound batch; the update sent is a ROOM_PATCH against the
+     * last state sent, or a full ROOM_STATE if there is none or the change can't be
+     * expressed as a patch. Several updates within one batch window collapse into one.
      */
     public void broadcastRoomState(String roomId) {
         var room = roomService.getRoomById(roomId);
@@ -48,24 +52,25 @@ public class WebSocketService {
             return;
         }
         
-        RoomStateDto state = gameService.toRoomStateDto(room);
-        WebSocketEvent event = new WebSocketEvent(EVENT_ROOM_STATE, state);
-        
-        String topic = "/topic/room/" + room.getRoomCode();
-        messagingTemplate.convertAndSend(topic, event);
-        
-        log.debug("Broadcasted room state for room {}", room.getRoomCode());
+        batcher.enqueue(room.getRoomCode(), null, true);
     }
     
     /**
      * Broadcast a custom event to a room
      */
     public void broadcastEvent(String roomCode, String eventType, Object data) {
-        WebSocketEvent event = new WebSocketEvent(eventType, data);
-        String topic = "/topic/room/" + roomCode;
-        messagingTemplate.convertAndSend(topic, event);
+        batcher.enqueue(roomCode, new WebSocketEvent(eventType, data), false);
+        
+        log.debug("Queued event {} for room {}", eventType, roomCode);
+    }
+    
+    /**
+     * Broadcast an event to a room together with the resulting state update (one frame)
+     */
+    private void broadcastEventWithState(String roomCode, String eventType, Object data) {
+        batcher.enqueue(roomCode, new WebSocketEvent(eventType, data), true);
         
-        log.debug("Broadcasted event {} to room {}", eventType, roomCode);
+        log.debug("Queued event {} with state for room {}", eventType, roomCode);
     }
     
     /**
@@ -83,86 +88,70 @@ public class WebSocketService {
      * Notify that a room was created
      */
     public void notifyRoomCreated(String roomCode, Object data) {
-        broadcastEvent(roomCode, EVENT_ROOM_CREATED, data);
+        broadcastEventWithState(roomCode, EVENT_ROOM_CREATED, data);
     }
     
     /**
      * Notify that a player joined
      */
     public void notifyPlayerJoined(String roomCode, Object playerData) {
-        broadcastEvent(roomCode, EVENT_PLAYER_JOINED, playerData);
-        // Also update room state
-        var room = roomService.getRoomByCode(roomCode);
-        if (room != null) {
-            broadcastRoomState(room.getRoomId());
-        }
+        broadcastEventWithState(roomCode, EVENT_PLAYER_JOINED, playerData);
     }
     
     /**
      * Notify that a player left
      */
     public void notifyPlayerLeft(String roomCode, String playerId) {
-        broadcastEvent(roomCode, EVENT_PLAYER_LEFT, new PlayerLeftData(playerId));
-        // Also update room state
-        var room = roomService.getRoomByCode(roomCode);
-        if (room != null) {
-            broadcastRoomState(room.getRoomId());
-        }
+        broadcastEventWithState(roomCode, EVENT_PLAYER_LEFT, new PlayerLeftData(playerId));
     }
     
     /**
      * Notify that the game started
      */
     public void notifyGameStarted(String roomCode) {
-        broadcastEvent(roomCode, EVENT_GAME_STARTED, null);
-        // Also update room state
-        var room = roomService.getRoomByCode(roomCode);
-        if (room != null) {
-            broadcastRoomState(room.getRoomId());
-        }
+        broadcastEventWithState(roomCode, EVENT_GAME_STARTED, null);
     }
     
     /**
      * Notify that a question was sent
      */
     public void notifyQuestionSent(String roomCode, Object questionData) {
-        broadcastEvent(roomCode, EVENT_QUESTION_SENT, questionData);
-        // Also update room state
-        var room = roomService.getRoomByCode(roomCode);
-        if (room != null) {
-            broadcastRoomState(room.getRoomId());
-        }
+        broadcastEventWithState(roomCode, EVENT_QUESTION_SENT, questionData);
     }
     
     /**
      * Notify admin override
      */
     public void notifyAdminOverride(String roomCode, Object questionData) {
-        broadcastEvent(roomCode, EVENT_ADMIN_OVERRIDE, questionData);
-        // Also update room state
-        var room = roomService.getRoomByCode(roomCode);
-        if (room != null) {
-            broadcastRoomState(room.getRoomId());
-        }
+        broadcastEventWithState(roomCode, EVENT_ADMIN_OVERRIDE, questionData);
+    }
+    
+    /**
+     * Notify that admin questions were queued in bulk (counts only; the texts stay hidden until served)
+     */
+    public void notifyAdminQuestionsQueued(String roomCode, int queued, int pending) {
+        broadcastEventWithState(roomCode, EVENT_ADMIN_QUESTIONS_QUEUED, new AdminQuestionsQueuedData(queued, pending));
     }
     
     /**
      * Notify next turn
      */
     public void notifyNextTurn(String roomCode) {
-        broadcastEvent(roomCode, EVENT_NEXT_TURN, null);
-        // Also update room state
-        var room = roomService.getRoomByCode(roomCode);
-        if (room != null) {
-            broadcastRoomState(room.getRoomId());
-        }
+        broadcastEventWithState(roomCode, EVENT_NEXT_TURN, null);
     }
     
     /**
      * Notify game mode changed
      */
     public void notifyGameModeChanged(String roomCode, Object gameModeData) {
-        broadcastEvent(roomCode, EVENT_GAME_MODE_CHANGED, gameModeData);
+        broadcastEventWithState(roomCode, EVENT_GAME_MODE_CHANGED, gameModeData);
+    }
+    
+    /**
+     * Notify that the room is about to be closed by the server
+     */
+    public void notifyRoomClosed(String roomCode, String reason) {
+        broadcastEvent(roomCode, EVENT_ROOM_CLOSED, new RoomClosedData(reason));
     }
     
     // Helper class for player left event
@@ -173,4 +162,24 @@ public class WebSocketService {
             this.playerId = playerId;
         }
     }
+    
+    // Helper class for room closed event
+    private static class RoomClosedData {
+        public String reason;
+        
+        public RoomClosedData(String reason) {
+            this.reason = reason;
+        }
+    }
+    
+    // Helper class for admin questions queued event
+    private static class AdminQuestionsQueuedData {
+        public int queued;
+        public int pending;
+        
+        public AdminQuestionsQueuedData(int queued, int pending) {
+            this.queued = queued;
+            this.pending = pending;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.truthdare.backend.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks connected STOMP sessions (raw WebSocket and SockJS) for the sessions gauge,
+ * and this node's subscriptions to room topics so broadcasts to rooms nobody watches
+ * can be skipped.
+ * Keyed by session ID, so a disconnect reported twice is only counted once. With a
+ * relayed broker a room's subscribers may be connected to other nodes, so every room
+ * is then assumed to have some.
+ */
+@Component
+public class WebSocketSessionTracker {
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+
+    private final boolean brokerRelayed;
+
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    // sessionId -> (subscriptionId -> room code) for room topic subscriptions
+    private final Map<String, Map<String, String>> roomSubscriptions = new ConcurrentHashMap<>();
+    // room code -> number of subscriptions on this node
+    private final Map<String, Integer> roomSubscribers = new ConcurrentHashMap<>();
+
+    public WebSocketSessionTracker(@Value("${websocket.broker.mode:simple}") String brokerMode) {
+        this.brokerRelayed = "relay".equalsIgnoreCase(brokerMode);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessions.add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String roomCode = roomCodeOf(headers.getDestination());
+        if (roomCode == null || headers.getSessionId() == null || headers.getSubscriptionId() == null) {
+            return;
+        }
+        String previous = roomSubscriptions.computeIfAbsent(headers.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(headers.getSubscriptionId(), roomCode);
+        if (previous != null) {
+            removeSubscriber(previous); // Subscription ID reused without an unsubscribe
+        }
+        roomSubscribers.merge(roomCode, 1, Integer::sum);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = roomSubscriptions.get(headers.getSessionId());
+        if (subscriptions != null && headers.getSubscriptionId() != null) {
+            String roomCode = subscriptions.remove(headers.getSubscriptionId());
+            if (roomCode != null) {
+                removeSubscriber(roomCode);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+        Map<String, String> subscriptions = roomSubscriptions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::removeSubscriber);
+        }
+    }
+
+    private void removeSubscriber(String roomCode) {
+        roomSubscribers.computeIfPresent(roomCode, (code, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Room code of a room topic destination (not its admin sub-topic), or null
+     */
+    private static String roomCodeOf(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            return null;
+        }
+        String roomCode = destination.substring(ROOM_TOPIC_PREFIX.length());
+        return roomCode.isEmpty() || roomCode.indexOf('/') >= 0 ? null : roomCode;
+    }
+
+    /**
+     * Whether a broadcast to the room's topic may reach anyone
+     */
+    public boolean hasRoomSubscribers(String roomCode) {
+        return brokerRelayed || roomSubscribers.containsKey(roomCode);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.truthdare.backend.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiCircuitBreakerTests {
+
+	private static final long MILLI = 1_000_000L;
+	private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	void opensWhenFailureRateCrossesThreshold() {
+		ApiCircuitBreaker breaker = breaker(2);
+		succeed(breaker);
+		fail(breaker);
+		succeed(breaker);
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.CLOSED);
+
+		fail(breaker);
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire()).isEqualTo(ApiCircuitBreaker.NO_PERMIT);
+		assertThat(breaker.getRejectedCalls()).isEqualTo(1);
+	}
+
+	@Test
+	void letsTrialCallsThroughOnceOpenDurationPassesThenCloses() {
+		ApiCircuitBreaker breaker = breaker(2);
+		open(breaker);
+
+		now.addAndGet(OPEN_DURATION.toNanos() - 1);
+		assertThat(breaker.tryAcquire()).isEqualTo(ApiCircuitBreaker.NO_PERMIT);
+		now.incrementAndGet();
+
+		long first = breaker.tryAcquire();
+		long second = breaker.tryAcquire();
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.HALF_OPEN);
+		assertThat(first).isNotEqualTo(ApiCircuitBreaker.NO_PERMIT);
+		assertThat(second).isNotEqualTo(ApiCircuitBreaker.NO_PERMIT);
+		assertThat(breaker.tryAcquire()).isEqualTo(ApiCircuitBreaker.NO_PERMIT);
+
+		breaker.onSuccess(first, 10 * MILLI);
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.HALF_OPEN);
+		breaker.onSuccess(second, 10 * MILLI);
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.CLOSED);
+		assertThat(breaker.getTransitionCount(ApiCircuitBreaker.State.CLOSED)).isEqualTo(1);
+	}
+
+	@Test
+	void failedTrialReopens() {
+		ApiCircuitBreaker breaker = breaker(2);
+		open(breaker);
+		now.addAndGet(OPEN_DURATION.toNanos());
+
+		long trial = breaker.tryAcquire();
+		breaker.onFailure(trial, 10 * MILLI);
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire()).isEqualTo(ApiCircuitBreaker.NO_PERMIT);
+	}
+
+	@Test
+	void callStartedWhileClosedDoesNotCountAsTrial() {
+		ApiCircuitBreaker breaker = breaker(1);
+		long slow = breaker.tryAcquire();
+		open(breaker);
+		now.addAndGet(OPEN_DURATION.toNanos());
+
+		long trial = breaker.tryAcquire();
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.HALF_OPEN);
+
+		// The slow call from before the circuit opened finishes during the trial
+		breaker.onSuccess(slow, 3000 * MILLI);
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.HALF_OPEN);
+		breaker.onFailure(slow, 3000 * MILLI);
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.HALF_OPEN);
+
+		breaker.onSuccess(trial, 10 * MILLI);
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void timeoutFollowsObservedP99WithinBounds() {
+		ApiCircuitBreaker breaker = new ApiCircuitBreaker(20, 4, 0.5, OPEN_DURATION, 2,
+				Duration.ofMillis(100), Duration.ofSeconds(5), 2.0, now::get);
+		assertThat(breaker.getCurrentTimeout()).isEqualTo(Duration.ofSeconds(5));
+
+		for (int i = 0; i < 10; i++) {
+			breaker.onSuccess(breaker.tryAcquire(), 200 * MILLI);
+		}
+		assertThat(breaker.getCurrentTimeout()).isEqualTo(Duration.ofMillis(400));
+
+		for (int i = 0; i < 10; i++) {
+			breaker.onSuccess(breaker.tryAcquire(), 10 * MILLI);
+		}
+		// p99 is still the 200 ms calls
+		assertThat(breaker.getCurrentTimeout()).isEqualTo(Duration.ofMillis(400));
+
+		for (int i = 0; i < 20; i++) {
+			breaker.onSuccess(breaker.tryAcquire(), 10 * MILLI);
+		}
+		assertThat(breaker.getCurrentTimeout()).isEqualTo(Duration.ofMillis(100));
+	}
+
+	private ApiCircuitBreaker breaker(int halfOpenTrialCalls) {
+		return new ApiCircuitBreaker(4, 4, 0.5, OPEN_DURATION, halfOpenTrialCalls,
+				Duration.ofMillis(100), Duration.ofSeconds(5), 2.0, now::get);
+	}
+
+	private void open(ApiCircuitBreaker breaker) {
+		for (int i = 0; i < 4; i++) {
+			fail(breaker);
+		}
+		assertThat(breaker.getState()).isEqualTo(ApiCircuitBreaker.State.OPEN);
+	}
+
+	private static void succeed(ApiCircuitBreaker breaker) {
+		breaker.onSuccess(breaker.tryAcquire(), 10 * MILLI);
+	}
+
+	private static void fail(ApiCircuitBreaker breaker) {
+		breaker.onFailure(breaker.tryAcquire(), 10 * MILLI);
+	}
+}
\ No newline at end of file
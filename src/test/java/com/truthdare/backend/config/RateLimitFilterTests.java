@@ -0,0 +1,91 @@
+package com.truthdare.backend.config;
+
+import com.truthdare.backend.service.ClusterService;
+import com.truthdare.backend.service.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+	@Test
+	void rejectsCallsOverTheRoomBudgetWithRetryAfter() throws Exception {
+		// 1 call/s per room, burst 2; IP and endpoint budgets out of the way
+		RateLimitFilter filter = new RateLimitFilter(new RateLimitService(true, 64, 1000, 1000, 1, 2,
+				1000, 1000, 1000, 50, 500, new SimpleMeterRegistry()), standalone());
+
+		assertThat(question(filter).getStatus()).isEqualTo(200);
+		assertThat(question(filter).getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse rejected = question(filter);
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(rejected.getContentAsString()).contains("\"scope\":\"room\"");
+	}
+
+	@Test
+	void leavesHealthChecksAlone() throws Exception {
+		RateLimitFilter filter = new RateLimitFilter(new RateLimitService(true, 64, 1, 1, 1, 1,
+				1, 1, 1, 50, 500, new SimpleMeterRegistry()), standalone());
+
+		for (int i = 0; i < 5; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(new MockHttpServletRequest("GET", "/api/health"), response, new MockFilterChain());
+			assertThat(response.getStatus()).isEqualTo(200);
+		}
+	}
+
+	@Test
+	void chargesTheClientIpEvenWhenItClaimsToBeForwarded() throws Exception {
+		// 1 call/s per IP, burst 1; room and endpoint budgets out of the way
+		RateLimitFilter filter = new RateLimitFilter(new RateLimitService(true, 64, 1, 1, 1000, 1000,
+				1000, 1000, 1000, 50, 500, new SimpleMeterRegistry()), standalone());
+
+		assertThat(question(filter, "1").getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse rejected = question(filter, "1");
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(rejected.getContentAsString()).contains("\"scope\":\"ip\"");
+	}
+
+	@Test
+	void callsOverTheirIpBudgetDoNotUseUpTheEndpointBudget() throws Exception {
+		// 1 call/s per IP, burst 1; the question endpoint allows 2 calls/s node-wide
+		RateLimitFilter filter = new RateLimitFilter(new RateLimitService(true, 64, 1, 1, 1000, 1000,
+				1000, 1000, 2, 50, 500, new SimpleMeterRegistry()), standalone());
+
+		assertThat(question(filter).getStatus()).isEqualTo(200);
+		for (int i = 0; i < 5; i++) {
+			assertThat(question(filter).getStatus()).isEqualTo(429);
+		}
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/game/XYZ789-1/question");
+		request.setRemoteAddr("198.51.100.20");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		assertThat(response.getStatus()).isEqualTo(200);
+	}
+
+	private static ClusterService standalone() {
+		return new ClusterService(false, "", "", 160, "forward", "");
+	}
+
+	private static MockHttpServletResponse question(RateLimitFilter filter) throws Exception {
+		return question(filter, null);
+	}
+
+	private static MockHttpServletResponse question(RateLimitFilter filter, String hops) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/game/ABC123-1/question");
+		request.setRemoteAddr("203.0.113.7");
+		if (hops != null) {
+			request.addHeader(ClusterService.HOPS_HEADER, hops);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.truthdare.backend.controller;
+
+import com.truthdare.backend.client.TruthDareApiClient;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.QuestionDeck;
+import com.truthdare.backend.model.Room;
+import com.truthdare.backend.service.GameService;
+import com.truthdare.backend.service.RoomService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"questions.prefetch.enabled=false", "rate-limit.enabled=false"})
+@AutoConfigureMockMvc
+class GameControllerAsyncTests {
+
+	private static final Duration UPSTREAM_DELAY = Duration.ofMillis(500);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private GameService gameService;
+
+	@MockitoBean
+	private TruthDareApiClient apiClient;
+
+	@Test
+	void questionRequestsReleaseServletThreadWhileUpstreamIsInFlight() throws Exception {
+		when(apiClient.getQuestionForGameMode(any(), any()))
+				.thenAnswer(invocation -> Mono.just("Tell us your biggest fear").delayElement(UPSTREAM_DELAY));
+
+		Room room = roomService.createRoom(GameMode.TRUTH_ONLY, "Admin");
+		// Every call gets the same upstream text; let it through instead of falling back to the local corpus
+		room.setQuestionDeck(new QuestionDeck() {
+			@Override
+			public synchronized boolean markApiQuestion(String text) {
+				return true;
+			}
+		});
+		roomService.addPlayerToRoom(room.getRoomCode(), "Player");
+		gameService.startGame(room.getRoomId(), room.getAdminToken());
+
+		// Far more concurrent requests than a pinned worker pool of this size could hold
+		int requests = 64;
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<MvcResult>> calls = new ArrayList<>();
+			for (int i = 0; i < requests; i++) {
+				calls.add(() -> mockMvc.perform(get("/api/game/{roomId}/question", room.getRoomId()))
+						.andExpect(request().asyncStarted())
+						.andReturn());
+			}
+
+			long start = System.nanoTime();
+			List<Future<MvcResult>> started = callers.invokeAll(calls);
+			long dispatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			// Every caller thread was handed back before its upstream call completed: blocking
+			// callers would need requests / 8 upstream delays, non-blocking ones not even one
+			assertThat(dispatchMillis).isLessThan(UPSTREAM_DELAY.toMillis());
+
+			for (Future<MvcResult> result : started) {
+				mockMvc.perform(asyncDispatch(result.get()))
+						.andExpect(status().isOk())
+						.andExpect(jsonPath("$.text").value("Tell us your biggest fear"));
+			}
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.dto.RoomTransferDto;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.Role;
+import com.truthdare.backend.model.RoomEvent;
+import com.truthdare.backend.model.RoomStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomJournalTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysJournalTailOverSnapshot() throws Exception {
+		RoomJournal journal = open(1);
+		journal.append(RoomEvent.CREATED, room("ABC123", 1));
+		long snapshotSeq = journal.roll();
+		journal.writeSnapshot(snapshotSeq, List.of(room("ABC123", 1)));
+		journal.append(RoomEvent.JOINED, room("ABC123", 2));
+		journal.append(RoomEvent.CREATED, room("XYZ789", 1));
+		journal.appendClosed("XYZ789-1");
+		journal.close();
+
+		List<RoomTransferDto> snapshot = new ArrayList<>();
+		RoomJournal reader = new RoomJournal(true, directory.toString(), 1, true);
+		long from = reader.readSnapshot(snapshot::add);
+		List<RoomJournal.Entry> tail = new ArrayList<>();
+		long lastSeq = reader.replay(from, tail::add);
+
+		assertThat(from).isEqualTo(snapshotSeq);
+		assertThat(snapshot).extracting(RoomTransferDto::getRoomCode).containsExactly("ABC123");
+		assertThat(tail).extracting(RoomJournal.Entry::event)
+				.containsExactly(RoomEvent.JOINED, RoomEvent.CREATED, RoomEvent.CLOSED);
+		assertThat(tail.get(0).state().getPlayers()).hasSize(2);
+		assertThat(tail.get(2).roomId()).isEqualTo("XYZ789-1");
+		assertThat(lastSeq).isEqualTo(snapshotSeq + 2);
+	}
+
+	@Test
+	void continuesAfterTornTailOnceReopened() throws Exception {
+		RoomJournal journal = open(1);
+		journal.append(RoomEvent.CREATED, room("ABC123", 1));
+		journal.append(RoomEvent.JOINED, room("ABC123", 2));
+		journal.close();
+		corruptLastRecord();
+
+		RoomJournal recovered = new RoomJournal(true, directory.toString(), 1, true);
+		long lastSeq = recovered.replay(1, entry -> { });
+		assertThat(lastSeq).isEqualTo(1);
+
+		recovered.open(lastSeq + 1);
+		recovered.append(RoomEvent.JOINED, room("ABC123", 3));
+		recovered.close();
+
+		List<RoomJournal.Entry> entries = new ArrayList<>();
+		new RoomJournal(true, directory.toString(), 1, true).replay(1, entries::add);
+		assertThat(entries).extracting(entry -> entry.state().getPlayers().size()).containsExactly(1, 3);
+	}
+
+	private RoomJournal open(long nextSeq) throws Exception {
+		RoomJournal journal = new RoomJournal(true, directory.toString(), 1, true);
+		journal.open(nextSeq);
+		return journal;
+	}
+
+	private void corruptLastRecord() throws Exception {
+		Path segment;
+		try (Stream<Path> files = Files.list(directory)) {
+			segment = files.filter(path -> path.toString().endsWith(".seg")).findFirst().orElseThrow();
+		}
+		int first = RoomStateCodec.encode(room("ABC123", 1)).length + 17;
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			long position = first + 20; // Inside the second record's payload
+			file.seek(position);
+			int value = file.read();
+			file.seek(position);
+			file.write(value ^ 0x7F);
+		}
+	}
+
+	private static RoomTransferDto room(String code, int players) {
+		List<Player> list = new ArrayList<>();
+		for (int i = 0; i < players; i++) {
+			list.add(new Player("p" + i, "Player " + i, i == 0 ? Role.ADMIN : Role.PLAYER, LocalDateTime.now()));
+		}
+		LocalDateTime now = LocalDateTime.now();
+		return new RoomTransferDto(code + "-1", code, "token", GameMode.TRUTH_AND_DARE, RoomStatus.WAITING,
+				list, 0, null, List.of(), now, now, players);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.truthdare.backend.service;
+
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomRegistryTests {
+
+	// Initial slots per segment, and the segment picked by a hash's top 6 bits
+	private static final int SLOTS = 16;
+
+	@Test
+	void probeRunsWrapAroundTheEndOfTheTable() {
+		// a and b both belong in the last slot, so b wraps to slot 0; c belongs in slot 0 and lands in slot 1
+		List<Long> last = keysHomedAt(SLOTS - 1, 2);
+		long a = last.get(0);
+		long b = last.get(1);
+		long c = keysHomedAt(0, 1).get(0);
+		RoomRegistry registry = new RoomRegistry();
+		Room roomA = room("AAAAAA");
+		Room roomB = room("BBBBBB");
+		Room roomC = room("CCCCCC");
+
+		assertThat(registry.putIfAbsent(a, roomA)).isNull();
+		assertThat(registry.putIfAbsent(b, roomB)).isNull();
+		assertThat(registry.putIfAbsent(c, roomC)).isNull();
+		assertThat(registry.putIfAbsent(b, room("DDDDDD"))).isSameAs(roomB);
+		assertThat(registry.get(a)).isSameAs(roomA);
+		assertThat(registry.get(b)).isSameAs(roomB);
+		assertThat(registry.get(c)).isSameAs(roomC);
+
+		// Removing the head of the run shifts b back across the end and c into slot 0
+		assertThat(registry.remove(a, roomB)).isFalse();
+		assertThat(registry.remove(a, roomA)).isTrue();
+		assertThat(registry.get(a)).isNull();
+		assertThat(registry.get(b)).isSameAs(roomB);
+		assertThat(registry.get(c)).isSameAs(roomC);
+
+		assertThat(registry.remove(b, roomB)).isTrue();
+		assertThat(registry.get(c)).isSameAs(roomC);
+		assertThat(registry.putIfAbsent(a, roomA)).isNull();
+		assertThat(registry.get(a)).isSameAs(roomA);
+		assertThat(registry.size()).isEqualTo(2);
+	}
+
+	@Test
+	void keepsEveryRoomThroughResizesAndRemovals() {
+		RoomRegistry registry = new RoomRegistry();
+		List<Room> rooms = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			Room room = room(String.format("R%05d", i));
+			rooms.add(room);
+			assertThat(registry.putIfAbsent(i, room)).isNull();
+		}
+		for (int i = 0; i < rooms.size(); i += 2) {
+			assertThat(registry.remove(i, rooms.get(i))).isTrue();
+		}
+
+		assertThat(registry.size()).isEqualTo(2_500);
+		for (int i = 0; i < rooms.size(); i++) {
+			assertThat(registry.get(i)).isSameAs(i % 2 == 0 ? null : rooms.get(i));
+		}
+		List<Room> visited = new ArrayList<>();
+		registry.forEach(visited::add);
+		assertThat(visited).hasSize(2_500);
+	}
+
+	/**
+	 * Keys of segment 0 whose home is the given slot of a fresh segment table
+	 */
+	private static List<Long> keysHomedAt(int slot, int count) {
+		List<Long> keys = new ArrayList<>();
+		for (long key = 0; keys.size() < count; key++) {
+			long hash = RoomRegistry.mix(key);
+			if (hash >>> (Long.SIZE - 6) == 0 && ((int) hash & (SLOTS - 1)) == slot) {
+				keys.add(key);
+			}
+		}
+		return keys;
+	}
+
+	private static Room room(String code) {
+		return new Room(code, "token", GameMode.TRUTH_AND_DARE);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.truthdare.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistentHashRingTests {
+
+	private static final long CODE_SPACE = 2_176_782_336L; // 36^6
+	private static final int VIRTUAL_NODES = 160;
+	private static final int KEYS = 100_000;
+
+	private final long[] keys = new Random(42).longs(KEYS, 0, CODE_SPACE).toArray();
+
+	@Test
+	void instancesBuiltFromTheSameNodesAgreeOnEveryOwner() {
+		ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), VIRTUAL_NODES);
+		// Listed in another order and with a duplicate, as a misconfigured peer might
+		ConsistentHashRing peer = new ConsistentHashRing(List.of("node-c", "node-a", "node-b", "node-a"), VIRTUAL_NODES);
+
+		assertThat(peer.getNodes()).hasSize(3);
+		for (long key : keys) {
+			assertThat(peer.ownerOf(key)).isEqualTo(ring.ownerOf(key));
+		}
+	}
+
+	@Test
+	void spreadsKeysRoughlyEvenly() {
+		List<String> nodes = List.of("node-a", "node-b", "node-c", "node-d");
+		ConsistentHashRing ring = new ConsistentHashRing(nodes, VIRTUAL_NODES);
+		Map<String, Integer> owned = new HashMap<>();
+		for (long key : keys) {
+			owned.merge(ring.ownerOf(key), 1, Integer::sum);
+		}
+
+		assertThat(owned).hasSize(nodes.size());
+		for (int count : owned.values()) {
+			assertThat(count).isBetween(KEYS / nodes.size() * 3 / 4, KEYS / nodes.size() * 5 / 4);
+		}
+	}
+
+	@Test
+	void addingANodeMovesAboutItsShareOfKeysAndOnlyToIt() {
+		ConsistentHashRing before = new ConsistentHashRing(List.of("node-a", "node-b", "node-c", "node-d"), VIRTUAL_NODES);
+		ConsistentHashRing after = new ConsistentHashRing(List.of("node-a", "node-b", "node-c", "node-d", "node-e"), VIRTUAL_NODES);
+
+		int moved = 0;
+		for (long key : keys) {
+			String owner = after.ownerOf(key);
+			if (!owner.equals(before.ownerOf(key))) {
+				assertThat(owner).isEqualTo("node-e");
+				moved++;
+			}
+		}
+		// Ideal is 1/5 of the keys
+		assertThat(moved).isBetween(KEYS * 3 / 20, KEYS * 5 / 20);
+	}
+
+	@Test
+	void removingANodeOnlyMovesTheKeysItOwned() {
+		ConsistentHashRing before = new ConsistentHashRing(List.of("node-a", "node-b", "node-c", "node-d"), VIRTUAL_NODES);
+		ConsistentHashRing after = new ConsistentHashRing(List.of("node-a", "node-b", "node-d"), VIRTUAL_NODES);
+
+		for (long key : keys) {
+			String owner = before.ownerOf(key);
+			if (!owner.equals("node-c")) {
+				assertThat(after.ownerOf(key)).isEqualTo(owner);
+			}
+		}
+	}
+
+	@Test
+	void rejectsEmptyRing() {
+		assertThatThrownBy(() -> new ConsistentHashRing(List.of(), VIRTUAL_NODES))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ConsistentHashRing(List.of("node-a"), 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.truthdare.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomCodeAllocatorTests {
+
+	private static final long CODE_SPACE = 2_176_782_336L; // 36^6
+
+	@Test
+	void neverRepeatsACodeAcrossSingleAndBatchAllocations() {
+		RoomCodeAllocator allocator = new RoomCodeAllocator(Duration.ofHours(1));
+		Set<Long> seen = new HashSet<>();
+		for (int i = 0; i < 100_000; i++) {
+			assertThat(seen.add(inCodeSpace(allocator.next()))).isTrue();
+		}
+		for (int i = 0; i < 100; i++) {
+			for (long key : allocator.next(1_000)) {
+				assertThat(seen.add(inCodeSpace(key))).isTrue();
+			}
+		}
+	}
+
+	@Test
+	void staysDistinctWhenTheCounterWrapsPastTheEndOfTheCodeSpace() {
+		RoomCodeAllocator allocator = new RoomCodeAllocator(startingAt(CODE_SPACE - 500), Duration.ofHours(1));
+		Set<Long> seen = new HashSet<>();
+		for (int i = 0; i < 1_000; i++) {
+			assertThat(seen.add(inCodeSpace(allocator.next()))).isTrue();
+		}
+		for (long key : allocator.next(1_000)) {
+			assertThat(seen.add(inCodeSpace(key))).isTrue();
+		}
+	}
+
+	@Test
+	void releasedCodeIsNotHandedOutDuringQuarantine() {
+		RoomCodeAllocator allocator = new RoomCodeAllocator(Duration.ofHours(1));
+		long released = allocator.next();
+		allocator.release(released);
+		assertThat(allocator.getQuarantinedCount()).isEqualTo(1);
+
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(allocator.next()).isNotEqualTo(released);
+		}
+		assertThat(allocator.next(10_000)).doesNotContain(released);
+		assertThat(allocator.getQuarantinedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void expiredCodesAreReusedOldestFirst() {
+		RoomCodeAllocator allocator = new RoomCodeAllocator(Duration.ZERO);
+		long first = allocator.next();
+		long second = allocator.next();
+		long third = allocator.next();
+		allocator.release(first);
+		allocator.release(second);
+		allocator.release(third);
+
+		assertThat(allocator.next()).isEqualTo(first);
+		long[] batch = allocator.next(3);
+		assertThat(batch[0]).isEqualTo(second);
+		assertThat(batch[1]).isEqualTo(third);
+		assertThat(batch[2]).isNotIn(first, second, third);
+		assertThat(allocator.getQuarantinedCount()).isZero();
+	}
+
+	@Test
+	void unreservedCodesAreHandedOutFirstWithoutQuarantine() {
+		RoomCodeAllocator allocator = new RoomCodeAllocator(Duration.ofHours(1));
+		long[] batch = allocator.next(4);
+		allocator.unreserve(batch[2]);
+		allocator.unreserve(batch[3]);
+
+		assertThat(allocator.next()).isEqualTo(batch[2]);
+		long[] next = allocator.next(2);
+		assertThat(next[0]).isEqualTo(batch[3]);
+		assertThat(next[1]).isNotIn(batch[0], batch[1], batch[2], batch[3]);
+		assertThat(allocator.getQuarantinedCount()).isZero();
+	}
+
+	@Test
+	void ignoresReleasesOutsideTheCodeSpace() {
+		RoomCodeAllocator allocator = new RoomCodeAllocator(Duration.ZERO);
+		allocator.release(-1);
+		allocator.release(CODE_SPACE);
+		assertThat(allocator.getQuarantinedCount()).isZero();
+	}
+
+	private static long inCodeSpace(long key) {
+		assertThat(key).isBetween(0L, CODE_SPACE - 1);
+		return key;
+	}
+
+	/**
+	 * Random source whose first nextLong() puts the allocator's counter at start
+	 */
+	private static SecureRandom startingAt(long start) {
+		return new SecureRandom() {
+			@Override
+			public long nextLong() {
+				return start;
+			}
+		};
+	}
+}
\ No newline at end of file
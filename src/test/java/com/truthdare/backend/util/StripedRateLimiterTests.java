@@ -0,0 +1,80 @@
+package com.truthdare.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedRateLimiterTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void grantsBurstThenRefillsAtRate() {
+		StripedRateLimiter limiter = new StripedRateLimiter(10, 5, 1);
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire(0, 0)).isZero();
+		}
+		// Empty: the next permit is earned 100 ms later
+		assertThat(limiter.tryAcquire(0, 0)).isEqualTo(SECOND / 10);
+		assertThat(limiter.tryAcquire(0, SECOND / 10 - 1)).isEqualTo(1);
+		assertThat(limiter.tryAcquire(0, SECOND / 10)).isZero();
+		assertThat(limiter.tryAcquire(0, SECOND / 10)).isPositive();
+
+		int granted = 0;
+		// One per 100 ms over the following second
+		for (long now = SECOND / 10 + SECOND / 100; now <= SECOND + SECOND / 10; now += SECOND / 100) {
+			if (limiter.tryAcquire(0, now) == 0) {
+				granted++;
+			}
+		}
+		assertThat(granted).isEqualTo(10);
+	}
+
+	@Test
+	void idleBucketRefillsOnlyUpToBurst() {
+		StripedRateLimiter limiter = new StripedRateLimiter(10, 5, 1);
+		limiter.tryAcquire(0, 0);
+
+		int granted = 0;
+		while (limiter.tryAcquire(0, 60 * SECOND) == 0) {
+			granted++;
+		}
+		assertThat(granted).isEqualTo(5);
+	}
+
+	@Test
+	void takesSeveralPermitsAllOrNone() {
+		StripedRateLimiter limiter = new StripedRateLimiter(10, 5, 1);
+		assertThat(limiter.tryAcquire(0, 0, 3)).isZero();
+		// Two left: three more are 100 ms away, two are there now
+		assertThat(limiter.tryAcquire(0, 0, 3)).isEqualTo(SECOND / 10);
+		assertThat(limiter.tryAcquire(0, 0, 2)).isZero();
+		assertThat(limiter.tryAcquire(0, 0)).isPositive();
+		assertThat(limiter.tryAcquire(0, 5 * SECOND / 10, 5)).isZero();
+	}
+
+	@Test
+	void refusesMoreThanTheBurst() {
+		StripedRateLimiter limiter = new StripedRateLimiter(10, 5, 1);
+		assertThatThrownBy(() -> limiter.tryAcquire(0, 0, 6)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void stripesAreIndependent() {
+		StripedRateLimiter limiter = new StripedRateLimiter(1, 1, 3);
+		assertThat(limiter.getStripeCount()).isEqualTo(4);
+
+		assertThat(limiter.tryAcquire(0, 0)).isZero();
+		assertThat(limiter.tryAcquire(0, 0)).isPositive();
+		assertThat(limiter.tryAcquire(1, 0)).isZero();
+	}
+
+	@Test
+	void sameKeySharesItsBucket() {
+		StripedRateLimiter limiter = new StripedRateLimiter(1, 2, 1024);
+		assertThat(limiter.tryAcquire("203.0.113.7")).isZero();
+		assertThat(limiter.tryAcquire("203.0.113.7")).isZero();
+		assertThat(limiter.tryAcquire("203.0.113.7")).isPositive();
+	}
+}
\ No newline at end of file
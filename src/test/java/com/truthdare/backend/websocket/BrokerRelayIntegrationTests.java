@@ -0,0 +1,216 @@
+package com.truthdare.backend.websocket;
+
+import com.truthdare.backend.TruthDareBackendApplication;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application nodes relaying /topic through one embedded Artemis broker.
+ * Players of the same room are connected to different nodes; everything the room's
+ * owning node broadcasts must reach both of them.
+ */
+class BrokerRelayIntegrationTests {
+
+	private static final long TIMEOUT_SECONDS = 10;
+
+	@TempDir
+	static Path brokerDir;
+
+	private static EmbeddedActiveMQ broker;
+	private static ConfigurableApplicationContext nodeA;
+	private static ConfigurableApplicationContext nodeB;
+	private static ThreadPoolTaskScheduler receiptScheduler;
+
+	@BeforeAll
+	static void startBrokerAndNodes() throws Exception {
+		int stompPort = freePort();
+		Configuration config = new ConfigurationImpl()
+				.setPersistenceEnabled(false)
+				.setSecurityEnabled(false)
+				.setBindingsDirectory(brokerDir.resolve("bindings").toString())
+				.setJournalDirectory(brokerDir.resolve("journal").toString())
+				.setLargeMessagesDirectory(brokerDir.resolve("large-messages").toString())
+				.setPagingDirectory(brokerDir.resolve("paging").toString())
+				.addAcceptorConfiguration("stomp", "tcp://localhost:" + stompPort + "?protocols=STOMP");
+		// Room topics are auto-created on first use and fan out to every subscriber
+		config.addAddressSetting("#", new AddressSettings()
+				.setDefaultAddressRoutingType(RoutingType.MULTICAST)
+				.setAutoCreateAddresses(true)
+				.setAutoCreateQueues(true));
+		broker = new EmbeddedActiveMQ();
+		broker.setConfiguration(config);
+		broker.start();
+
+		nodeA = startNode(stompPort);
+		nodeB = startNode(stompPort);
+
+		receiptScheduler = new ThreadPoolTaskScheduler();
+		receiptScheduler.initialize();
+	}
+
+	@AfterAll
+	static void stopBrokerAndNodes() throws Exception {
+		if (receiptScheduler != null) {
+			receiptScheduler.shutdown();
+		}
+		if (nodeB != null) {
+			nodeB.close();
+		}
+		if (nodeA != null) {
+			nodeA.close();
+		}
+		if (broker != null) {
+			broker.stop();
+		}
+	}
+
+	@Test
+	void playersOnDifferentNodesReceiveEveryRoomEvent() throws Exception {
+		RestClient owner = RestClient.create("http://localhost:" + port(nodeA));
+
+		Map<?, ?> created = owner.post().uri("/api/rooms")
+				.body(Map.of("gameMode", "TRUTH_ONLY", "playerName", "Admin"))
+				.retrieve()
+				.body(Map.class);
+		String roomCode = (String) created.get("roomCode");
+		String roomId = (String) created.get("roomId");
+		String adminToken = (String) created.get("adminToken");
+
+		List<Map<String, Object>> onA = new CopyOnWriteArrayList<>();
+		List<Map<String, Object>> onB = new CopyOnWriteArrayList<>();
+		StompSession sessionA = subscribe(nodeA, roomCode, onA);
+		StompSession sessionB = subscribe(nodeB, roomCode, onB);
+
+		try {
+			owner.post().uri("/api/rooms/join")
+					.body(Map.of("roomCode", roomCode, "playerName", "Player"))
+					.retrieve()
+					.toBodilessEntity();
+			owner.post().uri("/api/game/{roomId}/start", roomId)
+					.header("X-Admin-Token", adminToken)
+					.retrieve()
+					.toBodilessEntity();
+
+			awaitEvent(onA, "GAME_STARTED");
+			awaitEvent(onB, "GAME_STARTED");
+
+			List<String> typesOnA = eventTypes(onA);
+			assertThat(typesOnA).contains("PLAYER_JOINED", "GAME_STARTED");
+			assertThat(eventTypes(onB)).isEqualTo(typesOnA);
+		} finally {
+			sessionA.disconnect();
+			sessionB.disconnect();
+		}
+	}
+
+	private static ConfigurableApplicationContext startNode(int stompPort) {
+		return new SpringApplicationBuilder(TruthDareBackendApplication.class)
+				.properties(
+						"server.port=0",
+						"questions.prefetch.enabled=false",
+						"websocket.broker.mode=relay",
+						"websocket.broker.relay.host=localhost",
+						"websocket.broker.relay.port=" + stompPort)
+				.run();
+	}
+
+	/**
+	 * Connect to a node and subscribe to the room topic, returning once the broker has
+	 * acknowledged the subscription
+	 */
+	private StompSession subscribe(ConfigurableApplicationContext node, String roomCode,
+			List<Map<String, Object>> received) throws Exception {
+		WebSocketStompClient stompClient = new WebSocketStompClient(
+				new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+		stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+		stompClient.setTaskScheduler(receiptScheduler);
+
+		StompSession session = stompClient
+				.connectAsync("http://localhost:" + port(node) + "/ws", new StompSessionHandlerAdapter() {})
+				.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		session.setAutoReceipt(true);
+
+		CountDownLatch subscribed = new CountDownLatch(1);
+		session.subscribe("/topic/room/" + roomCode, new StompFrameHandler() {
+			@Override
+			public Type getPayloadType(StompHeaders headers) {
+				return Map.class;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public void handleFrame(StompHeaders headers, Object payload) {
+				received.add((Map<String, Object>) payload);
+			}
+		}).addReceiptTask(subscribed::countDown);
+		assertThat(subscribed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		return session;
+	}
+
+	private static void awaitEvent(List<Map<String, Object>> received, String eventType) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+		while (!eventTypes(received).contains(eventType)) {
+			assertThat(System.nanoTime()).as("waiting for %s", eventType).isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	/**
+	 * Event types in arrival order, with BATCH frames flattened into their items
+	 */
+	private static List<String> eventTypes(List<Map<String, Object>> received) {
+		List<String> types = new ArrayList<>();
+		for (Map<String, Object> frame : received) {
+			if (RoomBroadcastBatcher.EVENT_BATCH.equals(frame.get("eventType"))) {
+				for (Object item : (List<?>) frame.get("data")) {
+					types.add((String) ((Map<?, ?>) item).get("eventType"));
+				}
+			} else {
+				types.add((String) frame.get("eventType"));
+			}
+		}
+		return types;
+	}
+
+	private static int port(ConfigurableApplicationContext node) {
+		return Integer.parseInt(node.getEnvironment().getProperty("local.server.port"));
+	}
+
+	private static int freePort() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
\ No newline at end of file
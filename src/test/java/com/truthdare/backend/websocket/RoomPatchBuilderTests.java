@@ -0,0 +1,96 @@
+package com.truthdare.backend.websocket;
+
+import com.truthdare.backend.dto.PlayerDto;
+import com.truthdare.backend.dto.QuestionDto;
+import com.truthdare.backend.dto.RoomPatchDto;
+import com.truthdare.backend.model.GameMode;
+import com.truthdare.backend.model.Player;
+import com.truthdare.backend.model.Question;
+import com.truthdare.backend.model.QuestionType;
+import com.truthdare.backend.model.Role;
+import com.truthdare.backend.model.RoomSnapshot;
+import com.truthdare.backend.model.RoomStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomPatchBuilderTests {
+
+	private static final LocalDateTime JOINED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	private final Player admin = player("p0", "Admin", Role.ADMIN);
+	private final Player alice = player("p1", "Alice", Role.PLAYER);
+	private final Player bob = player("p2", "Bob", Role.PLAYER);
+
+	@Test
+	void unchangedStateHasNoOps() {
+		RoomSnapshot state = snapshot(1, List.of(admin, alice), 0, null);
+		assertThat(RoomPatchBuilder.diff(state, snapshot(2, List.of(admin, alice), 0, null))).isEmpty();
+	}
+
+	@Test
+	void gameFieldsAreSentAsAbsoluteValues() {
+		Question question = new Question("q1", "Truth?", QuestionType.TRUTH, "p1", false);
+		RoomSnapshot from = snapshot(1, List.of(admin, alice), 0, null);
+		RoomSnapshot to = new RoomSnapshot(2, GameMode.DARE_ONLY, RoomStatus.ACTIVE, List.of(admin, alice), 1, question, JOINED_AT);
+
+		List<RoomPatchDto.Op> ops = RoomPatchBuilder.diff(from, to);
+
+		assertThat(ops).extracting(RoomPatchDto.Op::getOp).containsExactly(
+				RoomPatchDto.TURN, RoomPatchDto.QUESTION, RoomPatchDto.STATUS, RoomPatchDto.GAME_MODE);
+		assertThat(ops.get(0).getValue()).isEqualTo(1);
+		assertThat(((QuestionDto) ops.get(1).getValue()).getText()).isEqualTo("Truth?");
+		assertThat(ops.get(2).getValue()).isEqualTo(RoomStatus.ACTIVE);
+		assertThat(ops.get(3).getValue()).isEqualTo(GameMode.DARE_ONLY);
+
+		RoomSnapshot cleared = new RoomSnapshot(3, GameMode.DARE_ONLY, RoomStatus.ACTIVE, List.of(admin, alice), 1, null, JOINED_AT);
+		List<RoomPatchDto.Op> clearedOps = RoomPatchBuilder.diff(to, cleared);
+		assertThat(clearedOps).extracting(RoomPatchDto.Op::getOp).containsExactly(RoomPatchDto.QUESTION);
+		assertThat(clearedOps.get(0).getValue()).isNull();
+	}
+
+	@Test
+	void removalsComeBeforeAppendedPlayers() {
+		RoomSnapshot from = snapshot(1, List.of(admin, alice), 0, null);
+		RoomSnapshot to = snapshot(2, List.of(admin, bob), 0, null);
+
+		List<RoomPatchDto.Op> ops = RoomPatchBuilder.diff(from, to);
+
+		assertThat(ops).extracting(RoomPatchDto.Op::getOp).containsExactly(RoomPatchDto.PLAYER_REMOVED, RoomPatchDto.PLAYER_ADDED);
+		assertThat(ops.get(0).getValue()).isEqualTo("p1");
+		PlayerDto added = (PlayerDto) ops.get(1).getValue();
+		assertThat(added.getPlayerId()).isEqualTo("p2");
+		assertThat(added.getName()).isEqualTo("Bob");
+	}
+
+	@Test
+	void membershipChangesTheOpsCannotReproduceNeedFullState() {
+		RoomSnapshot from = snapshot(1, List.of(admin, alice, bob), 0, null);
+
+		// Reordered players: removes and appends can't rebuild the order
+		assertThat(RoomPatchBuilder.diff(from, snapshot(2, List.of(admin, bob, alice), 0, null))).isNull();
+		// A kept player changed in place
+		assertThat(RoomPatchBuilder.diff(from,
+				snapshot(2, List.of(admin, player("p1", "Alicia", Role.PLAYER), bob), 0, null))).isNull();
+	}
+
+	@Test
+	void playerWhoJoinedAndLeftBetweenBroadcastsProducesNoOps() {
+		// Patches are only valid against their base state; a client holding the state in
+		// between (with the player) must resync rather than apply this
+		RoomSnapshot from = snapshot(1, List.of(admin, alice), 0, null);
+		RoomSnapshot to = snapshot(3, List.of(admin, alice), 0, null);
+		assertThat(RoomPatchBuilder.diff(from, to)).isEmpty();
+	}
+
+	private static RoomSnapshot snapshot(long version, List<Player> players, int turn, Question question) {
+		return new RoomSnapshot(version, GameMode.TRUTH_AND_DARE, RoomStatus.WAITING, players, turn, question, JOINED_AT);
+	}
+
+	private static Player player(String id, String name, Role role) {
+		return new Player(id, name, role, JOINED_AT);
+	}
+}
\ No newline at end of file